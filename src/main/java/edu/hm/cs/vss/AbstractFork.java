@@ -0,0 +1,73 @@
+package edu.hm.cs.vss;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A fork which parks waiting philosophers and hands itself over directly to the next waiting philosopher on release.
+ * Subclasses only decide where the blocked state of the fork is stored.
+ */
+public abstract class AbstractFork implements Fork {
+    private final transient Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Set the stored state of the fork to available.
+     */
+    protected abstract void free();
+
+    @Override
+    public boolean acquire(final WaitStrategy strategy) throws InterruptedException {
+        final long deadline = System.nanoTime() + strategy.getParkTime();
+
+        // Spin and yield without registering as a waiter
+        for (int attempt = 0; strategy.isBusyAttempt(attempt); attempt++) {
+            if (tryAcquire()) {
+                return true;
+            }
+            strategy.idle(attempt, deadline);
+        }
+
+        // Park until the fork is handed over or the time is up
+        final Waiter waiter = new Waiter();
+        waiters.add(waiter);
+        if (tryAcquire()) {
+            waiter.cancel(); // Nobody can hand over the fork while we hold it
+            return true;
+        }
+        while (!waiter.isGranted()) {
+            final boolean interrupted = Thread.interrupted();
+            final long remaining = deadline - System.nanoTime();
+            if (interrupted || remaining <= 0) {
+                if (waiter.cancel()) {
+                    if (interrupted) {
+                        throw new InterruptedException();
+                    }
+                    return false;
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt(); // The fork was handed over in the meantime
+                }
+                break;
+            }
+            LockSupport.parkNanos(this, remaining);
+        }
+        return true;
+    }
+
+    @Override
+    public void release() {
+        while (true) {
+            final Waiter waiter = waiters.poll();
+            if (waiter == null) {
+                free();
+                // A waiter might have registered after the poll -> take the fork back to hand it over
+                if (waiters.isEmpty() || !tryAcquire()) {
+                    return;
+                }
+            } else if (waiter.grant()) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package edu.hm.cs.vss;
+
+import java.util.List;
+
+/**
+ * Grabs both forks at once through the table. If one of the forks is blocked, the philosopher waits as his fork wait
+ * strategy describes and tries again.
+ */
+final class AtomicPairStrategy implements ForkAcquisitionStrategy {
+    static final AtomicPairStrategy INSTANCE = new AtomicPairStrategy();
+
+    private AtomicPairStrategy() {
+    }
+
+    @Override
+    public void acquire(final Philosopher philosopher, final Chair chair, final Chair neighbourChair, final List<Fork> forks)
+            throws InterruptedException {
+        final Table table = philosopher.getTable();
+        final WaitStrategy waitStrategy = philosopher.getForkWaitStrategy();
+
+        long deadline = System.nanoTime() + waitStrategy.getParkTime();
+        for (int attempt = 0; !table.tryAcquireForks(chair, neighbourChair, forks); attempt++) {
+            if (!waitStrategy.idle(attempt, deadline)) {
+                // Start over with spinning
+                attempt = -1;
+                deadline = System.nanoTime() + waitStrategy.getParkTime();
+            }
+            if (philosopher.isInterrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package edu.hm.cs.vss;
+
+import java.util.List;
+
+/**
+ * Grabs the right fork first and the left fork afterwards. If a fork can't be grabbed in time, the philosopher assumes
+ * a deadlock and puts down all his forks.
+ */
+final class BackOffStrategy implements ForkAcquisitionStrategy {
+    static final BackOffStrategy INSTANCE = new BackOffStrategy();
+
+    private BackOffStrategy() {
+    }
+
+    @Override
+    public void acquire(final Philosopher philosopher, final Chair chair, final Chair neighbourChair, final List<Fork> forks)
+            throws InterruptedException {
+        final Fork fork = chair.getFork();
+        final Fork neighbourFork = neighbourChair.getFork();
+        final WaitStrategy waitStrategy = philosopher.getForkWaitStrategy();
+
+        try {
+            while (forks.isEmpty()) {
+                // Try to get the right fork
+                if (!fork.acquire(waitStrategy)) {
+                    // First fork was not found -> skip to start
+                    continue;
+                }
+                forks.add(fork);
+
+                if (fork.equals(neighbourFork)) {
+                    return;
+                }
+
+                // Try to get the left fork
+                if (neighbourFork.acquire(waitStrategy)) {
+                    forks.add(neighbourFork);
+                } else {
+                    // I deadlocked, unlocking forks
+                    release(philosopher, chair, forks);
+                }
+            }
+        } catch (InterruptedException e) {
+            release(philosopher, chair, forks);
+            throw e;
+        }
+    }
+}
@@ -4,9 +4,8 @@ import edu.hm.cs.vss.remote.RemoteChair;
 import edu.hm.cs.vss.remote.RemoteTable;
 
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Stream;
 
 /**
@@ -20,8 +19,9 @@ public interface BackupService extends Serializable {
      */
     static BackupService create(final RemoteTable table) {
         return new BackupService() {
-            private final List<Chair> chairList = Collections.synchronizedList(new ArrayList<>());
-            private final List<Philosopher> philosopherList = Collections.synchronizedList(new ArrayList<>());
+            // Streamed by the remote calls while other remote calls change them
+            private final List<Chair> chairList = new CopyOnWriteArrayList<>();
+            private final List<Philosopher> philosopherList = new CopyOnWriteArrayList<>();
 
             @Override
             public void addChair(Chair chair) {
@@ -89,11 +89,17 @@ public interface BackupService extends Serializable {
 
     Stream<Philosopher> getPhilosophers();
 
-    default void onPhilosopherStandUp(final String name) {
+    /**
+     * Update the backup of a philosopher who stood up. A philosopher might have eaten several meals before he stood up.
+     *
+     * @param name      of the philosopher.
+     * @param mealCount the philosopher has eaten now.
+     */
+    default void onPhilosopherStandUp(final String name, final int mealCount) {
         getPhilosophers().parallel()
                 .filter(philosopher -> philosopher.getName().equals(name))
                 .findAny()
-                .ifPresent(Philosopher::incrementMealCount);
+                .ifPresent(philosopher -> philosopher.setMealCount(mealCount));
     }
 
     default void restoreTo(final Table table) {
@@ -1,11 +1,18 @@
 package edu.hm.cs.vss;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.Semaphore;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Created by Fabio Hellmann on 17.03.2016.
@@ -18,28 +25,239 @@ public interface Chair extends Serializable {
      */
     Fork getFork();
 
+    /**
+     * Blocks this chair if it is available.
+     *
+     * @return <code>true</code> if the chair was blocked by the calling thread.
+     */
+    boolean tryAcquire() throws InterruptedException;
+
+    /**
+     * Blocks this chair if it is available or get's available within the timeout.
+     *
+     * @param timeout to wait for the chair. (<code>0</code> to return immediately)
+     * @param unit    of the timeout.
+     * @return <code>true</code> if the chair was blocked by the calling thread.
+     */
+    default boolean tryAcquire(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return tryAcquire();
+    }
+
+    /**
+     * Blocks this chair if it is available or get's available within the max wait time of the chair. Philosophers with
+     * a higher priority are served first, chairs without a waiting queue ignore the priority.
+     *
+     * @param priority of the philosopher. (<code>0</code> is the lowest, see {@link TableMaster#getSeatPriority})
+     * @return <code>true</code> if the chair was blocked by the calling thread.
+     */
+    default boolean tryAcquire(final int priority) throws InterruptedException {
+        return tryAcquire();
+    }
+
+    /**
+     * Set the chair available again.
+     */
+    void release();
+
+    /**
+     * Blocks this chair, his fork and the fork of the neighbour chair without waiting. Either all of them are blocked
+     * or none of them.
+     *
+     * @param neighbourChair of this chair.
+     * @param forks          to add the blocked forks to.
+     * @return <code>true</code> if the chair and both forks were blocked by the calling thread.
+     */
+    default boolean tryAcquireWithForks(final Chair neighbourChair, final List<Fork> forks) throws InterruptedException {
+        if (!tryAcquire(0, TimeUnit.NANOSECONDS)) {
+            return false;
+        }
+        final Fork fork = getFork();
+        final Fork neighbourFork = neighbourChair.getFork();
+        final boolean sameFork = fork.equals(neighbourFork);
+        if (!fork.tryAcquire()) {
+            release();
+            return false;
+        }
+        if (!sameFork && !neighbourFork.tryAcquire()) {
+            fork.release();
+            release();
+            return false;
+        }
+        forks.add(fork);
+        if (!sameFork) {
+            forks.add(neighbourFork);
+        }
+        return true;
+    }
+
+    /**
+     * Release the forks blocked by {@link #tryAcquireWithForks(Chair, List)} and set the chair available again.
+     *
+     * @param neighbourChair of this chair.
+     * @param forks          to release.
+     */
+    default void releaseWithForks(final Chair neighbourChair, final List<Fork> forks) {
+        forks.forEach(Fork::release);
+        forks.clear();
+        release();
+    }
+
+    /**
+     * Get the neighbour chair if this chair already knows him, so the table doesn't need to search him.
+     *
+     * @return the neighbour chair or nothing if it is unknown.
+     */
+    default Optional<Chair> getKnownNeighbourChair() {
+        return Optional.empty();
+    }
+
+    /**
+     * Check whether every call to this chair is a round trip to another table. The seat and the forks of such a chair
+     * are blocked and released at once.
+     *
+     * @return <code>true</code> if the chair belongs to a remote table.
+     */
+    default boolean isRemote() {
+        return false;
+    }
+
     /**
      * Blocks this chair immediately if it is available.
      *
      * @return the chair or <code>null</code> if the chair wasn't available.
      */
-    Optional<Chair> blockIfAvailable() throws InterruptedException;
+    default Optional<Chair> blockIfAvailable() throws InterruptedException {
+        return tryAcquire() ? Optional.of(this) : Optional.empty();
+    }
 
     /**
      * Set the chair available again.
      */
-    void unblock();
+    default void unblock() {
+        release();
+    }
 
     /**
-     * Get the amount of waiting philosophers for this chair.
+     * Get the amount of waiting philosophers for this chair. (Including the one sitting on it)
      *
      * @return the amount of waiting philosophers.
      */
     int getWaitingPhilosopherCount();
 
+    /**
+     * Blocks this chair if it is available without waiting for it.
+     *
+     * @return the future which completes with <code>true</code> if the chair was blocked.
+     */
+    default CompletableFuture<Boolean> acquireAsync() {
+        final CompletableFuture<Boolean> future = new CompletableFuture<>();
+        try {
+            future.complete(tryAcquire(0, TimeUnit.NANOSECONDS));
+        } catch (InterruptedException | RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Set the chair available again.
+     *
+     * @return the future which completes as soon as the chair is available.
+     */
+    default CompletableFuture<Void> releaseAsync() {
+        release();
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * @return the future which completes with the amount of waiting philosophers.
+     */
+    default CompletableFuture<Integer> waitingCountAsync() {
+        return CompletableFuture.completedFuture(getWaitingPhilosopherCount());
+    }
+
+    /**
+     * Ask several chairs at once for their amount of waiting philosophers.
+     *
+     * @param chairs to ask.
+     * @return the future which completes with the least busy chair or nothing if there are no chairs.
+     */
+    static CompletableFuture<Optional<Chair>> leastBusyAsync(final List<? extends Chair> chairs) {
+        final List<CompletableFuture<Integer>> counts = new ArrayList<>(chairs.size());
+        for (Chair chair : chairs) {
+            counts.add(chair.waitingCountAsync());
+        }
+        return CompletableFuture.allOf(counts.toArray(new CompletableFuture<?>[counts.size()])).thenApply(done -> {
+            Chair leastBusy = null;
+            int minCount = Integer.MAX_VALUE;
+            for (int index = 0; index < chairs.size(); index++) {
+                final int count = counts.get(index).join();
+                if (count < minCount) {
+                    leastBusy = chairs.get(index);
+                    minCount = count;
+                }
+            }
+            return Optional.ofNullable(leastBusy);
+        });
+    }
+
+    /**
+     * Try to block several chairs at once and keep the first one which could be blocked. All other chairs which were
+     * blocked as well are released again.
+     *
+     * @param chairs to try.
+     * @return the future which completes with the blocked chair or nothing if none of the chairs was available.
+     */
+    static CompletableFuture<Optional<Chair>> acquireAnyAsync(final Collection<? extends Chair> chairs) {
+        final CompletableFuture<Optional<Chair>> result = new CompletableFuture<>();
+        final AtomicInteger pending = new AtomicInteger(chairs.size());
+        if (chairs.isEmpty()) {
+            result.complete(Optional.empty());
+        }
+        for (Chair chair : chairs) {
+            chair.acquireAsync().whenComplete((acquired, error) -> {
+                if (Boolean.TRUE.equals(acquired) && !result.complete(Optional.of(chair))) {
+                    chair.releaseAsync(); // Another chair was faster
+                }
+                if (pending.decrementAndGet() == 0) {
+                    result.complete(Optional.empty());
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Register a listener which get's notified every time this chair is unblocked. Chairs which can't observe their
+     * state (e.g. chairs of remote tables) ignore the listener.
+     *
+     * @param listener to add.
+     */
+    default void addOnAvailableListener(final OnAvailableListener listener) {
+        // Default: do nothing
+    }
+
+    /**
+     * @param listener to remove.
+     */
+    default void removeOnAvailableListener(final OnAvailableListener listener) {
+        // Default: do nothing
+    }
+
+    @FunctionalInterface
+    interface OnAvailableListener {
+        void onAvailable(final Chair chair);
+    }
+
     class Builder implements Serializable {
+        private static final long DEFAULT_MAX_WAIT_TIME = TimeUnit.NANOSECONDS.convert(10, TimeUnit.MILLISECONDS);
+        private static final long DEFAULT_PRIORITY_HEAD_START = TimeUnit.NANOSECONDS.convert(5, TimeUnit.MILLISECONDS);
+        private static final int OCCUPIED = 1;
+        private static final int WAITING = 2;
         private static int counter = 1;
         private String name = "Chair-" + Integer.toString(counter++);
+        private long maxWaitTime = DEFAULT_MAX_WAIT_TIME;
+        private long priorityHeadStart = DEFAULT_PRIORITY_HEAD_START;
 
         public Builder setNameUniqueId() {
             name = "Chair-" + UUID.randomUUID().toString();
@@ -51,11 +269,41 @@ public interface Chair extends Serializable {
             return this;
         }
 
+        /**
+         * Set the maximum time a philosopher waits in the queue of the chair before he gives up.
+         *
+         * @param maxWaitTime to wait.
+         * @param unit        of the time.
+         * @return the builder.
+         */
+        public Builder setMaxWaitTime(final long maxWaitTime, final TimeUnit unit) {
+            this.maxWaitTime = unit.toNanos(maxWaitTime);
+            return this;
+        }
+
+        /**
+         * Set how far every priority level moves a philosopher ahead in the queue of the chair. A philosopher is served
+         * before everybody with a lower priority who arrived less than the head start earlier, but never before the
+         * ones who waited longer. So the priority ages and nobody starves.
+         *
+         * @param priorityHeadStart per priority level.
+         * @param unit              of the time.
+         * @return the builder.
+         */
+        public Builder setPriorityHeadStart(final long priorityHeadStart, final TimeUnit unit) {
+            this.priorityHeadStart = unit.toNanos(priorityHeadStart);
+            return this;
+        }
+
         public Chair create() {
+            final long maxWaitTime = this.maxWaitTime;
+            final long priorityHeadStart = this.priorityHeadStart;
             return new Chair() {
                 private final Fork fork = new Fork.Builder().withChair(this).create();
-                private final AtomicBoolean block = new AtomicBoolean(false);
-                private final Semaphore semaphore = new Semaphore(1, true);
+                // Bit 0: the chair is occupied, Bit 1-31: the amount of waiting philosophers
+                private final AtomicInteger state = new AtomicInteger(0);
+                private final transient Queue<Waiter> waiters = new PriorityBlockingQueue<>();
+                private final transient List<OnAvailableListener> listeners = new CopyOnWriteArrayList<>();
 
                 @Override
                 public Fork getFork() {
@@ -63,25 +311,123 @@ public interface Chair extends Serializable {
                 }
 
                 @Override
-                public Optional<Chair> blockIfAvailable() throws InterruptedException {
-                    final boolean acquire = semaphore.tryAcquire(1, TimeUnit.MINUTES);
-                    if (acquire && block.compareAndSet(false, true)) {
-                        return Optional.of(this);
-                    } else if (acquire) {
-                        semaphore.release();
+                public boolean tryAcquire() throws InterruptedException {
+                    return tryAcquire(maxWaitTime, TimeUnit.NANOSECONDS);
+                }
+
+                @Override
+                public boolean tryAcquire(final long timeout, final TimeUnit unit) throws InterruptedException {
+                    return tryAcquire(unit.toNanos(timeout), 0);
+                }
+
+                @Override
+                public boolean tryAcquire(final int priority) throws InterruptedException {
+                    return tryAcquire(maxWaitTime, priority);
+                }
+
+                private boolean tryAcquire(final long timeout, final int priority) throws InterruptedException {
+                    // Uncontended: nobody sits here and nobody waits
+                    if (state.compareAndSet(0, OCCUPIED) || tryOccupy(false)) {
+                        return true;
+                    }
+                    if (timeout <= 0) {
+                        return false;
+                    }
+
+                    // Queue up until the chair is handed over or the time is up
+                    final long now = System.nanoTime();
+                    final long deadline = now + timeout;
+                    // The waiter ranks as if he arrived earlier -> the longer the others wait, the less it matters
+                    final Waiter waiter = new Waiter(now - priority * priorityHeadStart);
+                    waiters.add(waiter);
+                    state.addAndGet(WAITING);
+                    while (true) {
+                        if (tryOccupy(true)) {
+                            waiter.cancel(); // Nobody can hand over the chair while we sit on it
+                            return true;
+                        }
+                        if (waiter.isGranted()) {
+                            return true;
+                        }
+                        final boolean interrupted = Thread.interrupted();
+                        final long remaining = deadline - System.nanoTime();
+                        if (interrupted || remaining <= 0) {
+                            if (waiter.cancel()) {
+                                state.addAndGet(-WAITING);
+                                if (interrupted) {
+                                    throw new InterruptedException();
+                                }
+                                return false;
+                            }
+                            if (interrupted) {
+                                Thread.currentThread().interrupt(); // The chair was handed over in the meantime
+                            }
+                            return true;
+                        }
+                        LockSupport.parkNanos(this, remaining);
                     }
-                    return Optional.empty();
+                }
+
+                /**
+                 * Occupy the chair if it is free.
+                 *
+                 * @param waiting <code>true</code> if the calling thread is counted as a waiting philosopher.
+                 */
+                private boolean tryOccupy(final boolean waiting) {
+                    int current;
+                    while (((current = state.get()) & OCCUPIED) == 0) {
+                        if (state.compareAndSet(current, (waiting ? current - WAITING : current) | OCCUPIED)) {
+                            return true;
+                        }
+                    }
+                    return false;
                 }
 
                 @Override
-                public void unblock() {
-                    block.set(false);
-                    semaphore.release();
+                public void release() {
+                    while (true) {
+                        final int current = state.get();
+                        if (current < WAITING) {
+                            if (state.compareAndSet(current, 0)) {
+                                for (OnAvailableListener listener : listeners) {
+                                    listener.onAvailable(this);
+                                }
+                                return;
+                            }
+                            continue;
+                        }
+
+                        // Hand over the chair directly to the next waiting philosopher
+                        final Waiter waiter = waiters.poll();
+                        if (waiter == null) {
+                            // Only waiters which gave up are left -> they are going to leave the queue
+                            if (state.compareAndSet(current, current & ~OCCUPIED)) {
+                                for (OnAvailableListener listener : listeners) {
+                                    listener.onAvailable(this);
+                                }
+                                return;
+                            }
+                        } else if (waiter.grant()) {
+                            state.addAndGet(-WAITING);
+                            return;
+                        }
+                    }
                 }
 
                 @Override
                 public int getWaitingPhilosopherCount() {
-                    return semaphore.getQueueLength() + (block.get() ? 0 : 1);
+                    final int current = state.get();
+                    return (current & OCCUPIED) + (current >>> 1);
+                }
+
+                @Override
+                public void addOnAvailableListener(final OnAvailableListener listener) {
+                    listeners.add(listener);
+                }
+
+                @Override
+                public void removeOnAvailableListener(final OnAvailableListener listener) {
+                    listeners.remove(listener);
                 }
 
                 @Override
@@ -0,0 +1,50 @@
+package edu.hm.cs.vss;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Clock tells the philosophers, table masters and loggers what time it is and executes their delays. The system
+ * clock uses the wall clock, a {@link VirtualClock} simulates the time.
+ */
+public interface Clock {
+    /**
+     * Get the current value of the clock. Only the difference between two values is meaningful.
+     *
+     * @return the time. (in Nanoseconds)
+     */
+    long nanoTime();
+
+    /**
+     * Get the current time as milliseconds since the epoch. (For log messages)
+     *
+     * @return the time.
+     */
+    long currentTimeMillis();
+
+    /**
+     * Let the calling thread sleep.
+     *
+     * @param delay to sleep.
+     * @param unit  of the delay.
+     * @throws InterruptedException if the sleeping thread get's interrupted.
+     */
+    void sleep(final long delay, final TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Execute a task after a delay.
+     *
+     * @param task  to execute.
+     * @param delay to wait.
+     * @param unit  of the delay.
+     */
+    void schedule(final Runnable task, final long delay, final TimeUnit unit);
+
+    /**
+     * Get the wall clock. Delays are executed by the shared {@link TimerService}.
+     *
+     * @return the clock.
+     */
+    static Clock system() {
+        return SystemClock.INSTANCE;
+    }
+}
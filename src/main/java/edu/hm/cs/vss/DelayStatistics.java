@@ -0,0 +1,71 @@
+package edu.hm.cs.vss;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects how far the actual delays deviate from the requested ones. Recording is cheap and can be done concurrently.
+ */
+public final class DelayStatistics {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalDeviation = new LongAdder();
+    private final LongAccumulator maxDeviation = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Record a single delay.
+     *
+     * @param requested delay. (in Nanoseconds)
+     * @param actual    delay. (in Nanoseconds)
+     */
+    public void record(final long requested, final long actual) {
+        final long deviation = Math.max(0, actual - requested);
+        count.increment();
+        totalDeviation.add(deviation);
+        maxDeviation.accumulate(deviation);
+    }
+
+    /**
+     * @return the amount of recorded delays.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Get the average time a delay took longer than requested.
+     *
+     * @param unit of the time.
+     * @return the average deviation.
+     */
+    public long getAverageDeviation(final TimeUnit unit) {
+        final long delays = count.sum();
+        return delays == 0 ? 0 : unit.convert(totalDeviation.sum() / delays, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the longest time a delay took longer than requested.
+     *
+     * @param unit of the time.
+     * @return the maximal deviation.
+     */
+    public long getMaxDeviation(final TimeUnit unit) {
+        return unit.convert(maxDeviation.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Forget all recorded delays.
+     */
+    public void reset() {
+        count.reset();
+        totalDeviation.reset();
+        maxDeviation.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "Delays=" + getCount()
+                + "; AvgDeviation=" + getAverageDeviation(TimeUnit.MICROSECONDS) + " us"
+                + "; MaxDeviation=" + getMaxDeviation(TimeUnit.MICROSECONDS) + " us";
+    }
+}
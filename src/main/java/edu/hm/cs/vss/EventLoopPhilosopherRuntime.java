@@ -0,0 +1,380 @@
+package edu.hm.cs.vss;
+
+import java.util.ArrayDeque;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives every philosopher as a state machine on a small amount of event loops. A philosopher never blocks a thread:
+ * seats and forks are only tried, the delays for eating, mediating and sleeping are timers of the event loop. A banned
+ * philosopher is scheduled again as soon as the table master admits him.
+ * Instead of event loops the philosophers can be driven by a {@link VirtualClock} as well.
+ * <p>
+ * Both forks are always grabbed at once with {@link Table#tryAcquireForks(Chair, Chair, java.util.List)}, because the
+ * fork acquisition strategies wait on the calling thread.
+ */
+class EventLoopPhilosopherRuntime implements PhilosopherRuntime {
+    private static final long TICK_DURATION = TimeUnit.NANOSECONDS.convert(1, TimeUnit.MILLISECONDS);
+    private static final int MAX_IMMEDIATE_RETRIES = 3;
+    // A banned philosopher looks whether he was asked to leave at least this often
+    private static final long MAX_ADMISSION_WAIT = TimeUnit.NANOSECONDS.convert(100, TimeUnit.MILLISECONDS);
+
+    private final Clock[] loops;
+    private final EventLoop[] eventLoops;
+    private final AtomicInteger next = new AtomicInteger();
+
+    EventLoopPhilosopherRuntime(final int loopCount) {
+        this.loops = new Clock[loopCount];
+        this.eventLoops = new EventLoop[loopCount];
+        for (int index = 0; index < loopCount; index++) {
+            final EventLoop loop = new EventLoop("Philosopher-EventLoop-" + (index + 1));
+            loop.start();
+            loops[index] = loop;
+            eventLoops[index] = loop;
+        }
+    }
+
+    EventLoopPhilosopherRuntime(final VirtualClock clock) {
+        this.loops = new Clock[]{clock};
+        this.eventLoops = new EventLoop[0];
+    }
+
+    @Override
+    public void start(final Philosopher philosopher) {
+        // Every philosopher stays on one event loop for his whole life
+        final Clock loop = loops[(next.getAndIncrement() & Integer.MAX_VALUE) % loops.length];
+        final Diner diner = new Diner(philosopher, loop);
+        if (loop instanceof EventLoop) {
+            ((EventLoop) loop).add(diner);
+        }
+        loop.schedule(diner, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stop the event loops. Every philosopher of an event loop leaves the table right away, afterwards the event loop
+     * thread dies. A simulation has no threads of his own, his philosophers are stopped by interrupting them.
+     */
+    @Override
+    public void shutdown() {
+        for (EventLoop loop : eventLoops) {
+            loop.shutdown();
+        }
+    }
+
+    /**
+     * Wait for the event loop threads to die after a {@link #shutdown()}.
+     *
+     * @param millis to wait at most for every event loop.
+     * @return <code>true</code> if all event loop threads died.
+     * @throws InterruptedException if the waiting thread get's interrupted.
+     */
+    boolean awaitTermination(final long millis) throws InterruptedException {
+        for (EventLoop loop : eventLoops) {
+            loop.join(millis);
+            if (loop.isAlive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private enum State {
+        ARRIVE, SIT_DOWN, TAKE_FORKS, EAT, MEDIATE, SLEEP
+    }
+
+    /**
+     * A single event loop with his own ready queue and timer wheel. Only the event loop thread touches his diners, the
+     * event loop is the clock of his diners.
+     */
+    private static final class EventLoop extends Thread implements Clock {
+        private final Queue<Runnable> inbox = new ConcurrentLinkedQueue<>();
+        private final Queue<Runnable> ready = new ArrayDeque<>();
+        private final TimerWheel timers = new TimerWheel(TICK_DURATION, TimerService.getDefault().getStatistics());
+        // The philosophers who live on this event loop and didn't leave yet
+        private final Set<Diner> diners = ConcurrentHashMap.newKeySet();
+        private volatile boolean running = true;
+
+        private EventLoop(final String name) {
+            super(name);
+            setDaemon(true);
+        }
+
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return System.currentTimeMillis();
+        }
+
+        @Override
+        public void sleep(final long delay, final TimeUnit unit) {
+            throw new UnsupportedOperationException("An event loop never blocks");
+        }
+
+        @Override
+        public void schedule(final Runnable task, final long delay, final TimeUnit unit) {
+            if (Thread.currentThread() != this) {
+                // Hand over the task from another thread
+                inbox.add(() -> schedule(task, delay, unit));
+                LockSupport.unpark(this);
+            } else if (delay <= 0) {
+                ready.add(task);
+            } else {
+                timers.schedule(task, unit.toNanos(delay));
+            }
+        }
+
+        private void add(final Diner diner) {
+            diners.add(diner);
+            if (!running) {
+                diners.remove(diner);
+                throw new RejectedExecutionException("The event loop " + getName() + " is shut down");
+            }
+        }
+
+        private void shutdown() {
+            running = false;
+            LockSupport.unpark(this);
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                Runnable task;
+                while ((task = inbox.poll()) != null) {
+                    task.run();
+                }
+                timers.expire(System.nanoTime());
+                for (int count = ready.size(); count > 0; count--) {
+                    ready.poll().run();
+                }
+                if (ready.isEmpty() && inbox.isEmpty() && running) {
+                    LockSupport.parkNanos(this, timers.getTimeToNextTick(System.nanoTime()));
+                }
+            }
+            // Nobody drives the philosophers anymore -> let them leave the table
+            for (Diner diner : diners) {
+                diner.stop();
+            }
+        }
+    }
+
+    /**
+     * The state machine of a single philosopher.
+     */
+    private static final class Diner implements Runnable {
+        private final Philosopher philosopher;
+        private final Clock clock;
+        private State state = State.ARRIVE;
+        private Chair chair;
+        private Chair neighbourChair;
+        private int iteration;
+        private int attempt;
+        private int sessionMeals;
+        private long waitStart;
+        private long seatWaitStart;
+        private boolean admitted;
+        private CompletionStage<Void> pendingAdmission;
+        private long eatStart;
+        private boolean stopped;
+
+        private Diner(final Philosopher philosopher, final Clock clock) {
+            this.philosopher = philosopher;
+            this.clock = clock;
+        }
+
+        @Override
+        public void run() {
+            if (stopped) {
+                return; // An event which was scheduled before the philosopher left
+            }
+            try {
+                if (philosopher.isInterrupted()) {
+                    stop();
+                } else {
+                    step();
+                }
+            } catch (Exception e) {
+                // Leave the table like a philosopher on a thread would do, but never break the event loop
+                if (!stopped) {
+                    try {
+                        stop();
+                    } catch (RuntimeException ignored) {
+                        // The philosopher is gone anyway
+                    }
+                }
+            }
+        }
+
+        private void step() throws InterruptedException {
+            switch (state) {
+                case ARRIVE:
+                    philosopher.onStart();
+                    sitDown();
+                    break;
+                case SIT_DOWN:
+                    if (!philosopher.isAllowedToSitDown()) {
+                        philosopher.say("I'm banned until the others have eaten :'(");
+                        admitted = false;
+                        awaitAdmission();
+                        break;
+                    }
+                    if (!admitted) {
+                        // The time of the ban is no wait for a seat
+                        admitted = true;
+                        seatWaitStart = clock.nanoTime();
+                    }
+                    final Optional<Chair> chairOptional = philosopher.getTable().getLeastBusyChair();
+                    if (!chairOptional.isPresent() || !takeSeat(chairOptional.get())) {
+                        retry();
+                        break;
+                    }
+                    chair = chairOptional.get();
+                    neighbourChair = philosopher.getTable().getNeighbourChair(chair);
+                    philosopher.say("Found a nice seat (%s)", chair);
+                    philosopher.onSeatTaken(clock.nanoTime() - seatWaitStart);
+                    attempt = 0;
+                    state = State.TAKE_FORKS;
+                    // Go on with the forks right away
+                    takeForks();
+                    break;
+                case TAKE_FORKS:
+                    takeForks();
+                    break;
+                case EAT:
+                    philosopher.onEatEnd(clock.nanoTime() - eatStart);
+                    sessionMeals++;
+                    if (iteration + 1 >= philosopher.getEatIterationCount()
+                            || !philosopher.isSessionContinued(chair, sessionMeals)) {
+                        standUp();
+                    }
+                    philosopher.say("Mediating for %d ms", philosopher.getTimeToMediate());
+                    state = State.MEDIATE;
+                    schedule(TimeUnit.MILLISECONDS.toNanos(philosopher.getTimeToMediate()));
+                    break;
+                case MEDIATE:
+                    if (++iteration < philosopher.getEatIterationCount()) {
+                        if (chair != null && philosopher.isSessionContinued(chair, sessionMeals)) {
+                            // Still nobody waits -> the next meal of the session
+                            waitStart = clock.nanoTime();
+                            eat();
+                        } else {
+                            standUp();
+                            sitDown();
+                        }
+                    } else {
+                        philosopher.say("Sleeping for %d ms", philosopher.getTimeToSleep());
+                        state = State.SLEEP;
+                        schedule(TimeUnit.MILLISECONDS.toNanos(philosopher.getTimeToSleep()));
+                    }
+                    break;
+                case SLEEP:
+                    iteration = 0;
+                    sitDown();
+                    break;
+            }
+        }
+
+        /**
+         * Wait for the admission of the table master without blocking the event loop.
+         */
+        private void awaitAdmission() {
+            final CompletionStage<Void> admission = philosopher.getTable().getTableMaster().getAdmission(philosopher.getMealCount());
+            pendingAdmission = admission;
+            // The admission might be completed by another thread -> continue on the event loop
+            admission.thenRun(() -> clock.schedule(() -> resume(admission), 0, TimeUnit.NANOSECONDS));
+            clock.schedule(() -> resume(admission), MAX_ADMISSION_WAIT, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Go on after an admission, unless the philosopher already went on after the same admission.
+         */
+        private void resume(final CompletionStage<Void> admission) {
+            if (pendingAdmission == admission) {
+                pendingAdmission = null;
+                run();
+            }
+        }
+
+        private void takeForks() {
+            if (philosopher.getHeldForks().isEmpty()
+                    && !philosopher.getTable().tryAcquireForks(chair, neighbourChair, philosopher.getHeldForks())) {
+                retry();
+                return;
+            }
+            sessionMeals = 0;
+            eat();
+        }
+
+        /**
+         * Block a seat without waiting. The forks of a remote seat are blocked in the same round trip.
+         */
+        private boolean takeSeat(final Chair candidate) throws InterruptedException {
+            if (candidate.isRemote()) {
+                return philosopher.takeSeatWithForks(candidate);
+            }
+            return candidate.tryAcquire(0, TimeUnit.NANOSECONDS);
+        }
+
+        private void eat() {
+            philosopher.onEatStart(clock.nanoTime() - waitStart);
+            eatStart = clock.nanoTime();
+            state = State.EAT;
+            schedule(TimeUnit.MILLISECONDS.toNanos(philosopher.getTimeToEat()));
+        }
+
+        private void standUp() {
+            if (chair != null) {
+                final Chair seat = chair;
+                chair = null;
+                philosopher.standUp(seat);
+            }
+        }
+
+        private void sitDown() {
+            state = State.SIT_DOWN;
+            attempt = 0;
+            admitted = false;
+            waitStart = clock.nanoTime();
+            schedule(0);
+        }
+
+        /**
+         * Try again after the other philosophers of the event loop had their turn. After a few immediate retries the
+         * philosopher waits for the next tick.
+         */
+        private void retry() {
+            schedule(attempt++ < MAX_IMMEDIATE_RETRIES ? 0 : TICK_DURATION);
+        }
+
+        private void schedule(final long delay) {
+            clock.schedule(this, delay, TimeUnit.NANOSECONDS);
+        }
+
+        private void stop() {
+            stopped = true;
+            if (clock instanceof EventLoop) {
+                ((EventLoop) clock).diners.remove(this);
+            }
+            try {
+                if (chair != null) {
+                    philosopher.leave(chair);
+                    chair = null;
+                }
+            } finally {
+                philosopher.onStop();
+            }
+        }
+    }
+}
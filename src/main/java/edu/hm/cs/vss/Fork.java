@@ -2,6 +2,7 @@ package edu.hm.cs.vss;
 
 import java.io.Serializable;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -9,17 +10,72 @@ import java.util.concurrent.atomic.AtomicBoolean;
  */
 public interface Fork extends Serializable {
 
+    /**
+     * Blocks this fork immediately if it is available.
+     *
+     * @return <code>true</code> if the fork was blocked by the calling thread.
+     */
+    boolean tryAcquire();
+
+    /**
+     * Set the fork available again.
+     */
+    void release();
+
     /**
      * Blocks this fork immediately if it is available.
      *
      * @return the fork or <code>null</code> if the fork wasn't available.
      */
-    Optional<Fork> blockIfAvailable();
+    default Optional<Fork> blockIfAvailable() {
+        return tryAcquire() ? Optional.of(this) : Optional.empty();
+    }
+
+    /**
+     * Blocks this fork as soon as it is available. The calling thread waits as the wait strategy describes and gives
+     * up after the park time of the wait strategy.
+     *
+     * @param strategy to wait with.
+     * @return <code>true</code> if the fork is blocked by the calling thread.
+     * @throws InterruptedException if the waiting thread get's interrupted.
+     */
+    default boolean acquire(final WaitStrategy strategy) throws InterruptedException {
+        final long deadline = System.nanoTime() + strategy.getParkTime();
+        for (int attempt = 0; ; attempt++) {
+            if (tryAcquire()) {
+                return true;
+            }
+            if (!strategy.idle(attempt, deadline)) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Blocks this fork if it is available without waiting for it.
+     *
+     * @return the future which completes with <code>true</code> if the fork was blocked.
+     */
+    default CompletableFuture<Boolean> acquireAsync() {
+        return CompletableFuture.completedFuture(tryAcquire());
+    }
 
     /**
      * Set the fork available again.
+     *
+     * @return the future which completes as soon as the fork is available.
      */
-    void unblock();
+    default CompletableFuture<Void> releaseAsync() {
+        release();
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Set the fork available again.
+     */
+    default void unblock() {
+        release();
+    }
 
     class Builder implements Serializable {
         private Chair chair;
@@ -30,7 +86,7 @@ public interface Fork extends Serializable {
         }
 
         public Fork create() {
-            return new Fork() {
+            return new AbstractFork() {
                 private final AtomicBoolean block = new AtomicBoolean(false);
 
                 @Override
@@ -39,15 +95,12 @@ public interface Fork extends Serializable {
                 }
 
                 @Override
-                public Optional<Fork> blockIfAvailable() {
-                    if (block.compareAndSet(false, true)) {
-                        return Optional.of(this);
-                    }
-                    return Optional.empty();
+                public boolean tryAcquire() {
+                    return block.compareAndSet(false, true);
                 }
 
                 @Override
-                public void unblock() {
+                protected void free() {
                     block.set(false);
                 }
             };
@@ -0,0 +1,77 @@
+package edu.hm.cs.vss;
+
+import java.util.List;
+
+/**
+ * The Fork Acquisition Strategy decides how a philosopher grabs the two forks of his seat without running into a
+ * deadlock.
+ */
+public interface ForkAcquisitionStrategy {
+    /**
+     * Grab the fork of the chair and the fork of the neighbour chair. Blocks until both forks are held by the
+     * philosopher. If both chairs share the same fork, the fork is only grabbed once.
+     *
+     * @param philosopher    who wants to eat.
+     * @param chair          the philosopher sits on.
+     * @param neighbourChair of the chair.
+     * @param forks          to add the grabbed forks to. (Empty if the philosopher get's interrupted)
+     * @throws InterruptedException if the philosopher get's interrupted.
+     */
+    void acquire(final Philosopher philosopher, final Chair chair, final Chair neighbourChair, final List<Fork> forks)
+            throws InterruptedException;
+
+    /**
+     * Put down all forks the philosopher holds.
+     *
+     * @param philosopher who is done with eating.
+     * @param chair       the philosopher sits on.
+     * @param forks       to release. (The list will be empty afterwards)
+     */
+    default void release(final Philosopher philosopher, final Chair chair, final List<Fork> forks) {
+        for (int index = 0; index < forks.size(); index++) {
+            forks.get(index).release();
+        }
+        forks.clear();
+    }
+
+    /**
+     * Grab the right fork first and the left fork afterwards. If a fork could not be grabbed within the park time of
+     * the philosophers fork wait strategy, all forks are put down again and the philosopher starts over. (Default)
+     *
+     * @return the strategy.
+     */
+    static ForkAcquisitionStrategy backOff() {
+        return BackOffStrategy.INSTANCE;
+    }
+
+    /**
+     * Grab the fork with the lower id first. Because every philosopher grabs the forks in the same global order, there
+     * can't be a cyclic wait.
+     *
+     * @return the strategy.
+     */
+    static ForkAcquisitionStrategy resourceOrdering() {
+        return ResourceOrderingStrategy.INSTANCE;
+    }
+
+    /**
+     * Grab both forks in a single step through {@link Table#tryAcquireForks(Chair, Chair, List)}. The philosopher never
+     * holds a single fork, so there is neither a deadlock nor a fork which is blocked for nothing.
+     *
+     * @return the strategy.
+     */
+    static ForkAcquisitionStrategy atomicPair() {
+        return AtomicPairStrategy.INSTANCE;
+    }
+
+    /**
+     * Grab the forks in the global order of {@link #resourceOrdering()}. A philosopher who waited too long for a fork
+     * reserves it for his seat for a while, so the neighbours don't snatch it again as soon as it is put down. All
+     * philosophers share the reservations of the forks.
+     *
+     * @return the strategy.
+     */
+    static ForkAcquisitionStrategy orderedTokens() {
+        return OrderedTokenStrategy.INSTANCE;
+    }
+}
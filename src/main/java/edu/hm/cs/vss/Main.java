@@ -4,6 +4,7 @@ import edu.hm.cs.vss.local.LocalTableMaster;
 import edu.hm.cs.vss.log.FileLogger;
 import edu.hm.cs.vss.log.Logger;
 import edu.hm.cs.vss.log.merger.LogMerger;
+import edu.hm.cs.vss.remote.TableTransport;
 
 import java.io.File;
 import java.io.IOException;
@@ -17,11 +18,27 @@ import java.util.stream.IntStream;
  * Created by Fabio Hellmann on 16.03.2016.
  */
 public class Main {
+    private static final String USAGE = "Usage: java " + Main.class.getName() + " [host:port]";
+
     public static void main(String[] args) throws IOException {
-        final Table table = new Table.Builder()
-                .withTableMaster(new LocalTableMaster())
-                .setFileLogger()
-                .createNetwork();
+        // Optional address of this table (host:port) -> use the binary transport instead of RMI
+        final int separator = args.length == 1 ? args[0].lastIndexOf(':') : -1;
+        final int port = separator > 0 ? parsePort(args[0].substring(separator + 1)) : -1;
+        if (args.length > 1 || (args.length == 1 && port < 0)) {
+            System.err.println("Invalid arguments: " + String.join(" ", args));
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        final LocalTableMaster tableMaster = new LocalTableMaster();
+        final Table.Builder builder = new Table.Builder()
+                .withTableMaster(tableMaster)
+                .setFileLogger();
+        if (args.length == 1) {
+            builder.withTransport(TableTransport.nio(args[0].substring(0, separator), port));
+        }
+        final Table table = builder.createNetwork();
 
         // ##########################################################################################
         // User Input
@@ -136,7 +153,7 @@ public class Main {
                 case "P remove":
                     System.out.println("Philosopher(s):");
                     table.getPhilosophers()
-                            .map(Thread::getName)
+                            .map(Philosopher::getName)
                             .forEach(System.out::println);
 
                     System.out.print("Enter name to kill ('' = all): ");
@@ -175,7 +192,7 @@ public class Main {
 
         // Waiting for all threads to finish
         table.getPhilosophers().parallel()
-                .forEach(Thread::interrupt);
+                .forEach(Philosopher::interrupt);
         try {
             Thread.currentThread().join(TimeUnit.MILLISECONDS.convert(10, TimeUnit.SECONDS));
         } catch (InterruptedException e) {
@@ -193,6 +210,8 @@ public class Main {
         table.getPhilosophers()
                 .map(philosopher -> philosopher.getName() + ": " + philosopher.getMealCount())
                 .forEach(logger::log);
+        logger.log("# Seat waits");
+        logger.log(tableMaster.getSeatWaitStatistics().toString());
         logger.log("############### END #################");
 
         // Merge all log files
@@ -203,4 +222,17 @@ public class Main {
 
         System.exit(1);
     }
+
+    /**
+     * @param port to parse.
+     * @return the port or <code>-1</code> if it is no valid port.
+     */
+    private static int parsePort(final String port) {
+        try {
+            final int value = Integer.parseInt(port);
+            return value > 0 && value <= 0xFFFF ? value : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
 }
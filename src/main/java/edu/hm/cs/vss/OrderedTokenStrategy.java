@@ -0,0 +1,125 @@
+package edu.hm.cs.vss;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resource ordering with request tokens. The forks are grabbed in a global order, so philosophers never wait for each
+ * other in a cycle. A philosopher who couldn't get a fork within his park time leaves a token on it: for a while the
+ * fork is reserved for his seat and the other seats leave it alone as soon as the current holder puts it down.
+ * <p>
+ * The tokens borrow the clean forks of the hygienic solution of Chandy and Misra, but the forks aren't handed over
+ * between neighbours and a token expires after twice the park time. So this isn't their algorithm and there is no
+ * fairness guarantee, a token only makes it less likely that a waiting seat is overtaken again and again.
+ * <p>
+ * Only the tokens are remembered, they are dropped as soon as the requesting seat took the fork or his request expired.
+ * So there is a single instance for all philosophers and the forks of removed chairs are forgotten.
+ */
+final class OrderedTokenStrategy implements ForkAcquisitionStrategy {
+    static final OrderedTokenStrategy INSTANCE = new OrderedTokenStrategy();
+
+    private static final int SWEEP_INTERVAL = 1024; // requests
+
+    private final Map<Fork, Token> tokens = new ConcurrentHashMap<>();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private OrderedTokenStrategy() {
+    }
+
+    @Override
+    public void acquire(final Philosopher philosopher, final Chair chair, final Chair neighbourChair, final List<Fork> forks)
+            throws InterruptedException {
+        final Fork fork = chair.getFork();
+        final Fork neighbourFork = neighbourChair.getFork();
+        final boolean ordered = fork.toString().compareTo(neighbourFork.toString()) <= 0;
+
+        try {
+            acquire(philosopher, chair, ordered ? fork : neighbourFork, forks);
+            if (!fork.equals(neighbourFork)) {
+                acquire(philosopher, chair, ordered ? neighbourFork : fork, forks);
+            }
+        } catch (InterruptedException e) {
+            release(philosopher, chair, forks);
+            throw e;
+        }
+    }
+
+    private void acquire(final Philosopher philosopher, final Chair chair, final Fork fork, final List<Fork> forks)
+            throws InterruptedException {
+        final WaitStrategy waitStrategy = philosopher.getForkWaitStrategy();
+        final long reservationTime = 2 * waitStrategy.getParkTime();
+
+        for (int attempt = 0; ; attempt++) {
+            if (isReservedForAnother(fork, chair)) {
+                // Another seat asked for this fork first -> wait until he took it
+                waitStrategy.idle(attempt, System.nanoTime() + reservationTime);
+            } else if (fork.acquire(waitStrategy)) {
+                take(fork, chair);
+                forks.add(fork);
+                return;
+            } else {
+                // Reserve the fork for this seat as soon as the current holder puts it down
+                request(fork, chair, reservationTime);
+            }
+
+            if (philosopher.isInterrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the fork is reserved for another seat which is still asking for it.
+     */
+    private boolean isReservedForAnother(final Fork fork, final Chair chair) {
+        final Token token = tokens.get(fork);
+        if (token == null) {
+            return false;
+        }
+        if (token.isExpired()) {
+            tokens.remove(fork, token);
+            return false;
+        }
+        return !token.reservedFor.equals(chair);
+    }
+
+    /**
+     * The fork is requested by a seat. Only the first requesting seat get's the reservation, later requests are ignored
+     * until the first one is served or gave up.
+     */
+    private void request(final Fork fork, final Chair chair, final long reservationTime) {
+        tokens.compute(fork, (key, token) -> token == null || token.isExpired() || token.reservedFor.equals(chair)
+                ? new Token(chair, System.nanoTime() + reservationTime)
+                : token);
+        if (requests.incrementAndGet() % SWEEP_INTERVAL == 0) {
+            // Forget the requests of forks nobody asks for anymore (e.g. the chair was removed)
+            tokens.values().removeIf(Token::isExpired);
+        }
+    }
+
+    /**
+     * The fork was taken, his reservation is used up.
+     */
+    private void take(final Fork fork, final Chair chair) {
+        tokens.computeIfPresent(fork, (key, token) -> token.reservedFor.equals(chair) || token.isExpired() ? null : token);
+    }
+
+    /**
+     * A fork which is reserved for a seat until the time is up.
+     */
+    private static final class Token {
+        private final Chair reservedFor;
+        private final long reservedUntil;
+
+        private Token(final Chair reservedFor, final long reservedUntil) {
+            this.reservedFor = reservedFor;
+            this.reservedUntil = reservedUntil;
+        }
+
+        boolean isExpired() {
+            return System.nanoTime() >= reservedUntil;
+        }
+    }
+}
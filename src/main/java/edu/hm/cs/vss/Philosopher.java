@@ -8,41 +8,57 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
  * Created by Fabio Hellmann on 17.03.2016.
  */
-public class Philosopher extends Thread {
+public class Philosopher implements Runnable {
     protected static final int DEFAULT_EAT_ITERATIONS = 3;
     private static final long DEFAULT_TIME_TO_SLEEP = TimeUnit.MILLISECONDS.convert(10, TimeUnit.MILLISECONDS);
     private static final long DEFAULT_TIME_TO_MEDIATE = TimeUnit.MILLISECONDS.convert(5, TimeUnit.MILLISECONDS);
     private static final long DEFAULT_TIME_TO_EAT = TimeUnit.MILLISECONDS.convert(1, TimeUnit.MILLISECONDS);
     protected static final long DEFAULT_TIME_TO_BANN = TimeUnit.MILLISECONDS.convert(5, TimeUnit.MILLISECONDS);
-    private static final int MAX_DEADLOCK_COUNT = 10;
-    private static final DeadlockFunction DEADLOCK_FUNCTION = (philosopher, forks) -> {
-        //philosopher.say("I deadlocked, unlocking forks");
-        forks.parallelStream().forEach(Fork::unblock);
-        forks.clear();
-    };
-    private AtomicBoolean threadSuspended = new AtomicBoolean(false);
-
-    private final static Object wakeSync = new Object();
+    // The table master doesn't hear about the meals of a session until it ends -> stay well within his fairness bound
+    static final int MAX_SESSION_MEALS = TableMaster.MAX_DEVIATION / 2;
+    private static final int PROBED_SEAT_COUNT = 4;
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private final CountDownLatch terminated = new CountDownLatch(1);
+    private final Object workerLock = new Object();
+    private volatile Thread worker;
+    private volatile boolean interrupted;
+
+    private final String name;
     private final Logger logger;
+    private final PhilosopherRuntime runtime;
     private final Table table;
     private final long timeSleep;
     private final long timeEat;
     private final long timeMediate;
     private final boolean veryHungry;
-    private List<Fork> forks = new ArrayList<>();
+    private final WaitStrategy forkWaitStrategy;
+    private final ForkAcquisitionStrategy forkAcquisitionStrategy;
+    private final Clock clock;
+    private final List<Fork> forks = new ArrayList<>(2);
+    private Chair seatNeighbourChair; // Only set if the forks are released together with the seat
     private final int eatIterations;
-    private int mealCount;
+    // Written by the philosopher, read by the table master and the statistics -> every counter on his own cache line
+    private final PaddedCounter meals = new PaddedCounter();
+    private final PaddedCounter totalEatTime = new PaddedCounter();
+    private final PaddedCounter totalWaitTime = new PaddedCounter();
+    private final PaddedCounter bans = new PaddedCounter();
+    private boolean multiMealSessions;
     private long bannedTime = -1;
-    private final List<OnStandUpListener> onStandUpListeners = new ArrayList<>();
+    private final List<OnStandUpListener> onStandUpListeners = new CopyOnWriteArrayList<>();
 
     public Philosopher(final String name,
                        final Logger logger,
@@ -51,16 +67,44 @@ public class Philosopher extends Thread {
                        final long timeEat,
                        final long timeMediate,
                        final boolean veryHungry) {
-        setName(name);
+        this(name, logger, PhilosopherRuntime.dedicatedThreads(), table, timeSleep, timeEat, timeMediate, veryHungry,
+                WaitStrategy.DEFAULT, ForkAcquisitionStrategy.backOff(), Clock.system());
+    }
+
+    public Philosopher(final String name,
+                       final Logger logger,
+                       final PhilosopherRuntime runtime,
+                       final Table table,
+                       final long timeSleep,
+                       final long timeEat,
+                       final long timeMediate,
+                       final boolean veryHungry,
+                       final WaitStrategy forkWaitStrategy,
+                       final ForkAcquisitionStrategy forkAcquisitionStrategy,
+                       final Clock clock) {
+        this.name = name;
         this.logger = logger;
+        this.runtime = runtime;
         this.table = table;
         this.timeSleep = timeSleep;
         this.timeEat = timeEat;
         this.timeMediate = veryHungry ? timeMediate / 2 : timeMediate;
         this.veryHungry = veryHungry;
+        this.forkWaitStrategy = forkWaitStrategy;
+        this.forkAcquisitionStrategy = forkAcquisitionStrategy;
+        this.clock = clock;
         this.eatIterations = veryHungry ? DEFAULT_EAT_ITERATIONS * 2 : DEFAULT_EAT_ITERATIONS;
     }
 
+    /**
+     * Get the name of the philosopher.
+     *
+     * @return the name.
+     */
+    public String getName() {
+        return name;
+    }
+
     /**
      * Get the logger of the philosopher.
      *
@@ -70,6 +114,15 @@ public class Philosopher extends Thread {
         return logger;
     }
 
+    /**
+     * Get the runtime the life cycle of the philosopher is executed on.
+     *
+     * @return the runtime.
+     */
+    public PhilosopherRuntime getRuntime() {
+        return runtime;
+    }
+
     /**
      * Get the table where the philosopher can get something to eat.
      *
@@ -85,14 +138,33 @@ public class Philosopher extends Thread {
      * @return the amount of eaten meals.
      */
     public int getMealCount() {
-        return mealCount;
+        return (int) meals.get();
     }
 
     /**
      * If a meal was eat increment the counter.
      */
     public void incrementMealCount() {
-        mealCount++;
+        meals.incrementAndGet();
+    }
+
+    /**
+     * Set the amount of eaten meals. (e.g. if a backup of the philosopher was told about several meals at once)
+     *
+     * @param mealCount to set.
+     */
+    public void setMealCount(final int mealCount) {
+        meals.set(mealCount);
+    }
+
+    /**
+     * Get a snapshot of the meals, eat time, wait time and bans of the philosopher. The counters are read one after the
+     * other, so a meal which ends meanwhile might only be part of some of them.
+     *
+     * @return the statistics.
+     */
+    public PhilosopherStatistics getStatistics() {
+        return new PhilosopherStatistics((int) meals.get(), totalEatTime.get(), totalWaitTime.get(), (int) bans.get());
     }
 
     /**
@@ -108,6 +180,9 @@ public class Philosopher extends Thread {
      * Refuse the philosopher a seat at the table.
      */
     private void banned() {
+        if (bannedTime < 0) {
+            bans.incrementAndGet();
+        }
         bannedTime = DEFAULT_TIME_TO_BANN;
     }
 
@@ -121,13 +196,10 @@ public class Philosopher extends Thread {
     /**
      * Get the time the philosopher is no longer allowed to sit at the table.
      *
-     * @return the time.
+     * @return the time or <code>-1</code> if the philosopher isn't banned.
      */
-    private Optional<Long> getBannedTime() {
-        if (bannedTime >= 0) {
-            return Optional.ofNullable(bannedTime);
-        }
-        return Optional.empty();
+    private long getBannedTime() {
+        return bannedTime;
     }
 
     /**
@@ -161,6 +233,42 @@ public class Philosopher extends Thread {
         return veryHungry;
     }
 
+    /**
+     * Get the strategy the philosopher uses to wait for a fork.
+     *
+     * @return the wait strategy.
+     */
+    public WaitStrategy getForkWaitStrategy() {
+        return forkWaitStrategy;
+    }
+
+    /**
+     * Get the strategy the philosopher uses to grab his forks.
+     *
+     * @return the acquisition strategy.
+     */
+    public ForkAcquisitionStrategy getForkAcquisitionStrategy() {
+        return forkAcquisitionStrategy;
+    }
+
+    /**
+     * Check whether the philosopher keeps his seat and forks for several meals as long as nobody waits for them.
+     *
+     * @return <code>true</code> if the philosopher eats several meals on the same seat.
+     */
+    public boolean isMultiMealSessions() {
+        return multiMealSessions;
+    }
+
+    /**
+     * Get the clock the philosopher measures his times and waits with.
+     *
+     * @return the clock.
+     */
+    public Clock getClock() {
+        return clock;
+    }
+
     private Stream<Fork> getForks() {
         return forks.stream();
     }
@@ -178,139 +286,253 @@ public class Philosopher extends Thread {
     }
 
     private Chair waitForSitDown() {
-        Optional<Chair> chairOptional = Optional.empty();
+        Chair chair = null;
+        long waitStart = clock.nanoTime();
         say("Waiting for a nice seat...");
 
         do {
             say("Waiting for seat");
 
             // waiting for a seat... if one is available it is directly blocked (removed from table)
-            if (getTable().getTableMaster().isAllowedToTakeSeat(getMealCount())) {
-                unbanned();
-
+            if (isAllowedToSitDown()) {
                 // searching for the chair with a minimal queue size
-                chairOptional = getTable().getTables()
-                        .flatMap(Table::getChairs)
-                        .min((chair1, chair2) -> Integer.compare(chair1.getWaitingPhilosopherCount(), chair2.getWaitingPhilosopherCount()));
+                final Optional<Chair> chairOptional = getTable().getLeastBusyChair();
 
                 if (chairOptional.isPresent()) {
+                    final Chair candidate = chairOptional.get();
                     try {
-                        chairOptional = chairOptional.get().blockIfAvailable();
+                        if (candidate.isRemote()) {
+                            // A single round trip for the seat and both forks
+                            if (takeSeatWithForks(candidate)) {
+                                chair = candidate;
+                            } else {
+                                // Somebody else was faster -> ask several other seats at once instead of one by one
+                                chair = probeSeats(candidate);
+                            }
+                        } else if (candidate.tryAcquire(getTable().getTableMaster().getSeatPriority(this))) {
+                            chair = candidate;
+                        }
                     } catch (InterruptedException e) {
                         throw new RuntimeException(e);
                     }
                 }
             } else {
-                banned();
-
-                getBannedTime().ifPresent(time -> {
-                    say("I'm banned for " + time + " ms :'(");
+                final long bannedTime = getBannedTime();
+                if (bannedTime >= 0) {
+                    say("I'm banned for %d ms :'(", bannedTime);
                     try {
-                        onThreadSleep(time);
+                        // Woken up as soon as the table master allows the philosopher to sit down again
+                        getTable().getTableMaster().awaitAllowedToTakeSeat(getMealCount(), bannedTime, TimeUnit.MILLISECONDS);
                     } catch (InterruptedException e) {
                         throw new RuntimeException(e);
                     }
-                });
+                }
+                waitStart = clock.nanoTime(); // The time of the ban is no wait for a seat
             }
-        } while (!chairOptional.isPresent());
+        } while (chair == null);
 
-        final Chair chair = chairOptional.get();
-        say("Found a nice seat (" + chair.toString() + ")");
+        say("Found a nice seat (%s)", chair);
+        onSeatTaken(clock.nanoTime() - waitStart);
 
         return chair;
     }
 
     /**
-     * Unblocks the seat and resets the philosophers seat.
+     * Try several seats of the table at once and keep the first one which could be blocked. The seats are picked at a
+     * random position of the table, so the philosophers who probe at the same time don't all ask the same seats.
+     *
+     * @param taken the seat which was just taken by somebody else.
+     * @return the blocked seat or <code>null</code> if none of the seats was available.
+     * @throws InterruptedException if the waiting thread get's interrupted.
      */
-    private void standUp(final Chair chair) {
-        releaseForks();
-        say("Stand up from seat (" + chair.toString() + ")");
-        chair.unblock();
-        onStandUpListeners.stream().forEach(listener -> listener.onStandUp(this));
-    }
+    private Chair probeSeats(final Chair taken) throws InterruptedException {
+        final List<Chair> chairs = getTable().getChairs()
+                .filter(candidate -> !candidate.equals(taken))
+                .collect(Collectors.toList());
+        if (chairs.isEmpty()) {
+            return null;
+        }
+        final int start = ThreadLocalRandom.current().nextInt(chairs.size());
+        final List<Chair> candidates = new ArrayList<>(PROBED_SEAT_COUNT);
+        for (int index = 0; index < Math.min(PROBED_SEAT_COUNT, chairs.size()); index++) {
+            candidates.add(chairs.get((start + index) % chairs.size()));
+        }
 
-    private Stream<Fork> waitForForks(final Chair chair) {
-        say("Waiting for 2 forks...");
+        final CompletableFuture<Optional<Chair>> seat = Chair.acquireAnyAsync(candidates);
+        try {
+            return seat.get().orElse(null);
+        } catch (InterruptedException e) {
+            // Nobody takes the seat anymore -> give it back as soon as it is blocked
+            seat.thenAccept(blocked -> blocked.ifPresent(Chair::releaseAsync));
+            throw e;
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
 
-        List<Fork> foundForks = new ArrayList<>();
+    /**
+     * The philosopher found a seat.
+     *
+     * @param waitTime the philosopher waited for the seat since he was allowed to sit down. (in Nanoseconds)
+     */
+    void onSeatTaken(final long waitTime) {
+        getTable().getTableMaster().onSeatTaken(this, waitTime);
+    }
 
-        final Fork fork = chair.getFork();
-        final Fork neighbourFork = getTable().getNeighbourChair(chair).getFork();
+    /**
+     * Ask the table master whether the philosopher is allowed to sit down. If not, the philosopher is banned.
+     *
+     * @return <code>true</code> if the philosopher is allowed to sit down.
+     */
+    boolean isAllowedToSitDown() {
+        if (getTable().getTableMaster().isAllowedToTakeSeat(getMealCount())) {
+            unbanned();
+            return true;
+        }
+        banned();
+        return false;
+    }
 
-        while (foundForks.size() < 2) {
-            // Reset all
-            int deadlockDetectionCount = 0;
+    /**
+     * Check whether the philosopher keeps his seat and forks for the next meal of his session. This is only the case
+     * if nobody waits for the seat or the neighbour seat and the table master would still let him sit down.
+     *
+     * @param chair        the philosopher sits on.
+     * @param sessionMeals the philosopher has already eaten on this seat.
+     * @return <code>true</code> if the philosopher doesn't stand up.
+     */
+    boolean isSessionContinued(final Chair chair, final int sessionMeals) {
+        return multiMealSessions
+                && sessionMeals < MAX_SESSION_MEALS
+                && chair.getWaitingPhilosopherCount() <= 1 // Only the philosopher himself
+                && (seatNeighbourChair != null ? seatNeighbourChair : getTable().getNeighbourChair(chair))
+                .getWaitingPhilosopherCount() == 0
+                && getTable().getTableMaster().isAllowedToTakeSeat(getMealCount());
+    }
 
-            // Try to get the right fork
-            while (foundForks.size() < 1) {
-                if (isInterrupted()) {
-                    // Leave this never ending loop if the thread get's interrupted
-                    throw new RuntimeException();
-                }
+    /**
+     * Get the forks the philosopher currently holds.
+     *
+     * @return the forks.
+     */
+    List<Fork> getHeldForks() {
+        return forks;
+    }
 
-                fork.blockIfAvailable().ifPresent(foundForks::add);
+    /**
+     * Unblocks the seat and resets the philosophers seat.
+     */
+    void standUp(final Chair chair) {
+        say("Stand up from seat (%s)", chair);
+        releaseSeat(chair);
+        for (OnStandUpListener listener : onStandUpListeners) {
+            listener.onStandUp(this);
+        }
+    }
 
-                if (foundForks.size() < 1 && deadlockDetectionCount++ > MAX_DEADLOCK_COUNT) {
-                    DEADLOCK_FUNCTION.onDeadlockDetected(this, foundForks);
-                    break;
-                }
-            }
+    private void waitForForks(final Chair chair) {
+        if (!forks.isEmpty()) {
+            return; // Already blocked together with the seat
+        }
+        say("Waiting for 2 forks...");
 
-            if (foundForks.size() < 1) {
-                // First fork was not found -> skip to start
-                continue;
-            }
+        final Chair neighbourChair = getTable().getNeighbourChair(chair);
+        try {
+            getForkAcquisitionStrategy().acquire(this, chair, neighbourChair, forks);
+        } catch (InterruptedException e) {
+            // Leave this never ending loop if the thread get's interrupted
+            throw new RuntimeException(e);
+        }
 
-            // Reset only the deadlock counter
-            deadlockDetectionCount = 0;
+        say("Found 2 forks (%s, %s)! :D", chair.getFork(), neighbourChair.getFork());
+    }
 
-            // Try to get the left fork
-            while (foundForks.size() < 2) {
-                if (isInterrupted()) {
-                    // Leave this never ending loop if the thread get's interrupted
-                    throw new RuntimeException();
-                }
+    /**
+     * Unblock all forks and reset the forks the philosopher holds.
+     */
+    private void releaseForks(final Chair chair) {
+        if (getLogger().isEnabled()) {
+            final String forksText = forks.stream().map(Object::toString).collect(Collectors.joining(", "));
+            say("Release my forks" + ((forksText.length() > 0) ? " (" + forksText + ")" : " (no forks picked yet)"));
+        }
+        getForkAcquisitionStrategy().release(this, chair, forks);
+    }
 
-                neighbourFork.blockIfAvailable().ifPresent(foundForks::add);
+    /**
+     * The philosopher leaves the seat without finishing his meal. (e.g. if he get's interrupted)
+     */
+    void leave(final Chair chair) {
+        say("Leave seat (%s)", chair);
+        releaseSeat(chair);
+    }
 
-                if (foundForks.size() < 2 && deadlockDetectionCount++ > MAX_DEADLOCK_COUNT) {
-                    DEADLOCK_FUNCTION.onDeadlockDetected(this, foundForks);
-                    break;
-                }
-            }
+    /**
+     * Block a remote seat together with both forks in a single round trip.
+     *
+     * @param candidate the remote seat.
+     * @return <code>true</code> if the seat and both forks were blocked.
+     * @throws InterruptedException if the waiting thread get's interrupted.
+     */
+    boolean takeSeatWithForks(final Chair candidate) throws InterruptedException {
+        final Chair neighbourChair = candidate.getKnownNeighbourChair()
+                .orElseGet(() -> getTable().getNeighbourChair(candidate));
+        if (candidate.tryAcquireWithForks(neighbourChair, forks)) {
+            seatNeighbourChair = neighbourChair;
+            return true;
         }
+        return false;
+    }
 
-        say("Found 2 forks (" + fork.toString() + ", " + neighbourFork.toString() + ")! :D");
+    private void releaseSeat(final Chair chair) {
+        if (seatNeighbourChair != null) {
+            // The seat and both forks were blocked at once -> release them at once as well
+            final Chair neighbourChair = seatNeighbourChair;
+            seatNeighbourChair = null;
+            chair.releaseWithForks(neighbourChair, forks);
+        } else {
+            releaseForks(chair);
+            chair.release();
+        }
+    }
 
-        this.forks = foundForks;
-        return forks.stream();
+    /**
+     * The philosopher is eating.
+     */
+    private void eat(final long waitTime) throws InterruptedException {
+        onEatStart(waitTime);
+        final long eatStart = clock.nanoTime();
+        try {
+            onThreadSleep(getTimeToEat());
+        } finally {
+            onEatEnd(clock.nanoTime() - eatStart);
+        }
     }
 
     /**
-     * Unblock all forks and reset the forks the philosopher holds.
+     * The philosopher starts eating his next meal.
+     *
+     * @param waitTime the philosopher waited for his seat and forks. (in Nanoseconds)
      */
-    private void releaseForks() {
-        final String forksText = forks.stream().map(Object::toString).collect(Collectors.joining(", "));
-        say("Release my forks" + ((forksText.length() > 0) ? " (" + forksText + ")" : " (no forks picked yet)"));
-        forks.forEach(Fork::unblock);
-        forks.clear();
+    void onEatStart(final long waitTime) {
+        meals.incrementAndGet();
+        totalWaitTime.addAndGet(waitTime);
+        say("Eating for %d ms", getTimeToEat());
     }
 
     /**
-     * The philosopher is eating.
+     * The philosopher finished eating.
+     *
+     * @param eatTime the philosopher was eating. (in Nanoseconds)
      */
-    private void eat() throws InterruptedException {
-        incrementMealCount();
-        say("Eating for " + getTimeToEat() + " ms");
-        onThreadSleep(getTimeToEat());
+    void onEatEnd(final long eatTime) {
+        totalEatTime.addAndGet(eatTime);
     }
 
     /**
      * The philosopher is mediating.
      */
     private void mediate() throws InterruptedException {
-        say("Mediating for " + getTimeToMediate() + " ms");
+        say("Mediating for %d ms", getTimeToMediate());
         onThreadSleep(getTimeToMediate());
     }
 
@@ -318,57 +540,209 @@ public class Philosopher extends Thread {
      * The philosopher is sleeping.
      */
     private void sleep() throws InterruptedException {
-        say("Sleeping for " + getTimeToSleep() + " ms");
+        say("Sleeping for %d ms", getTimeToSleep());
         onThreadSleep(getTimeToSleep());
     }
 
+    /**
+     * Let the philosopher start his life on his runtime.
+     */
+    public void start() {
+        if (!started.compareAndSet(false, true)) {
+            throw new IllegalThreadStateException(getName() + " is already alive");
+        }
+        runtime.start(this);
+    }
+
+    /**
+     * Ask the philosopher to leave the table. A philosopher who is currently waiting, eating or mediating gets
+     * interrupted immediately.
+     */
+    public void interrupt() {
+        interrupted = true;
+        synchronized (workerLock) {
+            if (worker != null) {
+                worker.interrupt();
+            }
+        }
+    }
+
+    /**
+     * Check whether the philosopher was asked to leave the table.
+     *
+     * @return <code>true</code> if the philosopher got interrupted.
+     */
+    public boolean isInterrupted() {
+        final Thread thread = worker;
+        return interrupted || (thread != null && thread.isInterrupted());
+    }
+
+    /**
+     * Check whether the philosopher was started and did not leave the table yet.
+     *
+     * @return <code>true</code> if the philosopher is alive.
+     */
+    public boolean isAlive() {
+        return started.get() && terminated.getCount() > 0;
+    }
+
+    /**
+     * Waits at most <code>millis</code> milliseconds for the philosopher to leave the table.
+     *
+     * @param millis to wait.
+     * @throws InterruptedException if the waiting thread get's interrupted.
+     */
+    public void join(final long millis) throws InterruptedException {
+        terminated.await(millis, TimeUnit.MILLISECONDS);
+    }
+
     /**
      * What the philosopher do in his life...
      */
     @Override
     public void run() {
+        onStart();
+
+        try {
+            while (runLifeCycle()) {
+                // Sleep
+                attach();
+                try {
+                    sleep();
+                } finally {
+                    detach();
+                }
+            }
+        } catch (Exception e) {
+            // just for leaving the while loop
+        } finally {
+            onStop();
+        }
+    }
+
+    /**
+     * The philosopher arrives at the table.
+     */
+    void onStart() {
         say("I'm alive!");
 
         getTable().getTableMaster().register(this);
+    }
 
+    /**
+     * Run a single life cycle on the calling thread. (3 Iterations of sitting down, eating and mediating by default...
+     * or more if the philosopher is very hungry)
+     *
+     * @return <code>true</code> if the philosopher wants to go on with his life.
+     */
+    boolean runLifeCycle() {
+        attach();
+        Chair chair = null; // Only kept between two meals of a session
+        int sessionMeals = 0;
         try {
-            while (!isInterrupted()) {
-                // 3 Iterations by default... or more if the philosopher is very hungry
-                IntStream.rangeClosed(0, getEatIterationCount() - 1)
-                        .mapToObj(index -> waitForSitDown()) // Sit down on a free chair -> waiting for a free
-                        .peek(this::waitForForks) // Grab two forks -> waiting for two free
-                        .peek(tmp -> {
-                            try {
-                                eat();
-                            } catch (InterruptedException e) {
-                                throw new RuntimeException(e);
-                            }
-                        }) // Eat the next portion
-                        .peek(this::standUp) // Stand up from chair and release forks
-                        .forEach(tmp -> {
-                            try {
-                                mediate();
-                            } catch (InterruptedException e) {
-                                throw new RuntimeException(e);
-                            }
-                        }); // Go to mediate
-
-                // Sleep
-                sleep();
+            for (int index = 0; index < getEatIterationCount() && !isInterrupted(); index++) {
+                final long waitStart = clock.nanoTime();
+                if (chair != null && !isSessionContinued(chair, sessionMeals)) {
+                    chair = standUp(chair, sessionMeals); // Somebody showed up while mediating
+                }
+                if (chair == null) {
+                    chair = waitForSitDown(); // Sit down on a free chair -> waiting for a free
+                    waitForForks(chair); // Grab two forks -> waiting for two free
+                    sessionMeals = 0;
+                }
+                eat(clock.nanoTime() - waitStart); // Eat the next portion
+                sessionMeals++;
+                if (index + 1 >= getEatIterationCount() || !isSessionContinued(chair, sessionMeals)) {
+                    chair = standUp(chair, sessionMeals); // Stand up from chair and release forks
+                }
+                mediate(); // Go to mediate
+            }
+            if (chair != null) {
+                chair = standUp(chair, sessionMeals);
             }
+            return !isInterrupted();
         } catch (Exception e) {
-            // just for leaving the while loop
+            // just for leaving the life cycle
+            if (chair != null) {
+                leave(chair); // Don't block the seat and the forks for the others
+            }
+            return false;
         } finally {
+            detach();
+        }
+    }
+
+    /**
+     * Stand up at the end of a session.
+     *
+     * @return always <code>null</code>, the philosopher has no seat anymore.
+     */
+    private Chair standUp(final Chair chair, final int sessionMeals) {
+        if (sessionMeals > 1) {
+            say("Ate %d meals without standing up", sessionMeals);
+        }
+        standUp(chair);
+        return null;
+    }
+
+    /**
+     * The philosopher left the table.
+     */
+    void onStop() {
+        try {
             getTable().getTableMaster().unregister(this);
+        } finally {
+            terminated.countDown();
+        }
+    }
+
+    private void attach() {
+        synchronized (workerLock) {
+            worker = Thread.currentThread();
+            if (interrupted) {
+                worker.interrupt();
+            }
+        }
+    }
+
+    private void detach() {
+        synchronized (workerLock) {
+            worker = null;
+            Thread.interrupted(); // Don't leak the interrupt to the next task of a pooled thread
         }
     }
 
-    private void say(final String message) {
-        getLogger().log("[" + getName() + "; Meals=" + getMealCount() + "]: " + message);
+    /**
+     * Log a message of the philosopher. The message is only built if the logger is enabled.
+     *
+     * @param message to log.
+     */
+    void say(final String message) {
+        if (getLogger().isEnabled()) {
+            getLogger().log("[" + getName() + "; Meals=" + getMealCount() + "]: " + message);
+        }
+    }
+
+    void say(final String format, final long value) {
+        if (getLogger().isEnabled()) {
+            say(String.format(format, value));
+        }
+    }
+
+    void say(final String format, final Object value) {
+        if (getLogger().isEnabled()) {
+            say(String.format(format, value));
+        }
+    }
+
+    void say(final String format, final Object value1, final Object value2) {
+        if (getLogger().isEnabled()) {
+            say(String.format(format, value1, value2));
+        }
     }
 
     private void onThreadSleep(final long time) throws InterruptedException {
-        Thread.sleep(time);
+        clock.sleep(time, TimeUnit.MILLISECONDS);
     }
 
     @FunctionalInterface
@@ -376,9 +750,12 @@ public class Philosopher extends Thread {
         void onStandUp(final Philosopher philosopher);
     }
 
-    @FunctionalInterface
-    private interface DeadlockFunction {
-        void onDeadlockDetected(final Philosopher philosopher, final List<Fork> forkStream);
+    /**
+     * A counter which fills the rest of his cache line, so the counters don't slow each other down.
+     */
+    @SuppressWarnings("unused")
+    private static final class PaddedCounter extends AtomicLong {
+        private long p1, p2, p3, p4, p5, p6, p7;
     }
 
     public static class Builder {
@@ -387,12 +764,17 @@ public class Philosopher extends Thread {
         private String nameSuffix = "";
         private String name = "Philosopher-";
         private Logger logger = new DummyLogger();
+        private PhilosopherRuntime runtime;
+        private Clock clock = Clock.system();
         private Table table;
         private long timeSleep = DEFAULT_TIME_TO_SLEEP;
         private long timeEat = DEFAULT_TIME_TO_EAT;
         private long timeMediate = DEFAULT_TIME_TO_MEDIATE;
         private boolean hungry;
+        private WaitStrategy forkWaitStrategy = WaitStrategy.DEFAULT;
+        private ForkAcquisitionStrategy forkAcquisitionStrategy = ForkAcquisitionStrategy.backOff();
         private int takenMeals = 0;
+        private boolean multiMealSessions;
 
         public Builder name(final String name) {
             this.name = name;
@@ -423,6 +805,23 @@ public class Philosopher extends Thread {
             return this;
         }
 
+        public Builder setRuntime(final PhilosopherRuntime runtime) {
+            this.runtime = runtime;
+            return this;
+        }
+
+        /**
+         * Set the clock of the philosopher. If the clock is a {@link VirtualClock} and no runtime is set, the
+         * philosopher runs on the simulation runtime of the clock.
+         *
+         * @param clock to set.
+         * @return the builder.
+         */
+        public Builder setClock(final Clock clock) {
+            this.clock = clock;
+            return this;
+        }
+
         public Builder setTimeToSleep(final long timeToSleep) {
             this.timeSleep = timeToSleep;
             return this;
@@ -446,18 +845,48 @@ public class Philosopher extends Thread {
             return this;
         }
 
+        public Builder setForkWaitStrategy(final WaitStrategy forkWaitStrategy) {
+            this.forkWaitStrategy = forkWaitStrategy;
+            return this;
+        }
+
+        public Builder setForkAcquisitionStrategy(final ForkAcquisitionStrategy forkAcquisitionStrategy) {
+            this.forkAcquisitionStrategy = forkAcquisitionStrategy;
+            return this;
+        }
+
         public Builder setTakenMeals(int takenMeals) {
             this.takenMeals = takenMeals;
             return this;
         }
 
+        /**
+         * Let the philosopher keep his seat and forks for several meals as long as nobody waits for them. The table
+         * master and the other tables are told about all meals of such a session at once.
+         *
+         * @param multiMealSessions <code>true</code> to eat several meals on the same seat.
+         * @return the builder.
+         */
+        public Builder setMultiMealSessions(final boolean multiMealSessions) {
+            this.multiMealSessions = multiMealSessions;
+            return this;
+        }
+
         public Philosopher create() {
             if (table == null) {
                 throw new NullPointerException("Table can not be null. Use new Philosopher.Builder().setTable(Table).[...].create()");
             }
-            final Philosopher philosopher = new Philosopher(namePrefix + name + nameSuffix, logger, table, timeSleep, timeEat, timeMediate, hungry);
-            IntStream.rangeClosed(1, takenMeals)
-                    .forEach(index -> philosopher.incrementMealCount());
+            final PhilosopherRuntime runtime;
+            if (this.runtime != null) {
+                runtime = this.runtime;
+            } else if (clock instanceof VirtualClock) {
+                runtime = PhilosopherRuntime.simulation((VirtualClock) clock);
+            } else {
+                runtime = PhilosopherRuntime.dedicatedThreads();
+            }
+            final Philosopher philosopher = new Philosopher(namePrefix + name + nameSuffix, logger, runtime, table, timeSleep, timeEat, timeMediate, hungry, forkWaitStrategy, forkAcquisitionStrategy, clock);
+            philosopher.meals.set(takenMeals);
+            philosopher.multiMealSessions = multiMealSessions;
             return philosopher;
         }
     }
@@ -0,0 +1,78 @@
+package edu.hm.cs.vss;
+
+/**
+ * The Philosopher Runtime decides on which threads the life cycle of a philosopher is executed.
+ */
+@FunctionalInterface
+public interface PhilosopherRuntime {
+    /**
+     * Start the life cycle of the philosopher. The philosopher will live until he get's interrupted.
+     *
+     * @param philosopher to start.
+     */
+    void start(final Philosopher philosopher);
+
+    /**
+     * Stop the runtime and release his threads. The philosophers leave the table at the latest at the end of their
+     * current life cycle, a runtime without threads of his own ignores this.
+     */
+    default void shutdown() {
+    }
+
+    /**
+     * Every philosopher runs on his own platform thread. (Default)
+     *
+     * @return the runtime.
+     */
+    static PhilosopherRuntime dedicatedThreads() {
+        return philosopher -> new Thread(philosopher, philosopher.getName()).start();
+    }
+
+    /**
+     * Every philosopher runs on his own virtual thread. Virtual threads are only available since Java 21, on older
+     * runtimes every philosopher falls back to a dedicated platform thread. The runtime has to be {@link #shutdown()}
+     * to release the executor of the virtual threads.
+     *
+     * @return the runtime.
+     */
+    static PhilosopherRuntime virtualThreads() {
+        return VirtualThreadPhilosopherRuntime.create();
+    }
+
+    /**
+     * All philosophers share a bounded amount of threads. Every life cycle (the eat iterations) is executed as a single
+     * task, the sleep between two life cycles doesn't occupy a thread at all. Waiting for a seat or the forks still
+     * blocks the thread, so at most <code>threadCount</code> philosophers are in a life cycle at once. The runtime has
+     * to be {@link #shutdown()} to release the threads.
+     *
+     * @param threadCount of the pool.
+     * @return the runtime.
+     */
+    static PhilosopherRuntime pooled(final int threadCount) {
+        return new PooledPhilosopherRuntime(threadCount);
+    }
+
+    /**
+     * All philosophers are state machines driven by a few event loops. Nobody blocks a thread while waiting, eating or
+     * sleeping, so millions of philosophers can live on a single machine. The philosophers always grab both forks at
+     * once, their fork acquisition strategy is only used to release the forks. The runtime has to be {@link #shutdown()}
+     * to release the event loop threads.
+     *
+     * @param loopCount the amount of event loop threads.
+     * @return the runtime.
+     */
+    static PhilosopherRuntime eventLoop(final int loopCount) {
+        return new EventLoopPhilosopherRuntime(loopCount);
+    }
+
+    /**
+     * All philosophers are state machines driven by the events of a virtual clock. Nothing happens until the clock is
+     * advanced, so the simulation runs as fast as possible and is replayed exactly with the same seed.
+     *
+     * @param clock to drive the philosophers with.
+     * @return the runtime.
+     */
+    static PhilosopherRuntime simulation(final VirtualClock clock) {
+        return new EventLoopPhilosopherRuntime(clock);
+    }
+}
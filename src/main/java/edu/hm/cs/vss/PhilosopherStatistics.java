@@ -0,0 +1,63 @@
+package edu.hm.cs.vss;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A snapshot of the statistics of a philosopher.
+ */
+public final class PhilosopherStatistics implements Serializable {
+    private final int mealCount;
+    private final long eatTime;
+    private final long waitTime;
+    private final int banCount;
+
+    PhilosopherStatistics(final int mealCount, final long eatTime, final long waitTime, final int banCount) {
+        this.mealCount = mealCount;
+        this.eatTime = eatTime;
+        this.waitTime = waitTime;
+        this.banCount = banCount;
+    }
+
+    /**
+     * @return the amount of eaten meals.
+     */
+    public int getMealCount() {
+        return mealCount;
+    }
+
+    /**
+     * Get the total time the philosopher was eating.
+     *
+     * @param unit of the time.
+     * @return the eat time.
+     */
+    public long getEatTime(final TimeUnit unit) {
+        return unit.convert(eatTime, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the total time the philosopher was waiting for a seat and his forks. (Including the time he was banned)
+     *
+     * @param unit of the time.
+     * @return the wait time.
+     */
+    public long getWaitTime(final TimeUnit unit) {
+        return unit.convert(waitTime, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return how many times the table master refused the philosopher a seat.
+     */
+    public int getBanCount() {
+        return banCount;
+    }
+
+    @Override
+    public String toString() {
+        return "Meals=" + mealCount
+                + "; Eat=" + getEatTime(TimeUnit.MILLISECONDS) + " ms"
+                + "; Wait=" + getWaitTime(TimeUnit.MILLISECONDS) + " ms"
+                + "; Bans=" + banCount;
+    }
+}
@@ -0,0 +1,52 @@
+package edu.hm.cs.vss;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes the life cycles of the philosophers on a bounded thread pool. After every life cycle the philosopher is
+ * rescheduled after his time to sleep, so a sleeping philosopher never blocks one of the pool threads. A life cycle
+ * itself blocks his pool thread for all eat iterations, including the waits for a seat and the forks.
+ */
+class PooledPhilosopherRuntime implements PhilosopherRuntime {
+    private final ScheduledExecutorService executor;
+
+    PooledPhilosopherRuntime(final int threadCount) {
+        final AtomicInteger counter = new AtomicInteger(1);
+        this.executor = new ScheduledThreadPoolExecutor(threadCount, runnable -> {
+            final Thread thread = new Thread(runnable, "Philosopher-Runtime-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void start(final Philosopher philosopher) {
+        executor.execute(() -> {
+            philosopher.onStart();
+            onLifeCycle(philosopher);
+        });
+    }
+
+    @Override
+    public void shutdown() {
+        // The philosophers die as soon as they would be rescheduled
+        executor.shutdown();
+    }
+
+    private void onLifeCycle(final Philosopher philosopher) {
+        if (philosopher.runLifeCycle()) {
+            philosopher.say("Sleeping for %d ms", philosopher.getTimeToSleep());
+            try {
+                executor.schedule(() -> onLifeCycle(philosopher), philosopher.getTimeToSleep(), TimeUnit.MILLISECONDS);
+                return;
+            } catch (RejectedExecutionException e) {
+                // the runtime was shut down -> the philosopher dies
+            }
+        }
+        philosopher.onStop();
+    }
+}
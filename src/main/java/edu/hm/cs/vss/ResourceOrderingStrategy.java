@@ -0,0 +1,41 @@
+package edu.hm.cs.vss;
+
+import java.util.List;
+
+/**
+ * Grabs the fork with the lower id (name) first and waits until it got both.
+ */
+final class ResourceOrderingStrategy implements ForkAcquisitionStrategy {
+    static final ResourceOrderingStrategy INSTANCE = new ResourceOrderingStrategy();
+
+    private ResourceOrderingStrategy() {
+    }
+
+    @Override
+    public void acquire(final Philosopher philosopher, final Chair chair, final Chair neighbourChair, final List<Fork> forks)
+            throws InterruptedException {
+        final Fork fork = chair.getFork();
+        final Fork neighbourFork = neighbourChair.getFork();
+        final boolean ordered = fork.toString().compareTo(neighbourFork.toString()) <= 0;
+
+        try {
+            acquire(philosopher, ordered ? fork : neighbourFork, forks);
+            if (!fork.equals(neighbourFork)) {
+                acquire(philosopher, ordered ? neighbourFork : fork, forks);
+            }
+        } catch (InterruptedException e) {
+            release(philosopher, chair, forks);
+            throw e;
+        }
+    }
+
+    private static void acquire(final Philosopher philosopher, final Fork fork, final List<Fork> forks)
+            throws InterruptedException {
+        while (!fork.acquire(philosopher.getForkWaitStrategy())) {
+            if (philosopher.isInterrupted()) {
+                throw new InterruptedException();
+            }
+        }
+        forks.add(fork);
+    }
+}
@@ -0,0 +1,107 @@
+package edu.hm.cs.vss;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Collects how long the philosophers waited for a seat, separated into hungry and normal philosophers. Every wait time
+ * is counted in a logarithmic bucket with 8 sub buckets per power of two, so percentiles are accurate to 12.5%.
+ * Recording is cheap and can be done concurrently.
+ */
+public final class SeatWaitStatistics {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray hungry = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLongArray normal = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * Record a single wait for a seat.
+     *
+     * @param hungry   <code>true</code> if the philosopher is very hungry.
+     * @param waitTime of the philosopher. (in Nanoseconds)
+     */
+    public void record(final boolean hungry, final long waitTime) {
+        (hungry ? this.hungry : normal).incrementAndGet(getBucket(Math.max(0, waitTime)));
+    }
+
+    /**
+     * @param hungry <code>true</code> for the very hungry philosophers.
+     * @return the amount of recorded waits.
+     */
+    public long getCount(final boolean hungry) {
+        final AtomicLongArray buckets = hungry ? this.hungry : normal;
+        long count = 0;
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            count += buckets.get(index);
+        }
+        return count;
+    }
+
+    /**
+     * Get the time which the given share of the philosophers waited at most.
+     *
+     * @param hungry     <code>true</code> for the very hungry philosophers.
+     * @param percentile of the waits. (e.g. <code>99.0</code>)
+     * @param unit       of the time.
+     * @return the wait time or <code>0</code> if nothing was recorded.
+     */
+    public long getPercentile(final boolean hungry, final double percentile, final TimeUnit unit) {
+        final AtomicLongArray buckets = hungry ? this.hungry : normal;
+        final long count = getCount(hungry);
+        if (count == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(count * Math.min(100.0, percentile) / 100.0));
+        long seen = 0;
+        int index = 0;
+        for (; index < BUCKET_COUNT - 1; index++) {
+            seen += buckets.get(index);
+            if (seen >= rank) {
+                break;
+            }
+        }
+        return unit.convert(getUpperBound(index), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Forget all recorded waits.
+     */
+    public void reset() {
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            hungry.set(index, 0);
+            normal.set(index, 0);
+        }
+    }
+
+    private static int getBucket(final long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        final int highestBit = 63 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (highestBit - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (highestBit - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    private static long getUpperBound(final int bucket) {
+        if (bucket < SUB_BUCKET_COUNT) {
+            return bucket;
+        }
+        final int shift = bucket / SUB_BUCKET_COUNT - 1;
+        final long lowerBound = (long) (SUB_BUCKET_COUNT + bucket % SUB_BUCKET_COUNT) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+
+    private String toString(final boolean hungry) {
+        return getCount(hungry)
+                + " (p50=" + getPercentile(hungry, 50, TimeUnit.MICROSECONDS) + " us"
+                + ", p90=" + getPercentile(hungry, 90, TimeUnit.MICROSECONDS) + " us"
+                + ", p99=" + getPercentile(hungry, 99, TimeUnit.MICROSECONDS) + " us)";
+    }
+
+    @Override
+    public String toString() {
+        return "Hungry=" + toString(true) + "; Normal=" + toString(false);
+    }
+}
@@ -0,0 +1,33 @@
+package edu.hm.cs.vss;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The wall clock.
+ */
+final class SystemClock implements Clock {
+    static final SystemClock INSTANCE = new SystemClock();
+
+    private SystemClock() {
+    }
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public void sleep(final long delay, final TimeUnit unit) throws InterruptedException {
+        TimerService.getDefault().sleep(delay, unit);
+    }
+
+    @Override
+    public void schedule(final Runnable task, final long delay, final TimeUnit unit) {
+        TimerService.getDefault().schedule(task, delay, unit);
+    }
+}
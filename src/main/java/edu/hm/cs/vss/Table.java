@@ -1,15 +1,19 @@
 package edu.hm.cs.vss;
 
+import edu.hm.cs.vss.local.CompactTable;
 import edu.hm.cs.vss.local.LocalTable;
 import edu.hm.cs.vss.local.LocalTablePool;
 import edu.hm.cs.vss.log.DummyLogger;
 import edu.hm.cs.vss.log.FileLogger;
 import edu.hm.cs.vss.log.Logger;
+import edu.hm.cs.vss.remote.TableTransport;
 
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -80,6 +84,24 @@ public interface Table {
      */
     Stream<Chair> getChairs();
 
+    /**
+     * Get the chair with the minimal amount of waiting philosophers.
+     *
+     * @return the chair or nothing if the table has no chairs.
+     */
+    default Optional<Chair> getLeastBusyChair() {
+        return getChairs().min((chair1, chair2) -> Integer.compare(chair1.getWaitingPhilosopherCount(), chair2.getWaitingPhilosopherCount()));
+    }
+
+    /**
+     * Get the chair with the minimal amount of waiting philosophers without blocking the calling thread.
+     *
+     * @return the future which completes with the chair or nothing if the table has no chairs.
+     */
+    default CompletableFuture<Optional<Chair>> getLeastBusyChairAsync() {
+        return CompletableFuture.completedFuture(getLeastBusyChair());
+    }
+
     /**
      * Get the neighbour chair of another chair. (If there is only one chair, then the same chair will be returned)
      *
@@ -95,6 +117,32 @@ public interface Table {
         return chairs.get(indexOfChair - 1); // Get the chair from the left hand side
     }
 
+    /**
+     * Blocks the fork of the chair and the fork of the neighbour chair. Either both forks are blocked or none of them.
+     *
+     * @param chair          the philosopher sits on.
+     * @param neighbourChair of the chair.
+     * @param forks          to add the blocked forks to.
+     * @return <code>true</code> if both forks were blocked.
+     */
+    default boolean tryAcquireForks(final Chair chair, final Chair neighbourChair, final List<Fork> forks) {
+        final Fork fork = chair.getFork();
+        final Fork neighbourFork = neighbourChair.getFork();
+        if (!fork.tryAcquire()) {
+            return false;
+        }
+        final boolean sameFork = fork.equals(neighbourFork);
+        if (!sameFork && !neighbourFork.tryAcquire()) {
+            fork.release();
+            return false;
+        }
+        forks.add(fork);
+        if (!sameFork) {
+            forks.add(neighbourFork);
+        }
+        return true;
+    }
+
     /**
      * Set the table master for this table.
      *
@@ -120,6 +168,8 @@ public interface Table {
         private int amountChairs;
         private TableMaster tableMaster = philosopher -> true;
         private Logger logger = new DummyLogger();
+        private int segmentCount = 1;
+        private TableTransport transport;
 
         public Builder withChairCount(final int amountOfChairs) {
             amountChairs = amountOfChairs;
@@ -131,13 +181,36 @@ public interface Table {
             return this;
         }
 
+        /**
+         * Split the chairs of the local table into several segments, so philosophers on different cores rarely search
+         * the same chairs.
+         *
+         * @param segmentCount the amount of segments.
+         * @return the builder.
+         */
+        public Builder withSegments(final int segmentCount) {
+            this.segmentCount = segmentCount;
+            return this;
+        }
+
+        /**
+         * Set the transport the network table reaches the other tables with. (Java RMI by default)
+         *
+         * @param transport to use.
+         * @return the builder.
+         */
+        public Builder withTransport(final TableTransport transport) {
+            this.transport = transport;
+            return this;
+        }
+
         public Builder setFileLogger() {
             this.logger = new FileLogger("tables");
             return this;
         }
 
         public Table createLocal() {
-            final Table table = new LocalTable(logger);
+            final Table table = new LocalTable(logger, segmentCount);
             table.setTableMaster(tableMaster);
             IntStream.rangeClosed(1, amountChairs - 1)
                     .mapToObj(index -> new Chair.Builder().setNameUniqueId().create())
@@ -145,8 +218,20 @@ public interface Table {
             return table;
         }
 
+        /**
+         * Create a local table which stores the state of the chairs and forks in primitive arrays. Suited for tables
+         * with a huge amount of chairs, but the amount of chairs can't be changed afterwards.
+         *
+         * @return the table.
+         */
+        public Table createCompactLocal() {
+            final Table table = new CompactTable(amountChairs, logger);
+            table.setTableMaster(tableMaster);
+            return table;
+        }
+
         public Table createNetwork() throws IOException {
-            final Table table = new LocalTablePool(logger);
+            final Table table = new LocalTablePool(logger, segmentCount, transport != null ? transport : TableTransport.rmi());
             table.setTableMaster(tableMaster);
             IntStream.rangeClosed(1, amountChairs - 1)
                     .mapToObj(index -> new Chair.Builder().setNameUniqueId().create())
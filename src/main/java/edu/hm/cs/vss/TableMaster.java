@@ -1,10 +1,15 @@
 package edu.hm.cs.vss;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
 /**
  * The Table Master sits at every table. He decides whether a philosopher is allowed to take a seat or not.
  */
 public interface TableMaster {
     int MAX_DEVIATION = 10;
+    long ADMISSION_POLL_INTERVAL = TimeUnit.NANOSECONDS.convert(1, TimeUnit.MILLISECONDS);
 
     /**
      * Notify the table master that a new philosopher come to his table.
@@ -31,4 +36,86 @@ public interface TableMaster {
      * @return <code>true</code> if the philosopher is allowed to take a seat.
      */
     boolean isAllowedToTakeSeat(final Integer mealCount);
+
+    /**
+     * Wait until a philosopher is allowed to take a seat. Table masters which can't notify waiting philosophers poll
+     * {@link #isAllowedToTakeSeat(Integer)}.
+     *
+     * @param mealCount to check.
+     * @param timeout   to wait at most.
+     * @param unit      of the timeout.
+     * @return <code>true</code> if the philosopher is allowed to take a seat, <code>false</code> if the time is up.
+     * @throws InterruptedException if the waiting thread get's interrupted.
+     */
+    default boolean awaitAllowedToTakeSeat(final int mealCount, final long timeout, final TimeUnit unit) throws InterruptedException {
+        final Clock clock = getClock();
+        final long deadline = clock.nanoTime() + unit.toNanos(timeout);
+        while (!isAllowedToTakeSeat(mealCount)) {
+            final long remaining = deadline - clock.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            clock.sleep(Math.min(remaining, ADMISSION_POLL_INTERVAL), TimeUnit.NANOSECONDS);
+        }
+        return true;
+    }
+
+    /**
+     * Get notified as soon as a philosopher is allowed to take a seat. Table masters which can't notify waiting
+     * philosophers complete the admission after {@link #ADMISSION_POLL_INTERVAL}, so the philosopher has to check
+     * {@link #isAllowedToTakeSeat(Integer)} again. The admission must not be completed by the philosopher.
+     *
+     * @param mealCount to check.
+     * @return the admission.
+     */
+    default CompletionStage<Void> getAdmission(final int mealCount) {
+        return pollAdmission(this, mealCount);
+    }
+
+    /**
+     * Get an admission which is completed right away if the philosopher is allowed to take a seat, otherwise after
+     * {@link #ADMISSION_POLL_INTERVAL}.
+     *
+     * @param master    to ask.
+     * @param mealCount to check.
+     * @return the admission.
+     */
+    static CompletionStage<Void> pollAdmission(final TableMaster master, final int mealCount) {
+        final CompletableFuture<Void> admission = new CompletableFuture<>();
+        if (master.isAllowedToTakeSeat(mealCount)) {
+            admission.complete(null);
+        } else {
+            master.getClock().schedule(() -> admission.complete(null), ADMISSION_POLL_INTERVAL, TimeUnit.NANOSECONDS);
+        }
+        return admission;
+    }
+
+    /**
+     * Get the priority of a philosopher in the waiting queues of the chairs. Very hungry philosophers are served first.
+     *
+     * @param philosopher who waits for a seat.
+     * @return the priority. (<code>0</code> is the lowest)
+     */
+    default int getSeatPriority(final Philosopher philosopher) {
+        return philosopher.isHungry() ? 1 : 0;
+    }
+
+    /**
+     * Notify the table master that a philosopher found a seat.
+     *
+     * @param philosopher who found a seat.
+     * @param waitTime    the philosopher waited for the seat. (in Nanoseconds)
+     */
+    default void onSeatTaken(final Philosopher philosopher, final long waitTime) {
+        // Default: do nothing
+    }
+
+    /**
+     * Get the clock the table master waits with.
+     *
+     * @return the clock.
+     */
+    default Clock getClock() {
+        return Clock.system();
+    }
 }
@@ -0,0 +1,158 @@
+package edu.hm.cs.vss;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The Timer Service executes the delayed tasks of all philosophers with a single timer thread and a hierarchical timer
+ * wheel. Sleeping threads park on their own until shortly before their deadline and spin the last tick, so the delays
+ * of the philosophers are as accurate as the timers. The service reports how far the actual delays deviate from the
+ * requested ones.
+ */
+public final class TimerService {
+    private static final long DEFAULT_TICK_DURATION = TimeUnit.NANOSECONDS.convert(100, TimeUnit.MICROSECONDS);
+    private static final TimerService DEFAULT = new TimerService(DEFAULT_TICK_DURATION, true);
+
+    private final long tickDuration;
+    private final boolean spinning;
+    private final DelayStatistics statistics = new DelayStatistics();
+    private final Queue<Submission> submissions = new ConcurrentLinkedQueue<>();
+    private final TimerWheel wheel; // Only touched by the timer thread
+    private final Thread timerThread;
+    private volatile boolean running = true;
+
+    /**
+     * @param tickDuration the accuracy of the timers. (in Nanoseconds)
+     */
+    public TimerService(final long tickDuration) {
+        this(tickDuration, false);
+    }
+
+    /**
+     * @param tickDuration the accuracy of the timers. (in Nanoseconds)
+     * @param spinning     <code>true</code> if sleeping threads spin the last tick before their deadline. This is more
+     *                     accurate, but costs about a tick of CPU time per sleep.
+     */
+    public TimerService(final long tickDuration, final boolean spinning) {
+        this.tickDuration = tickDuration;
+        this.spinning = spinning;
+        this.wheel = new TimerWheel(tickDuration, statistics);
+        this.timerThread = new Thread(this::runTimers, "Philosopher-Timer");
+        this.timerThread.setDaemon(true);
+        this.timerThread.start();
+    }
+
+    /**
+     * Get the timer service which is shared by all philosophers. Sleeping threads spin the last tick.
+     *
+     * @return the timer service.
+     */
+    public static TimerService getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @return <code>true</code> if sleeping threads spin the last tick before their deadline.
+     */
+    boolean isSpinning() {
+        return spinning;
+    }
+
+    /**
+     * Get the deviations of all delays of this service.
+     *
+     * @return the statistics.
+     */
+    public DelayStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Execute a task after a delay on the timer thread. The task has to be short, otherwise it delays all other timers.
+     * A failing task is reported to the uncaught exception handler of the timer thread and doesn't stop the others.
+     *
+     * @param task  to execute.
+     * @param delay to wait.
+     * @param unit  of the delay.
+     * @throws IllegalStateException if the service was shut down.
+     */
+    public void schedule(final Runnable task, final long delay, final TimeUnit unit) {
+        if (!running) {
+            throw new IllegalStateException("The timer service was shut down");
+        }
+        submissions.add(new Submission(task, unit.toNanos(delay), System.nanoTime()));
+        LockSupport.unpark(timerThread);
+    }
+
+    /**
+     * Let the calling thread sleep. (Like {@link Thread#sleep(long)} but more accurate) The thread parks on his own, so
+     * sleeping works even after the service was shut down. The time the thread actually slept is recorded in the
+     * statistics.
+     *
+     * @param delay to sleep.
+     * @param unit  of the delay.
+     * @throws InterruptedException if the sleeping thread get's interrupted.
+     */
+    public void sleep(final long delay, final TimeUnit unit) throws InterruptedException {
+        final long nanos = unit.toNanos(delay);
+        final long start = System.nanoTime();
+        final long deadline = start + nanos;
+        // Only spin the last tick, if at all
+        final long parkDeadline = spinning ? deadline - tickDuration : deadline;
+        long remaining;
+        while ((remaining = parkDeadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(this, remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+        while (System.nanoTime() < deadline) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            Thread.yield();
+        }
+        statistics.record(nanos, System.nanoTime() - start);
+    }
+
+    /**
+     * Stop the timer thread. Tasks which are not executed yet are dropped, new tasks are rejected.
+     */
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(timerThread);
+    }
+
+    private void runTimers() {
+        while (running) {
+            Submission submission;
+            while ((submission = submissions.poll()) != null) {
+                // Subtract the time the submission was queued
+                wheel.schedule(submission.task, submission.delay - (System.nanoTime() - submission.start));
+            }
+            wheel.expire(System.nanoTime());
+            if (submissions.isEmpty() && running) {
+                if (wheel.isEmpty()) {
+                    LockSupport.park(this);
+                } else {
+                    LockSupport.parkNanos(this, wheel.getTimeToNextTick(System.nanoTime()));
+                }
+            }
+        }
+        submissions.clear();
+    }
+
+    private static final class Submission {
+        private final Runnable task;
+        private final long delay;
+        private final long start;
+
+        private Submission(final Runnable task, final long delay, final long start) {
+            this.task = task;
+            this.delay = delay;
+            this.start = start;
+        }
+    }
+}
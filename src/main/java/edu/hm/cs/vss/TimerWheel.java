@@ -0,0 +1,162 @@
+package edu.hm.cs.vss;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * A hierarchical timer wheel for the delays of a single thread. The first level has one slot per tick, every further
+ * level has one slot per turn of the level below. Timers of the higher levels cascade down as soon as the lower level
+ * reaches them, so scheduling and expiring is O(1) for any delay. Timers are accurate to one tick and never expire too
+ * early. A failing task is reported to the uncaught exception handler of the expiring thread and doesn't stop the
+ * others. The wheel is not thread-safe.
+ */
+class TimerWheel {
+    private static final int SLOT_BITS = 8;
+    private static final int SLOT_COUNT = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOT_COUNT - 1;
+    private static final int LEVEL_COUNT = 4;
+
+    private final long tickDuration;
+    private final DelayStatistics statistics;
+    private final Slot[][] levels;
+    private final long startTime;
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param tickDuration of a single slot of the first level. (in Nanoseconds)
+     * @param statistics   to report the deviation of every expired timer to. (or <code>null</code>)
+     */
+    TimerWheel(final long tickDuration, final DelayStatistics statistics) {
+        this.tickDuration = tickDuration;
+        this.statistics = statistics;
+        this.levels = new Slot[LEVEL_COUNT][SLOT_COUNT];
+        for (Slot[] level : levels) {
+            for (int index = 0; index < SLOT_COUNT; index++) {
+                level[index] = new Slot();
+            }
+        }
+        this.startTime = System.nanoTime();
+    }
+
+    /**
+     * Execute a task after a delay. The task is executed by the thread calling {@link #expire(long)}.
+     *
+     * @param task  to execute.
+     * @param delay to wait. (in Nanoseconds)
+     */
+    void schedule(final Runnable task, final long delay) {
+        final long now = System.nanoTime();
+        final long deadline = now + Math.max(0, delay);
+        // Round up, so the task never runs too early
+        final long tick = Math.max(currentTick + 1, (deadline - startTime + tickDuration - 1) / tickDuration);
+        place(new Timeout(task, deadline, deadline - now, tick));
+        size++;
+    }
+
+    /**
+     * Execute all tasks which are due.
+     *
+     * @param now the current {@link System#nanoTime()}.
+     * @return the amount of executed tasks.
+     */
+    int expire(final long now) {
+        final long nowTick = (now - startTime) / tickDuration;
+        int expired = 0;
+        while (currentTick < nowTick) {
+            currentTick++;
+            cascade();
+
+            final Queue<Timeout> slot = levels[0][(int) (currentTick & SLOT_MASK)];
+            // Tasks might schedule new tasks into the same slot -> only look at the ones which are there already
+            for (int count = slot.size(); count > 0; count--) {
+                final Timeout timeout = slot.poll();
+                if (timeout.tick <= currentTick) {
+                    size--;
+                    expired++;
+                    if (statistics != null) {
+                        statistics.record(timeout.delay, System.nanoTime() - timeout.deadline + timeout.delay);
+                    }
+                    run(timeout.task);
+                } else {
+                    slot.add(timeout);
+                }
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Get the time until the next tick.
+     *
+     * @param now the current {@link System#nanoTime()}.
+     * @return the time. (in Nanoseconds)
+     */
+    long getTimeToNextTick(final long now) {
+        return Math.max(0, (currentTick + 1) * tickDuration - (now - startTime));
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Move the timers of the higher levels down, if the lower levels finished a turn.
+     */
+    private void cascade() {
+        int highest = 0;
+        while (highest + 1 < LEVEL_COUNT && (currentTick & ((1L << (SLOT_BITS * (highest + 1))) - 1)) == 0) {
+            highest++;
+        }
+        for (int level = highest; level > 0; level--) {
+            final Queue<Timeout> slot = levels[level][(int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK)];
+            for (int count = slot.size(); count > 0; count--) {
+                place(slot.poll());
+            }
+        }
+    }
+
+    private static void run(final Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            final Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+    }
+
+    private void place(final Timeout timeout) {
+        final long delta = timeout.tick - currentTick;
+        if (delta <= 0) {
+            levels[0][(int) (currentTick & SLOT_MASK)].add(timeout);
+            return;
+        }
+        for (int level = 0; level < LEVEL_COUNT; level++) {
+            if ((delta >>> (SLOT_BITS * (level + 1))) == 0) {
+                levels[level][(int) ((timeout.tick >>> (SLOT_BITS * level)) & SLOT_MASK)].add(timeout);
+                return;
+            }
+        }
+        // Too far away for the wheel -> park in the last slot of the current turn and place it again later
+        final int top = LEVEL_COUNT - 1;
+        final long lastTick = currentTick + (1L << (SLOT_BITS * LEVEL_COUNT)) - 1;
+        levels[top][(int) ((lastTick >>> (SLOT_BITS * top)) & SLOT_MASK)].add(timeout);
+    }
+
+    private static final class Slot extends ArrayDeque<Timeout> {
+    }
+
+    private static final class Timeout {
+        private final Runnable task;
+        private final long deadline;
+        private final long delay;
+        private final long tick;
+
+        private Timeout(final Runnable task, final long deadline, final long delay, final long tick) {
+            this.task = task;
+            this.deadline = deadline;
+            this.delay = delay;
+            this.tick = tick;
+        }
+    }
+}
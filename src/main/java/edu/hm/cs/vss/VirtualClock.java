@@ -0,0 +1,128 @@
+package edu.hm.cs.vss;
+
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Virtual Clock simulates the time with discrete events: scheduled tasks are executed in the order of their due
+ * time and the clock jumps from one event to the next. Events which are due at the same time are ordered by a random
+ * generator with a fixed seed, so a scenario with the same seed is replayed exactly, no matter how fast the machine is.
+ * <p>
+ * The clock is not thread-safe and can't block threads. The philosophers have to run on the
+ * {@link PhilosopherRuntime#simulation(VirtualClock)} runtime and the simulation is driven by {@link #advance(long,
+ * TimeUnit)} on a single thread.
+ */
+public final class VirtualClock implements Clock {
+    private final Queue<Event> events = new PriorityQueue<>();
+    private final Random random;
+    private final long seed;
+    private final long startTimeMillis;
+    private long now;
+    private long sequence;
+
+    /**
+     * @param seed of the random generator.
+     */
+    public VirtualClock(final long seed) {
+        this(seed, 0);
+    }
+
+    /**
+     * @param seed            of the random generator.
+     * @param startTimeMillis the wall clock time the simulation starts at. (Milliseconds since the epoch)
+     */
+    public VirtualClock(final long seed, final long startTimeMillis) {
+        this.random = new Random(seed);
+        this.seed = seed;
+        this.startTimeMillis = startTimeMillis;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Get the random generator of the simulation. Every random decision of a scenario has to be made with this
+     * generator, otherwise the scenario can't be replayed.
+     *
+     * @return the random generator.
+     */
+    public Random getRandom() {
+        return random;
+    }
+
+    @Override
+    public long nanoTime() {
+        return now;
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return startTimeMillis + TimeUnit.NANOSECONDS.toMillis(now);
+    }
+
+    @Override
+    public void sleep(final long delay, final TimeUnit unit) {
+        throw new UnsupportedOperationException("A virtual clock can't block threads, use the simulation runtime");
+    }
+
+    @Override
+    public void schedule(final Runnable task, final long delay, final TimeUnit unit) {
+        events.add(new Event(now + Math.max(0, unit.toNanos(delay)), random.nextLong(), sequence++, task));
+    }
+
+    /**
+     * Run the simulation for some time. All events which are due within this time are executed, afterwards the clock
+     * stands exactly at the end of the time.
+     *
+     * @param duration to simulate.
+     * @param unit     of the duration.
+     * @return the amount of executed events.
+     */
+    public long advance(final long duration, final TimeUnit unit) {
+        final long end = now + unit.toNanos(duration);
+        long executed = 0;
+        while (!events.isEmpty() && events.peek().time <= end) {
+            final Event event = events.poll();
+            now = event.time;
+            event.task.run();
+            executed++;
+        }
+        now = end;
+        return executed;
+    }
+
+    /**
+     * @return the amount of scheduled events.
+     */
+    public int getPendingEventCount() {
+        return events.size();
+    }
+
+    private static final class Event implements Comparable<Event> {
+        private final long time;
+        private final long order;
+        private final long sequence;
+        private final Runnable task;
+
+        private Event(final long time, final long order, final long sequence, final Runnable task) {
+            this.time = time;
+            this.order = order;
+            this.sequence = sequence;
+            this.task = task;
+        }
+
+        @Override
+        public int compareTo(final Event other) {
+            if (time != other.time) {
+                return Long.compare(time, other.time);
+            }
+            if (order != other.order) {
+                return Long.compare(order, other.order);
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package edu.hm.cs.vss;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs every philosopher on his own virtual thread. All virtual threads of the runtime are started by a single
+ * executor, which is released when the runtime is shut down. Virtual threads are only available since Java 21.
+ */
+class VirtualThreadPhilosopherRuntime implements PhilosopherRuntime {
+    private final ExecutorService executor;
+    private final Set<Philosopher> philosophers = ConcurrentHashMap.newKeySet();
+
+    private VirtualThreadPhilosopherRuntime(final ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Create the runtime if virtual threads are available.
+     *
+     * @return the runtime or dedicated platform threads on older runtimes.
+     */
+    static PhilosopherRuntime create() {
+        try {
+            return new VirtualThreadPhilosopherRuntime((ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null));
+        } catch (ReflectiveOperationException e) {
+            return PhilosopherRuntime.dedicatedThreads();
+        }
+    }
+
+    @Override
+    public void start(final Philosopher philosopher) {
+        philosophers.add(philosopher);
+        executor.execute(() -> {
+            try {
+                philosopher.run();
+            } finally {
+                philosophers.remove(philosopher);
+            }
+        });
+    }
+
+    @Override
+    public void shutdown() {
+        // A philosopher lives on his thread until he get's interrupted
+        executor.shutdown();
+        philosophers.forEach(Philosopher::interrupt);
+    }
+}
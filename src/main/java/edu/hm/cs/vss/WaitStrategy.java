@@ -0,0 +1,116 @@
+package edu.hm.cs.vss;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The Wait Strategy describes how a philosopher waits for a resource: first he spins, then he yields his thread and
+ * finally he parks until the resource is handed over to him or the park time elapsed.
+ */
+public final class WaitStrategy implements Serializable {
+    public static final WaitStrategy DEFAULT = new Builder().create();
+    private static final long MIN_PARK_INTERVAL = TimeUnit.NANOSECONDS.convert(50, TimeUnit.MICROSECONDS);
+    private static final long MAX_PARK_INTERVAL = TimeUnit.NANOSECONDS.convert(1, TimeUnit.MILLISECONDS);
+
+    private final int spinCount;
+    private final int yieldCount;
+    private final long parkTime;
+
+    private WaitStrategy(final int spinCount, final int yieldCount, final long parkTime) {
+        this.spinCount = spinCount;
+        this.yieldCount = yieldCount;
+        this.parkTime = parkTime;
+    }
+
+    /**
+     * Get the amount of busy retries before the thread yields.
+     *
+     * @return the spin count.
+     */
+    public int getSpinCount() {
+        return spinCount;
+    }
+
+    /**
+     * Get the amount of retries with {@link Thread#yield()} before the thread parks.
+     *
+     * @return the yield count.
+     */
+    public int getYieldCount() {
+        return yieldCount;
+    }
+
+    /**
+     * Get the maximum time a thread parks before he gives up. (in Nanoseconds)
+     *
+     * @return the park time.
+     */
+    public long getParkTime() {
+        return parkTime;
+    }
+
+    /**
+     * Check whether an attempt is still in the spin or yield phase.
+     *
+     * @param attempt the amount of failed attempts so far.
+     * @return <code>true</code> if the thread should retry without parking.
+     */
+    public boolean isBusyAttempt(final int attempt) {
+        return attempt < spinCount + yieldCount;
+    }
+
+    /**
+     * Idle after a failed attempt. The thread spins, yields or parks depending on the amount of failed attempts. Parking
+     * threads back off exponentially, so this is suited for resources which can't wake up their waiters.
+     *
+     * @param attempt  the amount of failed attempts so far.
+     * @param deadline the {@link System#nanoTime()} when the thread gives up.
+     * @return <code>true</code> if the thread should try again, <code>false</code> if the deadline has passed.
+     * @throws InterruptedException if the thread get's interrupted.
+     */
+    public boolean idle(final int attempt, final long deadline) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        if (attempt < spinCount) {
+            return true;
+        }
+        if (attempt < spinCount + yieldCount) {
+            Thread.yield();
+            return true;
+        }
+        final long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            return false;
+        }
+        final int parkAttempt = Math.min(attempt - spinCount - yieldCount, 5);
+        LockSupport.parkNanos(this, Math.min(remaining, Math.min(MAX_PARK_INTERVAL, MIN_PARK_INTERVAL << parkAttempt)));
+        return true;
+    }
+
+    public static class Builder {
+        private int spinCount = 10;
+        private int yieldCount = 10;
+        private long parkTime = TimeUnit.NANOSECONDS.convert(2, TimeUnit.MILLISECONDS);
+
+        public Builder setSpinCount(final int spinCount) {
+            this.spinCount = spinCount;
+            return this;
+        }
+
+        public Builder setYieldCount(final int yieldCount) {
+            this.yieldCount = yieldCount;
+            return this;
+        }
+
+        public Builder setParkTime(final long parkTime, final TimeUnit unit) {
+            this.parkTime = unit.toNanos(parkTime);
+            return this;
+        }
+
+        public WaitStrategy create() {
+            return new WaitStrategy(spinCount, yieldCount, parkTime);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package edu.hm.cs.vss;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A parked thread waiting for a resource to be handed over. Waiters with a lower rank are served first.
+ */
+final class Waiter implements Comparable<Waiter> {
+    private static final int WAITING = 0;
+    private static final int GRANTED = 1;
+    private static final int CANCELLED = 2;
+
+    private final Thread thread = Thread.currentThread();
+    private final AtomicInteger state = new AtomicInteger(WAITING);
+    private final long rank;
+
+    Waiter() {
+        this(0);
+    }
+
+    /**
+     * @param rank of the waiter in a priority queue.
+     */
+    Waiter(final long rank) {
+        this.rank = rank;
+    }
+
+    /**
+     * Hand over the resource to the waiting thread.
+     *
+     * @return <code>false</code> if the waiter already gave up.
+     */
+    boolean grant() {
+        if (state.compareAndSet(WAITING, GRANTED)) {
+            LockSupport.unpark(thread);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Give up waiting.
+     *
+     * @return <code>false</code> if the resource was already handed over.
+     */
+    boolean cancel() {
+        return state.compareAndSet(WAITING, CANCELLED);
+    }
+
+    boolean isGranted() {
+        return state.get() == GRANTED;
+    }
+
+    @Override
+    public int compareTo(final Waiter other) {
+        // The ranks are times -> compare the difference, so an overflow doesn't matter
+        return Long.signum(rank - other.rank);
+    }
+}
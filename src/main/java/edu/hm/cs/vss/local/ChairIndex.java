@@ -0,0 +1,158 @@
+package edu.hm.cs.vss.local;
+
+import edu.hm.cs.vss.Chair;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The Chair Index finds the least busy chair of a table (or a segment of a table) in constant time. Every chair which
+ * get's available is queued (at most once) in a free chair queue. If there is no free chair, the busy chairs are handed
+ * out round robin so the waiting philosophers are spread evenly.
+ */
+class ChairIndex {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Map<Chair, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry> freeChairs = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger cursor = new AtomicInteger();
+    private volatile Snapshot snapshot = new Snapshot(new Entry[INITIAL_CAPACITY], 0);
+
+    /**
+     * Add a chair to the index.
+     *
+     * @param chair to add.
+     */
+    synchronized void add(final Chair chair) {
+        final Entry entry = new Entry(chair);
+        if (entries.putIfAbsent(chair, entry) == null) {
+            snapshot = snapshot.append(entry);
+            chair.addOnAvailableListener(entry);
+            entry.onAvailable(chair);
+        }
+    }
+
+    /**
+     * Remove a chair from the index.
+     *
+     * @param chair to remove.
+     * @return <code>true</code> if the chair was part of the index.
+     */
+    synchronized boolean remove(final Chair chair) {
+        final Entry entry = entries.remove(chair);
+        if (entry == null) {
+            return false;
+        }
+        // Keep the order of the chairs, so the busy chairs are handed out in the same order on every run
+        snapshot = snapshot.without(entry);
+        chair.removeOnAvailableListener(entry);
+        return true;
+    }
+
+    /**
+     * @return the amount of chairs in this index.
+     */
+    int size() {
+        return snapshot.length;
+    }
+
+    /**
+     * Get the least busy chair.
+     *
+     * @return a free chair, a busy chair if all chairs are busy or nothing if there are no chairs.
+     */
+    Optional<Chair> getLeastBusyChair() {
+        final Optional<Chair> freeChair = nextFreeChair();
+        return freeChair.isPresent() ? freeChair : getBusyChair();
+    }
+
+    /**
+     * Get the next chair of the free chair queue. The chair is queued again at the end, so a chair which is handed out
+     * but never taken isn't lost. Chairs which turn out to be busy are dropped until they get available again.
+     *
+     * @return a free chair or nothing if all chairs are busy.
+     */
+    Optional<Chair> nextFreeChair() {
+        Entry entry;
+        while ((entry = freeChairs.poll()) != null) {
+            entry.queued.set(false);
+            if (entries.containsKey(entry.chair) && entry.chair.getWaitingPhilosopherCount() == 0) {
+                entry.onAvailable(entry.chair);
+                return entry.optional;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Get the next busy chair. (Round robin)
+     *
+     * @return a busy chair or nothing if there are no chairs.
+     */
+    Optional<Chair> getBusyChair() {
+        final Snapshot busyChairs = snapshot;
+        if (busyChairs.length == 0) {
+            return Optional.empty();
+        }
+        return busyChairs.array[(cursor.getAndIncrement() & Integer.MAX_VALUE) % busyChairs.length].optional;
+    }
+
+    /**
+     * All entries in the order they were added. The array is only appended to behind the length of all snapshots
+     * sharing it, so adding a chair costs amortized constant time.
+     */
+    private static final class Snapshot {
+        private final Entry[] array;
+        private final int length;
+
+        private Snapshot(final Entry[] array, final int length) {
+            this.array = array;
+            this.length = length;
+        }
+
+        private Snapshot append(final Entry entry) {
+            final Entry[] target = length < array.length ? array : Arrays.copyOf(array, array.length * 2);
+            target[length] = entry;
+            return new Snapshot(target, length + 1);
+        }
+
+        private Snapshot without(final Entry entry) {
+            // Keep the order of the chairs, so the busy chairs are handed out in the same order on every run
+            final Entry[] target = new Entry[array.length];
+            int targetLength = 0;
+            for (int index = 0; index < length; index++) {
+                if (array[index] != entry) {
+                    target[targetLength++] = array[index];
+                }
+            }
+            return new Snapshot(target, targetLength);
+        }
+    }
+
+    /**
+     * The index entry of a single chair.
+     */
+    private final class Entry implements Chair.OnAvailableListener {
+        private final Chair chair;
+        private final Optional<Chair> optional; // Handed out on every lookup -> created only once
+        private final AtomicBoolean queued = new AtomicBoolean(false);
+
+        private Entry(final Chair chair) {
+            this.chair = chair;
+            this.optional = Optional.of(chair);
+        }
+
+        @Override
+        public void onAvailable(final Chair chair) {
+            if (queued.compareAndSet(false, true)) {
+                freeChairs.add(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package edu.hm.cs.vss.local;
+
+import edu.hm.cs.vss.Chair;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * The Chair Ring arranges the chairs of a table in a circle. Every chair knows his left and right neighbour, so the
+ * neighbour lookup doesn't need to search. Adding and removing chairs is synchronized, reading the links is lock-free.
+ */
+class ChairRing {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Map<Chair, Node> nodes = new ConcurrentHashMap<>();
+    private volatile Snapshot chairs = new Snapshot(new Chair[INITIAL_CAPACITY], 0);
+    private Node head;
+
+    /**
+     * Add a chair at the end of the ring. (Left of the first chair)
+     *
+     * @param chair to add.
+     */
+    synchronized void add(final Chair chair) {
+        if (nodes.containsKey(chair)) {
+            return;
+        }
+        final Node node = new Node(chair);
+        if (head == null) {
+            node.left = node;
+            node.right = node;
+            head = node;
+        } else {
+            final Node tail = head.left;
+            node.left = tail;
+            node.right = head;
+            // Link the node after his own links are set, so readers never see an incomplete node
+            tail.right = node;
+            head.left = node;
+        }
+        nodes.put(chair, node);
+        // The new chair is the last one in ring order -> append him
+        chairs = chairs.append(chair);
+    }
+
+    /**
+     * Remove a chair from the ring. The neighbours of the chair are linked directly afterwards.
+     *
+     * @param chair to remove.
+     * @return <code>true</code> if the chair was part of the ring.
+     */
+    synchronized boolean remove(final Chair chair) {
+        final Node node = nodes.remove(chair);
+        if (node == null) {
+            return false;
+        }
+        if (node.right == node) {
+            head = null;
+        } else {
+            node.left.right = node.right;
+            node.right.left = node.left;
+            if (head == node) {
+                head = node.right;
+            }
+        }
+        updateChairs();
+        return true;
+    }
+
+    /**
+     * Get the neighbour chair on the left hand side. If there is only one chair, then the same chair will be returned.
+     *
+     * @param chair to get the neighbour from.
+     * @return the neighbour or the chair itself if the chair is not (or no longer) part of the ring.
+     */
+    Chair getLeftNeighbour(final Chair chair) {
+        final Node node = nodes.get(chair);
+        return node != null ? node.left.chair : chair;
+    }
+
+    /**
+     * @param chair to check.
+     * @return <code>true</code> if the chair is the first chair of the ring.
+     */
+    boolean isFirst(final Chair chair) {
+        final Snapshot snapshot = chairs;
+        return snapshot.length > 0 && snapshot.array[0] == chair;
+    }
+
+    boolean contains(final Chair chair) {
+        return nodes.containsKey(chair);
+    }
+
+    /**
+     * Get all chairs in ring order, starting with the first chair.
+     *
+     * @return the chairs.
+     */
+    Stream<Chair> stream() {
+        final Snapshot snapshot = chairs;
+        return Arrays.stream(snapshot.array, 0, snapshot.length);
+    }
+
+    private void updateChairs() {
+        final Chair[] array = new Chair[Math.max(INITIAL_CAPACITY, nodes.size() * 2)];
+        Node node = head;
+        for (int index = 0; index < nodes.size(); index++) {
+            array[index] = node.chair;
+            node = node.right;
+        }
+        chairs = new Snapshot(array, nodes.size());
+    }
+
+    /**
+     * The chairs in ring order. The array is only appended to behind the length of all snapshots sharing it, so adding
+     * a chair costs amortized constant time.
+     */
+    private static final class Snapshot {
+        private final Chair[] array;
+        private final int length;
+
+        private Snapshot(final Chair[] array, final int length) {
+            this.array = array;
+            this.length = length;
+        }
+
+        private Snapshot append(final Chair chair) {
+            final Chair[] target = length < array.length ? array : Arrays.copyOf(array, array.length * 2);
+            target[length] = chair;
+            return new Snapshot(target, length + 1);
+        }
+    }
+
+    private static final class Node {
+        private final Chair chair;
+        private volatile Node left;
+        private volatile Node right;
+
+        private Node(final Chair chair) {
+            this.chair = chair;
+        }
+    }
+}
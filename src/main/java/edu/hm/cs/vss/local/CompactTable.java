@@ -0,0 +1,378 @@
+package edu.hm.cs.vss.local;
+
+import edu.hm.cs.vss.*;
+import edu.hm.cs.vss.log.DummyLogger;
+import edu.hm.cs.vss.log.Logger;
+
+import java.io.NotSerializableException;
+import java.io.ObjectStreamException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * The Compact Table is a local table for a huge amount of chairs. The state of every seat is a single int and the state
+ * of every fork a single bit, both indexed by the id of the seat. Chairs and forks are only views on these arrays which
+ * are created once on demand and kept by the id of the seat, their names are generated when they are needed. The views
+ * only live at their table and can't be serialized. The amount of chairs is fixed.
+ */
+public class CompactTable implements Table {
+    private static final int OCCUPIED = 1;
+    private static final int WAITING = 2;
+    private static final int MAX_SCAN_LENGTH = 64;
+    private static final AtomicInteger counter = new AtomicInteger(1);
+
+    // Bit 0: the seat is occupied, Bit 1-31: the amount of waiting philosophers
+    private final AtomicIntegerArray seats;
+    private final AtomicReferenceArray<Seat> views;
+    private final ForkStore forkStore = new ForkStore();
+    private final AtomicInteger cursor = new AtomicInteger();
+    private final int tableId = counter.getAndIncrement();
+    private final int firstForkId;
+    private final long maxWaitTime;
+    private final WaitStrategy waitStrategy;
+    private final Logger logger;
+    private TableMaster tableMaster;
+
+    public CompactTable(final int chairCount) {
+        this(chairCount, new DummyLogger());
+    }
+
+    public CompactTable(final int chairCount, final Logger logger) {
+        this(chairCount, TimeUnit.MILLISECONDS.toNanos(10), WaitStrategy.DEFAULT, logger);
+    }
+
+    /**
+     * @param chairCount   the amount of chairs at this table.
+     * @param maxWaitTime  a philosopher waits for a seat before he gives up. (in Nanoseconds)
+     * @param waitStrategy to wait for a seat with.
+     * @param logger       to log with.
+     */
+    public CompactTable(final int chairCount, final long maxWaitTime, final WaitStrategy waitStrategy, final Logger logger) {
+        if (chairCount < 1) {
+            throw new IllegalArgumentException("A table needs at least one chair");
+        }
+        this.seats = new AtomicIntegerArray(chairCount);
+        this.views = new AtomicReferenceArray<>(chairCount);
+        this.firstForkId = forkStore.allocate(chairCount);
+        this.maxWaitTime = maxWaitTime;
+        this.waitStrategy = waitStrategy;
+        this.logger = logger;
+    }
+
+    /**
+     * @return the amount of chairs at this table.
+     */
+    public int getChairCount() {
+        return seats.length();
+    }
+
+    /**
+     * Get the view of a single chair.
+     *
+     * @param id of the chair.
+     * @return the chair.
+     */
+    public Chair getChair(final int id) {
+        if (id < 0 || id >= seats.length()) {
+            throw new IndexOutOfBoundsException("There is no chair " + id);
+        }
+        return getSeat(id);
+    }
+
+    @Override
+    public void connectToTable(String tableHost) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void disconnectFromTable(String tableHost) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Stream<Table> getTables() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void addPhilosopher(Philosopher philosopher) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void removePhilosopher(Philosopher philosopher) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Stream<Philosopher> getPhilosophers() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void addChair(Chair chair) {
+        throw new UnsupportedOperationException("The amount of chairs is fixed");
+    }
+
+    @Override
+    public void removeChair(Chair chair) {
+        throw new UnsupportedOperationException("The amount of chairs is fixed");
+    }
+
+    @Override
+    public Stream<Chair> getChairs() {
+        return IntStream.range(0, seats.length()).mapToObj(this::getChair);
+    }
+
+    @Override
+    public Optional<Chair> getLeastBusyChair() {
+        // Search a free seat near a rotating start, so the philosophers are spread over the whole table
+        final int length = seats.length();
+        final int start = (cursor.getAndIncrement() & Integer.MAX_VALUE) % length;
+        final int scanLength = Math.min(length, MAX_SCAN_LENGTH);
+        int leastBusy = start;
+        int leastBusyState = Integer.MAX_VALUE;
+        for (int offset = 0; offset < scanLength; offset++) {
+            final int id = (start + offset) % length;
+            final int state = seats.get(id);
+            if (state == 0) {
+                return getSeat(id).optional;
+            }
+            if (state < leastBusyState) {
+                leastBusy = id;
+                leastBusyState = state;
+            }
+        }
+        return getSeat(leastBusy).optional;
+    }
+
+    @Override
+    public Chair getNeighbourChair(Chair chair) {
+        final int id = getSeatId(chair);
+        return getSeat(id == 0 ? seats.length() - 1 : id - 1);
+    }
+
+    @Override
+    public boolean tryAcquireForks(Chair chair, Chair neighbourChair, List<Fork> forks) {
+        if (!isSeat(chair) || !isSeat(neighbourChair)) {
+            return Table.super.tryAcquireForks(chair, neighbourChair, forks);
+        }
+        final int id = ((Seat) chair).id;
+        final int neighbourId = ((Seat) neighbourChair).id;
+        if (!ForkStore.isSameWord(firstForkId + id, firstForkId + neighbourId)) {
+            return Table.super.tryAcquireForks(chair, neighbourChair, forks);
+        }
+        if (!forkStore.tryAcquire(firstForkId + id, firstForkId + neighbourId)) {
+            return false;
+        }
+        forks.add(chair.getFork());
+        if (id != neighbourId) {
+            forks.add(neighbourChair.getFork());
+        }
+        return true;
+    }
+
+    @Override
+    public TableMaster getTableMaster() {
+        return tableMaster;
+    }
+
+    @Override
+    public void setTableMaster(TableMaster tableMaster) {
+        if (tableMaster != null) {
+            this.tableMaster = tableMaster;
+        }
+    }
+
+    @Override
+    public BackupService getBackupService() {
+        throw new UnsupportedOperationException();
+    }
+
+    private Seat getSeat(final int id) {
+        final Seat seat = views.get(id);
+        if (seat != null) {
+            return seat;
+        }
+        final Seat created = new Seat(this, id);
+        return views.compareAndSet(id, null, created) ? created : views.get(id);
+    }
+
+    /**
+     * @return the amount of chair views which were created so far.
+     */
+    int getViewCount() {
+        int count = 0;
+        for (int id = 0; id < views.length(); id++) {
+            if (views.get(id) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean isSeat(final Chair chair) {
+        return chair instanceof Seat && ((Seat) chair).table == this;
+    }
+
+    private int getSeatId(final Chair chair) {
+        if (!isSeat(chair)) {
+            throw new IllegalArgumentException(chair + " is not part of this table");
+        }
+        return ((Seat) chair).id;
+    }
+
+    private boolean tryAcquireSeat(final int id, final long timeout) throws InterruptedException {
+        if (tryOccupy(id, false)) {
+            return true;
+        }
+        if (timeout <= 0) {
+            return false;
+        }
+
+        // The seat has no queue -> poll until the seat is free or the time is up
+        final long deadline = System.nanoTime() + timeout;
+        seats.addAndGet(id, WAITING);
+        try {
+            for (int attempt = 0; ; attempt++) {
+                if (tryOccupy(id, true)) {
+                    return true;
+                }
+                if (!waitStrategy.idle(attempt, deadline)) {
+                    seats.addAndGet(id, -WAITING);
+                    return false;
+                }
+            }
+        } catch (InterruptedException e) {
+            seats.addAndGet(id, -WAITING);
+            throw e;
+        }
+    }
+
+    private boolean tryOccupy(final int id, final boolean waiting) {
+        int current;
+        while (((current = seats.get(id)) & OCCUPIED) == 0) {
+            if (seats.compareAndSet(id, current, (waiting ? current - WAITING : current) | OCCUPIED)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void releaseSeat(final int id) {
+        int current;
+        do {
+            current = seats.get(id);
+        } while (!seats.compareAndSet(id, current, current & ~OCCUPIED));
+    }
+
+    /**
+     * The view of a single seat.
+     */
+    private static final class Seat implements Chair {
+        private final CompactTable table;
+        private final int id;
+        private final SeatFork fork;
+        private final Optional<Chair> optional;
+
+        private Seat(final CompactTable table, final int id) {
+            this.table = table;
+            this.id = id;
+            this.fork = new SeatFork(table, id);
+            this.optional = Optional.of(this);
+        }
+
+        @Override
+        public Fork getFork() {
+            return fork;
+        }
+
+        @Override
+        public boolean tryAcquire() throws InterruptedException {
+            return table.tryAcquireSeat(id, table.maxWaitTime);
+        }
+
+        @Override
+        public boolean tryAcquire(final long timeout, final TimeUnit unit) throws InterruptedException {
+            return table.tryAcquireSeat(id, unit.toNanos(timeout));
+        }
+
+        @Override
+        public void release() {
+            table.releaseSeat(id);
+        }
+
+        @Override
+        public int getWaitingPhilosopherCount() {
+            final int current = table.seats.get(id);
+            return (current & OCCUPIED) + (current >>> 1);
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof Seat && ((Seat) other).table == table && ((Seat) other).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * table.tableId + id;
+        }
+
+        @Override
+        public String toString() {
+            return "Chair-" + table.tableId + "-" + id;
+        }
+
+        private Object writeReplace() throws ObjectStreamException {
+            throw new NotSerializableException(this + " is only a view on his table");
+        }
+    }
+
+    /**
+     * The view of the fork of a single seat.
+     */
+    private static final class SeatFork implements Fork {
+        private final CompactTable table;
+        private final int id;
+
+        private SeatFork(final CompactTable table, final int id) {
+            this.table = table;
+            this.id = id;
+        }
+
+        @Override
+        public boolean tryAcquire() {
+            return table.forkStore.tryAcquire(table.firstForkId + id);
+        }
+
+        @Override
+        public void release() {
+            table.forkStore.release(table.firstForkId + id);
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof SeatFork && ((SeatFork) other).table == table && ((SeatFork) other).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * table.tableId + id;
+        }
+
+        @Override
+        public String toString() {
+            return "fork from Chair-" + table.tableId + "-" + id;
+        }
+
+        private Object writeReplace() throws ObjectStreamException {
+            throw new NotSerializableException(this + " is only a view on his table");
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package edu.hm.cs.vss.local;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The Fork Store keeps the blocked state of all forks of a table as single bits. Forks of neighbour chairs are stored
+ * next to each other, so both forks of a seat can usually be blocked with one atomic operation. The ids of removed
+ * forks are handed out again, so the store only grows with the number of forks which exist at the same time.
+ */
+class ForkStore {
+    private static final int FORKS_PER_WORD = Long.SIZE;
+    private static final int WORDS_PER_CHUNK = 1024;
+    private static final int FORKS_PER_CHUNK = FORKS_PER_WORD * WORDS_PER_CHUNK;
+
+    private volatile AtomicLongArray[] chunks = new AtomicLongArray[0];
+    private int size;
+    private int[] freeIds = new int[0];
+    private int freeCount;
+
+    /**
+     * Reserve the state of a new fork. The id of a recycled fork is reused before the store grows.
+     *
+     * @return the id of the fork.
+     */
+    synchronized int allocate() {
+        if (freeCount == 0) {
+            return allocate(1);
+        }
+        final int id = freeIds[--freeCount];
+        release(id); // Recycled ids stay blocked until they belong to a new fork
+        return id;
+    }
+
+    /**
+     * Hand the id of a removed fork back to the store. The fork has to be blocked by the caller, so nobody who still
+     * holds the removed fork can block the id until it belongs to a new fork.
+     *
+     * @param id of the blocked fork.
+     */
+    synchronized void recycle(final int id) {
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, Math.max(16, freeIds.length * 2));
+        }
+        freeIds[freeCount++] = id;
+    }
+
+    /**
+     * Get the number of ids which were ever reserved by this store.
+     *
+     * @return the number of ids.
+     */
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Reserve the state of several new forks with consecutive ids.
+     *
+     * @param count of the forks.
+     * @return the id of the first fork.
+     */
+    synchronized int allocate(final int count) {
+        final int id = size;
+        size += count;
+        final int chunkCount = (size + FORKS_PER_CHUNK - 1) / FORKS_PER_CHUNK;
+        if (chunkCount > chunks.length) {
+            final AtomicLongArray[] grown = Arrays.copyOf(chunks, chunkCount);
+            for (int index = chunks.length; index < chunkCount; index++) {
+                grown[index] = new AtomicLongArray(WORDS_PER_CHUNK);
+            }
+            chunks = grown;
+        }
+        return id;
+    }
+
+    /**
+     * Block a single fork if it is available.
+     *
+     * @param id of the fork.
+     * @return <code>true</code> if the fork was blocked.
+     */
+    boolean tryAcquire(final int id) {
+        return tryAcquire(getChunk(id), getWord(id), getBit(id));
+    }
+
+    /**
+     * Check whether two forks can be blocked with one atomic operation.
+     *
+     * @param id1 of the first fork.
+     * @param id2 of the second fork.
+     * @return <code>true</code> if the state of both forks is stored in the same word.
+     */
+    static boolean isSameWord(final int id1, final int id2) {
+        return id1 / FORKS_PER_WORD == id2 / FORKS_PER_WORD;
+    }
+
+    /**
+     * Block two forks of the same word at once or none of them. Forks in different words have to be blocked one after
+     * the other through the forks themselves, so a fork which has to be released again is handed over to the
+     * philosophers waiting for it.
+     *
+     * @param id1 of the first fork.
+     * @param id2 of the second fork.
+     * @return <code>true</code> if both forks were blocked.
+     * @see #isSameWord(int, int)
+     */
+    boolean tryAcquire(final int id1, final int id2) {
+        if (!isSameWord(id1, id2)) {
+            throw new IllegalArgumentException("The forks " + id1 + " and " + id2 + " are stored in different words");
+        }
+        return tryAcquire(getChunk(id1), getWord(id1), getBit(id1) | getBit(id2));
+    }
+
+    /**
+     * Set a fork available again.
+     *
+     * @param id of the fork.
+     */
+    void release(final int id) {
+        final AtomicLongArray chunk = getChunk(id);
+        final int word = getWord(id);
+        final long bit = getBit(id);
+        long current;
+        do {
+            current = chunk.get(word);
+        } while (!chunk.compareAndSet(word, current, current & ~bit));
+    }
+
+    private static boolean tryAcquire(final AtomicLongArray chunk, final int word, final long mask) {
+        long current;
+        do {
+            current = chunk.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+        } while (!chunk.compareAndSet(word, current, current | mask));
+        return true;
+    }
+
+    private AtomicLongArray getChunk(final int id) {
+        return chunks[id / FORKS_PER_CHUNK];
+    }
+
+    private static int getWord(final int id) {
+        return (id % FORKS_PER_CHUNK) / FORKS_PER_WORD;
+    }
+
+    private static long getBit(final int id) {
+        return 1L << (id % FORKS_PER_WORD);
+    }
+}
@@ -4,26 +4,80 @@ import edu.hm.cs.vss.*;
 import edu.hm.cs.vss.log.DummyLogger;
 import edu.hm.cs.vss.log.Logger;
 
-import java.io.IOException;
-import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 /**
  * Created by Fabio Hellmann on 14.04.2016.
+ * <p>
+ * The chairs of the table can be split into several segments. Every segment has his own chair index, a philosopher
+ * searches a free chair in the home segment of his thread first and only steals from the other segments if there is
+ * no free chair left.
+ * <p>
+ * Chairs and forks are indexed by their names as well, so a remote table can find them with a single lookup.
  */
 public class LocalTable implements Table {
-    private final List<Chair> chairs = Collections.synchronizedList(new LinkedList<>());
+    private final ChairRing chairs = new ChairRing();
+    private final ChairIndex[] segments;
+    private final ThreadLocal<Integer> homeSegment;
+    private final AtomicInteger nextSegment = new AtomicInteger();
+    private final ForkStore forkStore = new ForkStore();
+    private final Map<Chair, StoredChair> storedChairs = new ConcurrentHashMap<>();
+    private final Map<String, StoredChair> chairsByName = new ConcurrentHashMap<>();
+    private final Map<String, StoredFork> forksByName = new ConcurrentHashMap<>();
+    private final Queue<StoredChair> changedChairs = new ConcurrentLinkedQueue<>();
     private final Logger logger;
     private TableMaster tableMaster;
+    private String name;
 
     public LocalTable() {
         this(new DummyLogger());
     }
 
     public LocalTable(final Logger logger) {
+        this(logger, 1);
+    }
+
+    /**
+     * @param logger       to log with.
+     * @param segmentCount the amount of segments the chairs are split into.
+     */
+    public LocalTable(final Logger logger, final int segmentCount) {
+        if (segmentCount < 1) {
+            throw new IllegalArgumentException("A table needs at least one segment");
+        }
         this.logger = logger;
+        this.segments = new ChairIndex[segmentCount];
+        for (int index = 0; index < segmentCount; index++) {
+            segments[index] = new ChairIndex();
+        }
+        final AtomicInteger threadCounter = new AtomicInteger();
+        this.homeSegment = ThreadLocal.withInitial(() -> (threadCounter.getAndIncrement() & Integer.MAX_VALUE) % segmentCount);
+    }
+
+    @Override
+    public String getName() {
+        return name != null ? name : Table.super.getName();
+    }
+
+    /**
+     * @param name the other tables know this table by.
+     */
+    void setName(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return the amount of segments the chairs are split into.
+     */
+    public int getSegmentCount() {
+        return segments.length;
     }
 
     @Override
@@ -58,12 +112,31 @@ public class LocalTable implements Table {
 
     @Override
     public void addChair(Chair chair) {
-        chairs.add(chair);
+        // The forks of all chairs are stored by the table
+        final StoredChair storedChair = new StoredChair(chair, forkStore, changedChairs);
+        if (storedChairs.putIfAbsent(chair, storedChair) == null) {
+            chairsByName.put(storedChair.toString(), storedChair);
+            forksByName.put(storedChair.getFork().toString(), storedChair.getFork());
+            chairs.add(storedChair);
+            // Fill up the segments round robin
+            segments[(nextSegment.getAndIncrement() & Integer.MAX_VALUE) % segments.length].add(storedChair);
+        }
     }
 
     @Override
     public void removeChair(Chair chair) {
-        chairs.remove(chair);
+        final StoredChair storedChair = storedChairs.remove(chair instanceof StoredChair ? ((StoredChair) chair).getChair() : chair);
+        if (storedChair != null) {
+            chairsByName.remove(storedChair.toString(), storedChair);
+            forksByName.remove(storedChair.getFork().toString(), storedChair.getFork());
+            for (ChairIndex segment : segments) {
+                if (segment.remove(storedChair)) {
+                    break;
+                }
+            }
+            chairs.remove(storedChair);
+            storedChair.getFork().remove();
+        }
     }
 
     @Override
@@ -71,6 +144,123 @@ public class LocalTable implements Table {
         return chairs.stream();
     }
 
+    /**
+     * Find a chair of this table by his name.
+     *
+     * @param name of the chair.
+     * @return the chair or nothing if there is no chair with this name.
+     */
+    public Optional<Chair> getChair(final String name) {
+        return Optional.ofNullable(chairsByName.get(name));
+    }
+
+    /**
+     * Find a fork of this table by his name.
+     *
+     * @param name of the fork.
+     * @return the fork or nothing if there is no fork with this name.
+     */
+    public Optional<Fork> getFork(final String name) {
+        return Optional.ofNullable(forksByName.get(name));
+    }
+
+    /**
+     * Get the next chair whose waiting count might have changed since he was handed out the last time. A chair is
+     * queued at most once, so the queue never holds more than all chairs of the table.
+     *
+     * @return the chair or <code>null</code> if no chair changed.
+     */
+    Chair pollChangedChair() {
+        final StoredChair chair = changedChairs.poll();
+        if (chair != null) {
+            chair.clearChanged();
+        }
+        return chair;
+    }
+
+    @Override
+    public Chair getNeighbourChair(Chair chair) {
+        return chairs.getLeftNeighbour(toStoredChair(chair));
+    }
+
+    @Override
+    public boolean tryAcquireForks(Chair chair, Chair neighbourChair, List<Fork> forks) {
+        final Fork fork = chair.getFork();
+        final Fork neighbourFork = neighbourChair.getFork();
+        if (isStoredFork(fork) && isStoredFork(neighbourFork)
+                && ForkStore.isSameWord(((StoredFork) fork).getId(), ((StoredFork) neighbourFork).getId())) {
+            // Both forks are stored in the same word -> block them at once
+            if (!forkStore.tryAcquire(((StoredFork) fork).getId(), ((StoredFork) neighbourFork).getId())) {
+                return false;
+            }
+            // A chair might have been removed in the meantime
+            final boolean stored = ((StoredFork) fork).isStillStored();
+            final boolean neighbourStored = fork == neighbourFork || ((StoredFork) neighbourFork).isStillStored();
+            if (!stored || !neighbourStored) {
+                if (stored) {
+                    fork.release();
+                }
+                if (neighbourStored && fork != neighbourFork) {
+                    neighbourFork.release();
+                }
+                return false;
+            }
+            forks.add(fork);
+            if (fork != neighbourFork) {
+                forks.add(neighbourFork);
+            }
+            return true;
+        }
+        return Table.super.tryAcquireForks(chair, neighbourChair, forks);
+    }
+
+    /**
+     * Check whether the left neighbour of the chair sits at this table as well.
+     *
+     * @param chair to check.
+     * @return <code>true</code> if the chair is part of this table but not the first one.
+     */
+    boolean hasLocalNeighbour(final Chair chair) {
+        final Chair storedChair = toStoredChair(chair);
+        return chairs.contains(storedChair) && !chairs.isFirst(storedChair);
+    }
+
+    private Chair toStoredChair(final Chair chair) {
+        if (chair instanceof StoredChair) {
+            return chair;
+        }
+        final StoredChair storedChair = storedChairs.get(chair);
+        return storedChair != null ? storedChair : chair;
+    }
+
+    private boolean isStoredFork(final Fork fork) {
+        return fork instanceof StoredFork && ((StoredFork) fork).getStore() == forkStore;
+    }
+
+    @Override
+    public Optional<Chair> getLeastBusyChair() {
+        if (segments.length == 1) {
+            return segments[0].getLeastBusyChair();
+        }
+
+        final int home = homeSegment.get();
+        for (int offset = 0; offset < segments.length; offset++) {
+            final Optional<Chair> chair = segments[(home + offset) % segments.length].nextFreeChair();
+            if (chair.isPresent()) {
+                return chair;
+            }
+        }
+
+        // All chairs are busy -> queue up in the home segment (if it has chairs at all)
+        for (int offset = 0; offset < segments.length; offset++) {
+            final Optional<Chair> chair = segments[(home + offset) % segments.length].getBusyChair();
+            if (chair.isPresent()) {
+                return chair;
+            }
+        }
+        return Optional.empty();
+    }
+
     @Override
     public TableMaster getTableMaster() {
         return tableMaster;
@@ -1,43 +1,277 @@
 package edu.hm.cs.vss.local;
 
+import edu.hm.cs.vss.Clock;
 import edu.hm.cs.vss.Philosopher;
+import edu.hm.cs.vss.SeatWaitStatistics;
 import edu.hm.cs.vss.TableMaster;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 /**
  * This Table Master makes the decision due to the amount of meals the philosopher has already eaten.
+ * <p>
+ * The minimal amount of meals is tracked incrementally: a histogram counts the philosophers per amount of meals and the
+ * minimum is only searched again when the last philosopher left the lowest bucket. The histogram is a ring of atomic
+ * counters starting at the lowest bucket, so a philosopher who stands up only moves between two counters without a
+ * lock. Only the rare advance of the minimum and the amounts of meals outside of the ring are guarded by the table
+ * master. Banned philosophers wait for the admission of their amount of meals and are released as soon as the minimum
+ * rises far enough.
+ * <p>
+ * Very hungry philosophers and the philosophers with the minimal amount of meals are served first by the chairs.
  */
 public class LocalTableMaster implements TableMaster, Philosopher.OnStandUpListener {
-    private final List<Philosopher> philosopherList = Collections.synchronizedList(new ArrayList<>());
-    private final AtomicInteger maxMealCount = new AtomicInteger(MAX_DEVIATION);
+    private static final int HISTOGRAM_SIZE = 1024; // Must be a power of two
+    private static final int UNREGISTERED = -1;
+    private static final CompletionStage<Void> ADMITTED = CompletableFuture.completedFuture(null);
+    private final Map<Philosopher, MealCount> mealCounts = new ConcurrentHashMap<>(); // The last known amount of meals
+    // Amount of meals -> amount of philosophers, for the amounts from the lowest bucket on
+    private final AtomicIntegerArray histogram = new AtomicIntegerArray(HISTOGRAM_SIZE);
+    private final NavigableMap<Integer, Integer> outliers = new TreeMap<>(); // The amounts of meals outside of the ring
+    private volatile int lowestBucket;
+    private volatile int maxMealCount = MAX_DEVIATION;
+    private final ConcurrentNavigableMap<Integer, CompletableFuture<Void>> admissions = new ConcurrentSkipListMap<>();
+    private final SeatWaitStatistics seatWaitStatistics = new SeatWaitStatistics();
+    private final Clock clock;
+
+    public LocalTableMaster() {
+        this(Clock.system());
+    }
+
+    /**
+     * @param clock to wait with.
+     */
+    public LocalTableMaster(final Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public Clock getClock() {
+        return clock;
+    }
 
     @Override
     public void register(Philosopher philosopher) {
-        philosopherList.add(philosopher);
+        synchronized (this) {
+            final MealCount mealCount = new MealCount(philosopher.getMealCount());
+            if (mealCounts.putIfAbsent(philosopher, mealCount) == null) {
+                add(mealCount, mealCount.get());
+                updateMaxMealCount();
+            }
+        }
         philosopher.addOnStandUpListener(this);
     }
 
     @Override
     public void unregister(Philosopher philosopher) {
-        philosopherList.remove(philosopher);
         philosopher.removeOnStandUpListener(this);
+        synchronized (this) {
+            final MealCount mealCount = mealCounts.remove(philosopher);
+            if (mealCount != null) {
+                remove(mealCount, mealCount.getAndSet(UNREGISTERED));
+                updateMaxMealCount();
+            }
+        }
     }
 
     @Override
     public boolean isAllowedToTakeSeat(Integer mealCount) {
-        return mealCount <= maxMealCount.get();
+        return mealCount <= maxMealCount;
+    }
+
+    @Override
+    public boolean awaitAllowedToTakeSeat(int mealCount, long timeout, TimeUnit unit) throws InterruptedException {
+        final CompletableFuture<Void> admission = getPendingAdmission(mealCount);
+        if (admission == null) {
+            return true;
+        }
+        try {
+            admission.get(timeout, unit);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public CompletionStage<Void> getAdmission(int mealCount) {
+        final CompletableFuture<Void> admission = getPendingAdmission(mealCount);
+        return admission != null ? admission : ADMITTED;
+    }
+
+    /**
+     * Get the admission a banned philosopher waits for.
+     *
+     * @param mealCount of the philosopher.
+     * @return the admission or <code>null</code> if the philosopher is allowed to take a seat.
+     */
+    private CompletableFuture<Void> getPendingAdmission(final int mealCount) {
+        if (isAllowedToTakeSeat(mealCount)) {
+            return null;
+        }
+        final CompletableFuture<Void> admission = admissions.computeIfAbsent(mealCount, key -> new CompletableFuture<>());
+        if (isAllowedToTakeSeat(mealCount)) {
+            // The minimum has risen while the admission was created -> nobody releases it anymore
+            admission.complete(null);
+            admissions.remove(mealCount, admission);
+            return null;
+        }
+        return admission;
+    }
+
+    @Override
+    public int getSeatPriority(Philosopher philosopher) {
+        // Lagging behind the others counts as much as being very hungry
+        final boolean lagging = philosopher.getMealCount() <= maxMealCount - MAX_DEVIATION;
+        return TableMaster.super.getSeatPriority(philosopher) + (lagging ? 1 : 0);
+    }
+
+    @Override
+    public void onSeatTaken(Philosopher philosopher, long waitTime) {
+        seatWaitStatistics.record(philosopher.isHungry(), waitTime);
+    }
+
+    /**
+     * Get how long the philosophers of this table waited for a seat.
+     *
+     * @return the statistics.
+     */
+    public SeatWaitStatistics getSeatWaitStatistics() {
+        return seatWaitStatistics;
     }
 
     @Override
     public void onStandUp(Philosopher philosopher) {
-        // Calculate the minimal amount of meals the philosophers from this table master have eaten.
-        maxMealCount.set(philosopherList.parallelStream()
-                .mapToInt(Philosopher::getMealCount)
-                .min()
-                .orElse(0) + MAX_DEVIATION);
+        final int mealCount = philosopher.getMealCount();
+        final MealCount lastMealCount = mealCounts.get(philosopher);
+        if (lastMealCount == null) {
+            return; // Not registered at this table master
+        }
+        final int last = lastMealCount.get();
+        if (last == mealCount || last == UNREGISTERED) {
+            return;
+        }
+
+        if (lastMealCount.outlier || mealCount < last || mealCount - lowestBucket >= HISTOGRAM_SIZE) {
+            // Leaves or enters the outliers -> rare, so take the lock
+            synchronized (this) {
+                if (lastMealCount.compareAndSet(last, mealCount)) {
+                    remove(lastMealCount, last);
+                    add(lastMealCount, mealCount);
+                    updateMaxMealCount();
+                }
+            }
+            return;
+        }
+        if (!lastMealCount.compareAndSet(last, mealCount)) {
+            return; // Unregistered in the meantime
+        }
+        // Count the new amount first, so the philosopher never disappears from the histogram
+        histogram.incrementAndGet(mealCount & (HISTOGRAM_SIZE - 1));
+        if (histogram.decrementAndGet(last & (HISTOGRAM_SIZE - 1)) == 0 && last == lowestBucket) {
+            // The lowest bucket is empty -> move up to the next philosopher
+            synchronized (this) {
+                updateMaxMealCount();
+            }
+        }
+    }
+
+    /**
+     * Count a philosopher in the histogram. The caller must hold the lock of the table master.
+     */
+    private void add(final MealCount philosopher, final int mealCount) {
+        if (advanceLowestBucket()) {
+            // Nobody can move within the empty ring -> start it at the new amount of meals
+            lowestBucket = mealCount;
+        }
+        philosopher.outlier = mealCount < lowestBucket || mealCount - lowestBucket >= HISTOGRAM_SIZE;
+        if (philosopher.outlier) {
+            outliers.merge(mealCount, 1, Integer::sum);
+        } else {
+            histogram.incrementAndGet(mealCount & (HISTOGRAM_SIZE - 1));
+        }
+    }
+
+    /**
+     * Remove a philosopher from the histogram. The caller must hold the lock of the table master.
+     */
+    private void remove(final MealCount philosopher, final int mealCount) {
+        if (philosopher.outlier) {
+            if (outliers.merge(mealCount, -1, Integer::sum) == 0) {
+                outliers.remove(mealCount);
+            }
+        } else {
+            histogram.decrementAndGet(mealCount & (HISTOGRAM_SIZE - 1));
+        }
+    }
+
+    /**
+     * Move the lowest bucket up to the next philosopher. The caller must hold the lock of the table master.
+     *
+     * @return <code>true</code> if there is no philosopher left in the ring.
+     */
+    private boolean advanceLowestBucket() {
+        int bucket = lowestBucket;
+        final int end = bucket + HISTOGRAM_SIZE;
+        while (bucket < end && histogram.get(bucket & (HISTOGRAM_SIZE - 1)) == 0) {
+            bucket++;
+        }
+        if (bucket == end) {
+            return true;
+        }
+        lowestBucket = bucket;
+        return false;
+    }
+
+    private void updateMaxMealCount() {
+        int minMealCount = advanceLowestBucket() ? Integer.MAX_VALUE : lowestBucket;
+        if (!outliers.isEmpty()) {
+            minMealCount = Math.min(minMealCount, outliers.firstKey());
+        }
+        final int mealCount = (minMealCount == Integer.MAX_VALUE ? 0 : minMealCount) + MAX_DEVIATION;
+        if (mealCount > maxMealCount) {
+            maxMealCount = mealCount;
+            releaseAdmissions(mealCount);
+        } else if (mealCount < maxMealCount) {
+            maxMealCount = mealCount;
+            // Admissions which were completed by a racing philosopher must not let anybody through anymore
+            admissions.tailMap(mealCount, false).values().removeIf(CompletableFuture::isDone);
+        }
+    }
+
+    /**
+     * Release all philosophers waiting for an amount of meals which is allowed now.
+     */
+    private void releaseAdmissions(final int allowedMealCount) {
+        final ConcurrentNavigableMap<Integer, CompletableFuture<Void>> allowed = admissions.headMap(allowedMealCount, true);
+        Map.Entry<Integer, CompletableFuture<Void>> entry;
+        while ((entry = allowed.pollFirstEntry()) != null) {
+            entry.getValue().complete(null);
+        }
+    }
+
+    /**
+     * The last known amount of meals of a philosopher. Changed by the philosopher when he stands up and by the table
+     * master when the philosopher is unregistered.
+     */
+    private static final class MealCount extends AtomicInteger {
+        private volatile boolean outlier; // Counted in the outliers instead of the ring
+
+        private MealCount(final int mealCount) {
+            super(mealCount);
+        }
     }
 }
@@ -5,13 +5,14 @@ import edu.hm.cs.vss.log.DummyLogger;
 import edu.hm.cs.vss.log.Logger;
 import edu.hm.cs.vss.remote.RemoteTable;
 import edu.hm.cs.vss.remote.RmiTable;
+import edu.hm.cs.vss.remote.TableTransport;
 
 import java.io.IOException;
 import java.rmi.RemoteException;
-import java.rmi.registry.LocateRegistry;
-import java.rmi.registry.Registry;
-import java.rmi.server.UnicastRemoteObject;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
@@ -24,26 +25,54 @@ public class LocalTablePool implements Table {
     private final List<Table> tables = Collections.synchronizedList(new LinkedList<>());
     private final List<Table> backedUpTables = Collections.synchronizedList(new LinkedList<>());
     private final List<Philosopher> localPhilosophers = Collections.synchronizedList(new ArrayList<>());
-    private final Table localTable;
+    private final LocalTable localTable;
     private final TableMaster tableMaster;
     private final BackupRestorer tableBrokeUpObserver;
     private final Logger logger;
+    private final TableTransport transport;
     private final AtomicBoolean backupLock = new AtomicBoolean();
+    private final WaitingCountPublisher waitingCountPublisher = new WaitingCountPublisher();
+    private volatile long waitingCountStaleness = -1; // The default of the remote tables
 
     public LocalTablePool() throws IOException {
         this(new DummyLogger());
     }
 
     public LocalTablePool(final Logger logger) throws IOException {
-        this.localTable = new LocalTable(logger);
+        this(logger, 1);
+    }
+
+    /**
+     * @param logger       to log with.
+     * @param segmentCount the amount of segments the chairs of the local table are split into.
+     */
+    public LocalTablePool(final Logger logger, final int segmentCount) throws IOException {
+        this(logger, segmentCount, TableTransport.rmi());
+    }
+
+    /**
+     * @param logger       to log with.
+     * @param segmentCount the amount of segments the chairs of the local table are split into.
+     * @param transport    to reach the other tables with.
+     */
+    public LocalTablePool(final Logger logger, final int segmentCount, final TableTransport transport) throws IOException {
+        this.localTable = new LocalTable(logger, segmentCount);
         this.tableMaster = new DistributedTableMaster();
         this.tableBrokeUpObserver = new BackupRestorer();
         this.logger = logger;
+        this.transport = transport;
+        this.localTable.setName(transport.getLocalAddress());
 
-        final Registry registry = LocateRegistry.createRegistry(NETWORK_PORT);
-        registry.rebind(Table.class.getSimpleName(), UnicastRemoteObject.exportObject(new DistributedTableRmi(), NETWORK_PORT));
+        transport.export(new DistributedTableRmi());
 
         tables.add(localTable);
+
+        waitingCountPublisher.start();
+    }
+
+    @Override
+    public String getName() {
+        return transport.getLocalAddress();
     }
 
     @Override
@@ -51,8 +80,11 @@ public class LocalTablePool implements Table {
         logger.log("Try to connect to remote table " + tableHost + "...");
         if (tables.parallelStream().noneMatch(table -> table.getName().equals(tableHost))) {
             try {
-                final RemoteTable table = new RemoteTable(tableHost, logger);
+                final RemoteTable table = new RemoteTable(tableHost, logger, transport);
                 table.addObserver(tableBrokeUpObserver); // Observe table for disconnection
+                if (waitingCountStaleness >= 0) {
+                    table.setMaxStaleness(waitingCountStaleness, TimeUnit.NANOSECONDS);
+                }
                 tables.add(table);
 
                 // Removes backed up table on reconnection
@@ -111,7 +143,8 @@ public class LocalTablePool implements Table {
     public void addPhilosopher(final Philosopher philosopher) {
         localPhilosophers.add(philosopher);
         philosopher.start();
-        philosopher.addOnStandUpListener(tmp -> getTables().parallel()
+        // Only queued for the other tables, the philosopher never waits for the network
+        philosopher.addOnStandUpListener(tmp -> getTables()
                 .skip(1)
                 .map(table -> (Philosopher.OnStandUpListener) table)
                 .forEach(listener -> listener.onStandUp(philosopher)));
@@ -163,6 +196,50 @@ public class LocalTablePool implements Table {
         return tables.stream().flatMap(Table::getChairs);
     }
 
+    @Override
+    public Optional<Chair> getLeastBusyChair() {
+        if (tables.size() == 1) {
+            return getLocalTable().getLeastBusyChair();
+        }
+        // Every table knows his least busy chair
+        return getTables()
+                .map(Table::getLeastBusyChair)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .min((chair1, chair2) -> Integer.compare(chair1.getWaitingPhilosopherCount(), chair2.getWaitingPhilosopherCount()));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Chair>> getLeastBusyChairAsync() {
+        if (tables.size() == 1) {
+            return getLocalTable().getLeastBusyChairAsync();
+        }
+        // Ask all tables at once and compare their least busy chairs afterwards
+        final List<CompletableFuture<Optional<Chair>>> candidates = getTables()
+                .map(Table::getLeastBusyChairAsync)
+                .collect(Collectors.toList());
+        return CompletableFuture.allOf(candidates.toArray(new CompletableFuture<?>[candidates.size()]))
+                .thenCompose(done -> Chair.leastBusyAsync(candidates.stream()
+                        .map(CompletableFuture::join)
+                        .filter(Optional::isPresent)
+                        .map(Optional::get)
+                        .collect(Collectors.toList())));
+    }
+
+    @Override
+    public Chair getNeighbourChair(Chair chair) {
+        // Only the first local chair has his neighbour on another table
+        if (tables.size() == 1 || localTable.hasLocalNeighbour(chair)) {
+            return localTable.getNeighbourChair(chair);
+        }
+        return Table.super.getNeighbourChair(chair);
+    }
+
+    @Override
+    public boolean tryAcquireForks(Chair chair, Chair neighbourChair, List<Fork> forks) {
+        return getLocalTable().tryAcquireForks(chair, neighbourChair, forks);
+    }
+
     @Override
     public TableMaster getTableMaster() {
         return tableMaster;
@@ -178,11 +255,42 @@ public class LocalTablePool implements Table {
         throw new UnsupportedOperationException();
     }
 
-    private Table getLocalTable() {
+    /**
+     * Set how old the waiting counts of the chairs on the other tables may be. Every table publishes the changes of his
+     * waiting counts, a chair on another table only asks his table if there was no publication for this long.
+     *
+     * @param staleness of the waiting counts. (<code>0</code> to always ask the other table)
+     * @param unit      of the time.
+     */
+    public void setWaitingCountStaleness(final long staleness, final TimeUnit unit) {
+        waitingCountStaleness = unit.toNanos(staleness);
+        getTables().skip(1)
+                .map(table -> (RemoteTable) table)
+                .forEach(table -> table.setMaxStaleness(staleness, unit));
+    }
+
+    /**
+     * Stop publishing the waiting counts, close the connections to the other tables and stop listening for them. The
+     * table can't be used anymore afterwards.
+     */
+    public void destroy() {
+        waitingCountPublisher.interrupt();
+        getTables().skip(1)
+                .map(table -> (RemoteTable) table)
+                .forEach(table -> {
+                    table.deleteObserver(tableBrokeUpObserver); // Leaving is no reason to restore a backup
+                    table.destroy();
+                });
+        transport.close();
+    }
+
+    private LocalTable getLocalTable() {
         return localTable;
     }
 
     private final class DistributedTableRmi implements RmiTable {
+        private final Map<String, Fork> neighbourForks = new ConcurrentHashMap<>(); // Blocked together with the seat
+
         public void addTable(final String host) throws RemoteException {
             connectToTable(host);
         }
@@ -208,12 +316,25 @@ public class LocalTablePool implements Table {
         }
 
         @Override
-        public void onStandUp(String host, String philosopherName) throws RemoteException {
+        public void onStandUp(String host, String philosopherName, int mealCount) throws RemoteException {
             getTables().parallel()
                     .skip(1)
                     .filter(table -> table.getName().equals(host))
                     .findAny()
-                    .ifPresent(table -> table.getBackupService().onPhilosopherStandUp(philosopherName));
+                    .ifPresent(table -> table.getBackupService().onPhilosopherStandUp(philosopherName, mealCount));
+        }
+
+        @Override
+        public void onStandUps(String host, List<String> philosopherNames, List<Integer> mealCounts) throws RemoteException {
+            getTables().skip(1)
+                    .filter(table -> table.getName().equals(host))
+                    .findAny()
+                    .map(Table::getBackupService)
+                    .ifPresent(backupService -> {
+                        for (int index = 0; index < philosopherNames.size(); index++) {
+                            backupService.onPhilosopherStandUp(philosopherNames.get(index), mealCounts.get(index));
+                        }
+                    });
         }
 
         public void addChair(final String host, final String name) throws RemoteException {
@@ -234,59 +355,184 @@ public class LocalTablePool implements Table {
 
         @Override
         public boolean blockChairIfAvailable(String name) throws RemoteException {
-            return getLocalTable().getChairs().parallel()
-                    .filter(chair -> chair.toString().equals(name))
-                    .findAny()
-                    .flatMap(chair -> {
+            return getLocalTable().getChair(name)
+                    .map(chair -> {
                         try {
-                            return chair.blockIfAvailable();
+                            return chair.tryAcquire();
                         } catch (InterruptedException e) {
-                            return Optional.empty();
+                            return false;
                         }
                     })
-                    .isPresent();
+                    .orElse(false);
         }
 
         @Override
         public void unblockChair(String name) throws RemoteException {
-            getLocalTable().getChairs().parallel()
-                    .filter(chair -> chair.toString().equals(name))
-                    .findAny()
-                    .ifPresent(Chair::unblock);
+            getLocalTable().getChair(name).ifPresent(Chair::release);
         }
 
         @Override
         public boolean blockForkIfAvailable(String name) throws RemoteException {
-            return getLocalTable().getChairs().parallel()
-                    .map(Chair::getFork)
-                    .filter(fork -> fork.toString().equals(name))
-                    .findAny()
-                    .flatMap(Fork::blockIfAvailable)
-                    .isPresent();
+            return getLocalTable().getFork(name)
+                    .map(Fork::tryAcquire)
+                    .orElse(false);
         }
 
         @Override
         public void unblockFork(String name) throws RemoteException {
-            getLocalTable().getChairs().parallel()
-                    .map(Chair::getFork)
-                    .filter(fork -> fork.toString().equals(name))
-                    .findAny()
-                    .ifPresent(Fork::unblock);
+            getLocalTable().getFork(name).ifPresent(Fork::release);
         }
 
         @Override
         public int getChairWaitingPhilosophers(String name) throws RemoteException {
-            return getLocalTable().getChairs().parallel()
-                    .filter(chair -> chair.toString().equals(name))
-                    .findAny()
+            return getLocalTable().getChair(name)
                     .map(Chair::getWaitingPhilosopherCount)
                     .orElse(0);
         }
 
+        @Override
+        public boolean blockChairWithForksIfAvailable(String name, String neighbourName) throws RemoteException {
+            final Optional<Chair> chair = getLocalTable().getChair(name);
+            if (!chair.isPresent()) {
+                return false;
+            }
+            // This table knows the neighbour best -> refuse a caller who has an outdated idea of him
+            final Chair neighbourChair = getLocalTable().getNeighbourChair(chair.get());
+            if (!neighbourChair.toString().equals(neighbourName)) {
+                return false;
+            }
+            try {
+                if (!chair.get().tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                    return false;
+                }
+            } catch (InterruptedException e) {
+                return false;
+            }
+            if (getLocalTable().tryAcquireForks(chair.get(), neighbourChair, new ArrayList<>(2))) {
+                neighbourForks.put(name, neighbourChair.getFork());
+                return true;
+            }
+            chair.get().release();
+            return false;
+        }
+
+        @Override
+        public void unblockChairWithForks(String name, String neighbourName) throws RemoteException {
+            // Release the fork which was blocked with the seat, even if the neighbour changed in the meantime
+            final Fork neighbourFork = neighbourForks.remove(name);
+            if (neighbourFork == null) {
+                return; // Nothing was blocked at once
+            }
+            final Optional<Chair> chair = getLocalTable().getChair(name);
+            chair.map(Chair::getFork)
+                    .filter(fork -> !fork.equals(neighbourFork))
+                    .ifPresent(Fork::release);
+            neighbourFork.release();
+            chair.ifPresent(Chair::release);
+        }
+
         @Override
         public boolean backupFinished() throws RemoteException {
             return !backupLock.get();
         }
+
+        @Override
+        public void onWaitingCounts(String host, long version, List<String> names, List<Integer> counts) throws RemoteException {
+            getTables().skip(1)
+                    .filter(table -> table.getName().equals(host))
+                    .findAny()
+                    .ifPresent(table -> ((RemoteTable) table).onWaitingCounts(version, names, counts));
+        }
+    }
+
+    /**
+     * Publishes the waiting counts of the local chairs to the other tables. Usually only the chairs which were acquired
+     * or released since the last publication are looked at and only their changed waiting counts are sent. A new table
+     * and every table after the snapshot interval get all waiting counts. So a remote table hears from this table at
+     * least once per snapshot interval and none of his cached waiting counts is wrong for longer than that.
+     */
+    private final class WaitingCountPublisher extends Thread {
+        private static final long PUBLISH_INTERVAL = 5; // ms
+        private static final long SNAPSHOT_INTERVAL = 50; // ms
+
+        private final Map<String, Integer> published = new HashMap<>();
+        private List<Table> peers = Collections.emptyList();
+        private long version;
+        private long lastSnapshot;
+        private List<String> names; // Of the next publication, created as soon as something changed
+        private List<Integer> counts;
+
+        private WaitingCountPublisher() {
+            super("WaitingCountPublisher");
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (!isInterrupted()) {
+                try {
+                    Thread.sleep(PUBLISH_INTERVAL);
+                } catch (InterruptedException e) {
+                    return; // The table is destroyed
+                }
+                if (tables.size() > 1) {
+                    publish();
+                }
+            }
+        }
+
+        private void publish() {
+            final List<Table> currentPeers = getTables().skip(1).collect(Collectors.toList());
+            final long now = System.currentTimeMillis();
+            final boolean snapshot = !currentPeers.equals(peers) || now - lastSnapshot >= SNAPSHOT_INTERVAL;
+            peers = currentPeers;
+            if (snapshot) {
+                lastSnapshot = now;
+                while (getLocalTable().pollChangedChair() != null) {
+                    // All chairs are sent anyway
+                }
+                published.clear();
+                getLocalTable().getChairs().forEach(chair -> {
+                    final int count = chair.getWaitingPhilosopherCount();
+                    published.put(chair.toString(), count);
+                    add(chair.toString(), count);
+                });
+            } else {
+                for (Chair chair = getLocalTable().pollChangedChair(); chair != null; chair = getLocalTable().pollChangedChair()) {
+                    final String name = chair.toString();
+                    if (getLocalTable().getChair(name).orElse(null) != chair) {
+                        published.remove(name); // Removed in the meantime
+                        continue;
+                    }
+                    final int count = chair.getWaitingPhilosopherCount();
+                    final Integer last = published.put(name, count);
+                    if (last == null || last != count) {
+                        add(name, count);
+                    }
+                }
+            }
+
+            if (names == null) {
+                return;
+            }
+            version++;
+            final List<String> names = this.names;
+            final List<Integer> counts = this.counts;
+            this.names = null;
+            this.counts = null;
+            peers.stream()
+                    .map(table -> (RemoteTable) table)
+                    .forEach(table -> table.publishWaitingCounts(version, names, counts));
+        }
+
+        private void add(final String name, final int count) {
+            if (names == null) {
+                names = new ArrayList<>();
+                counts = new ArrayList<>();
+            }
+            names.add(name);
+            counts.add(count);
+        }
     }
 
     private final class DistributedTableMaster extends LocalTableMaster {
@@ -301,12 +547,21 @@ public class LocalTablePool implements Table {
         }
 
         @Override
-        public void onStandUp(Philosopher philosopher) {
-            super.onStandUp(philosopher);
-            // Inform all other tables that this philosopher stands up
-            getTables().skip(1)
-                    .map(table -> (Philosopher.OnStandUpListener) table)
-                    .forEach(listener -> listener.onStandUp(philosopher));
+        public int getSeatPriority(Philosopher philosopher) {
+            return getLocalTable().getTableMaster().getSeatPriority(philosopher);
+        }
+
+        @Override
+        public void onSeatTaken(Philosopher philosopher, long waitTime) {
+            getLocalTable().getTableMaster().onSeatTaken(philosopher, waitTime);
+        }
+
+        @Override
+        public SeatWaitStatistics getSeatWaitStatistics() {
+            final TableMaster master = getLocalTable().getTableMaster();
+            return master instanceof LocalTableMaster
+                    ? ((LocalTableMaster) master).getSeatWaitStatistics()
+                    : super.getSeatWaitStatistics();
         }
 
         @Override
@@ -315,6 +570,31 @@ public class LocalTablePool implements Table {
                     .map(Table::getTableMaster)
                     .allMatch(master -> master.isAllowedToTakeSeat(mealCount));
         }
+
+        @Override
+        public CompletionStage<Void> getAdmission(int mealCount) {
+            // Only the local table master notifies, the remote ones are polled
+            return getLocalTable().getTableMaster().getAdmission(mealCount)
+                    .thenCompose(ignored -> TableMaster.pollAdmission(this, mealCount));
+        }
+
+        @Override
+        public boolean awaitAllowedToTakeSeat(int mealCount, long timeout, TimeUnit unit) throws InterruptedException {
+            // Only the local table master notifies, the remote ones are polled
+            final Clock clock = getClock();
+            final long deadline = clock.nanoTime() + unit.toNanos(timeout);
+            if (!getLocalTable().getTableMaster().awaitAllowedToTakeSeat(mealCount, timeout, unit)) {
+                return false;
+            }
+            while (!isAllowedToTakeSeat(mealCount)) {
+                final long remaining = deadline - clock.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                clock.sleep(Math.min(remaining, ADMISSION_POLL_INTERVAL), TimeUnit.NANOSECONDS);
+            }
+            return true;
+        }
     }
 
     private final class BackupRestorer extends Thread implements Observer {
@@ -344,7 +624,7 @@ public class LocalTablePool implements Table {
 
                 logger.log("suspending all local philosophers");
                 final List<Philosopher> philosophers = getPhilosophers().collect(Collectors.toList());
-                getPhilosophers().forEach(Thread::interrupt);
+                getPhilosophers().forEach(Philosopher::interrupt);
                 localPhilosophers.clear();
                 philosophers.forEach(p -> {
                     try {
@@ -386,6 +666,11 @@ public class LocalTablePool implements Table {
                                     .setHungry(philosopher.isHungry())
                                     .setTakenMeals(philosopher.getMealCount())
                                     .setLogger(philosopher.getLogger())
+                                    .setRuntime(philosopher.getRuntime())
+                                    .setClock(philosopher.getClock())
+                                    .setForkWaitStrategy(philosopher.getForkWaitStrategy())
+                                    .setForkAcquisitionStrategy(philosopher.getForkAcquisitionStrategy())
+                                    .setMultiMealSessions(philosopher.isMultiMealSessions())
                                     .create()).forEach(LocalTablePool.this::addPhilosopher);
 
                             getTables().skip(1).map(remoteTable -> (RemoteTable) remoteTable).forEach(RemoteTable::disableBackupLock);
@@ -417,6 +702,11 @@ public class LocalTablePool implements Table {
                         .setHungry(philosopher.isHungry())
                         .setTakenMeals(philosopher.getMealCount())
                         .setLogger(philosopher.getLogger())
+                        .setRuntime(philosopher.getRuntime())
+                        .setClock(philosopher.getClock())
+                        .setForkWaitStrategy(philosopher.getForkWaitStrategy())
+                        .setForkAcquisitionStrategy(philosopher.getForkAcquisitionStrategy())
+                        .setMultiMealSessions(philosopher.isMultiMealSessions())
                         .create()).forEach(LocalTablePool.this::addPhilosopher);
 
                 getTables().skip(1).map(remoteTable -> (RemoteTable) remoteTable).forEach(RemoteTable::disableBackupLock);
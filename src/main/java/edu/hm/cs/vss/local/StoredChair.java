@@ -0,0 +1,113 @@
+package edu.hm.cs.vss.local;
+
+import edu.hm.cs.vss.Chair;
+import edu.hm.cs.vss.Fork;
+
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A chair of a local table. The seat itself is the added chair, the fork is replaced by a view on the fork store of
+ * the table.
+ * <p>
+ * Every acquisition and release marks the chair as changed, so the waiting count is only published again for the
+ * chairs which were used in the meantime.
+ */
+class StoredChair implements Chair {
+    private final Chair chair;
+    private final StoredFork fork;
+    private final AtomicBoolean changed = new AtomicBoolean();
+    private final Queue<StoredChair> changedChairs;
+
+    StoredChair(final Chair chair, final ForkStore store, final Queue<StoredChair> changedChairs) {
+        this.chair = chair;
+        this.fork = new StoredFork(store, chair);
+        this.changedChairs = changedChairs;
+    }
+
+    /**
+     * Get the chair which was added to the table.
+     *
+     * @return the chair.
+     */
+    Chair getChair() {
+        return chair;
+    }
+
+    @Override
+    public StoredFork getFork() {
+        return fork;
+    }
+
+    @Override
+    public boolean tryAcquire() throws InterruptedException {
+        onChange(); // The philosopher starts to wait
+        try {
+            return chair.tryAcquire();
+        } finally {
+            onChange();
+        }
+    }
+
+    @Override
+    public boolean tryAcquire(final long timeout, final TimeUnit unit) throws InterruptedException {
+        onChange();
+        try {
+            return chair.tryAcquire(timeout, unit);
+        } finally {
+            onChange();
+        }
+    }
+
+    @Override
+    public boolean tryAcquire(final int priority) throws InterruptedException {
+        onChange();
+        try {
+            return chair.tryAcquire(priority);
+        } finally {
+            onChange();
+        }
+    }
+
+    @Override
+    public void release() {
+        chair.release();
+        onChange();
+    }
+
+    /**
+     * Forget that the chair was changed. The caller reads the waiting count afterwards, so a change which happens
+     * in the meantime marks the chair again.
+     */
+    void clearChanged() {
+        changed.set(false);
+    }
+
+    private void onChange() {
+        // Queue the chair only once until the change is picked up
+        if (!changed.get() && changed.compareAndSet(false, true)) {
+            changedChairs.add(this);
+        }
+    }
+
+    @Override
+    public int getWaitingPhilosopherCount() {
+        return chair.getWaitingPhilosopherCount();
+    }
+
+    @Override
+    public void addOnAvailableListener(final OnAvailableListener listener) {
+        chair.addOnAvailableListener(listener);
+    }
+
+    @Override
+    public void removeOnAvailableListener(final OnAvailableListener listener) {
+        chair.removeOnAvailableListener(listener);
+    }
+
+    @Override
+    public String toString() {
+        return chair.toString();
+    }
+}
@@ -0,0 +1,86 @@
+package edu.hm.cs.vss.local;
+
+import edu.hm.cs.vss.AbstractFork;
+import edu.hm.cs.vss.Chair;
+
+/**
+ * A fork whose blocked state lives in the fork store of his table. A removed fork can't be blocked anymore and
+ * gives his id back to the store as soon as nobody holds him.
+ */
+class StoredFork extends AbstractFork {
+    private final transient ForkStore store;
+    private final int id;
+    private final Chair chair;
+    private volatile boolean removed;
+    private boolean recycled; // Guarded by this
+
+    StoredFork(final ForkStore store, final Chair chair) {
+        this.store = store;
+        this.id = store.allocate();
+        this.chair = chair;
+    }
+
+    ForkStore getStore() {
+        return store;
+    }
+
+    int getId() {
+        return id;
+    }
+
+    @Override
+    public boolean tryAcquire() {
+        return !removed && store.tryAcquire(id) && isStillStored();
+    }
+
+    @Override
+    protected void free() {
+        store.release(id);
+        if (removed) {
+            recycle();
+        }
+    }
+
+    /**
+     * Check whether the fork is still part of his table after his id was blocked. A removed fork gives the blocked id
+     * back instead.
+     *
+     * @return <code>true</code> if the fork may be kept.
+     */
+    boolean isStillStored() {
+        if (!removed) {
+            return true;
+        }
+        synchronized (this) {
+            if (recycled) {
+                // The id already belongs to a new fork -> give back what was blocked by mistake
+                store.release(id);
+            } else {
+                recycled = true;
+                store.recycle(id);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Take the fork from his table. His id is recycled at once if nobody holds him or else on his release.
+     */
+    void remove() {
+        removed = true;
+        recycle();
+    }
+
+    private synchronized void recycle() {
+        // Nobody can block the id of a removed fork which isn't recycled yet except the store
+        if (!recycled && store.tryAcquire(id)) {
+            recycled = true;
+            store.recycle(id);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "fork from " + chair.toString();
+    }
+}
@@ -1,13 +1,28 @@
 package edu.hm.cs.vss.log;
 
+import edu.hm.cs.vss.Clock;
+
 import java.util.Date;
 
 /**
  * Created by Fabio on 22.03.2016.
  */
 public class ConsoleLogger implements Logger {
+    private final Clock clock;
+
+    public ConsoleLogger() {
+        this(Clock.system());
+    }
+
+    /**
+     * @param clock to take the timestamps from.
+     */
+    public ConsoleLogger(final Clock clock) {
+        this.clock = clock;
+    }
+
     @Override
     public void log(String text) {
-        System.out.println(String.format(TIMESTAMP_FORMAT, new Date()) + text);
+        System.out.println(String.format(TIMESTAMP_FORMAT, new Date(clock.currentTimeMillis())) + text);
     }
 }
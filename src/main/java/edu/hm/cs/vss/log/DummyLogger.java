@@ -8,4 +8,9 @@ public class DummyLogger implements Logger {
     public void log(String text) {
         // do nothing
     }
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
 }
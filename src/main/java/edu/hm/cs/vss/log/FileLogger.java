@@ -1,5 +1,7 @@
 package edu.hm.cs.vss.log;
 
+import edu.hm.cs.vss.Clock;
+
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
@@ -10,9 +12,19 @@ import java.util.Date;
  */
 public class FileLogger implements Logger {
     private final String fileName;
+    private final Clock clock;
 
     public FileLogger(final String name) {
+        this(name, Clock.system());
+    }
+
+    /**
+     * @param name  of the log file.
+     * @param clock to take the timestamps from.
+     */
+    public FileLogger(final String name, final Clock clock) {
         this.fileName = "log-" + name + ".txt";
+        this.clock = clock;
     }
 
     @Override
@@ -20,7 +32,7 @@ public class FileLogger implements Logger {
         PrintWriter writer = null;
         try {
             writer = new PrintWriter(new FileWriter(fileName, true), true);
-            writer.write(String.format(TIMESTAMP_FORMAT, new Date()) + text);
+            writer.write(String.format(TIMESTAMP_FORMAT, new Date(clock.currentTimeMillis())) + text);
             writer.write("\n");
             writer.flush();
         } catch (IOException e) {
@@ -1,5 +1,7 @@
 package edu.hm.cs.vss.log;
 
+import java.util.function.Supplier;
+
 /**
  * Created by Fabio on 22.03.2016.
  */
@@ -12,4 +14,37 @@ public interface Logger {
      * @param text to log.
      */
     void log(final String text);
+
+    /**
+     * Check whether the logger writes log messages at all. Expensive log messages should only be built if the logger
+     * is enabled.
+     *
+     * @return <code>true</code> if log messages are written.
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Write a log message which is only built if the logger is enabled.
+     *
+     * @param text to log.
+     */
+    default void log(final Supplier<String> text) {
+        if (isEnabled()) {
+            log(text.get());
+        }
+    }
+
+    /**
+     * Write a log message which is only formatted if the logger is enabled.
+     *
+     * @param format of the message. (See {@link String#format(String, Object...)})
+     * @param args   of the message.
+     */
+    default void log(final String format, final Object... args) {
+        if (isEnabled()) {
+            log(String.format(format, args));
+        }
+    }
 }
@@ -0,0 +1,21 @@
+package edu.hm.cs.vss.remote;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A remote table which answers the calls of a philosopher without occupying a thread until the response arrives. The
+ * futures complete exceptionally with a {@link java.rmi.RemoteException} if the remote table is not reachable.
+ * <p>
+ * The futures are completed by the thread of the transport, so actions which depend on them must never block.
+ */
+interface AsyncRmiTable {
+    CompletableFuture<Boolean> blockChairIfAvailableAsync(final String name);
+
+    CompletableFuture<Void> unblockChairAsync(final String name);
+
+    CompletableFuture<Boolean> blockForkIfAvailableAsync(final String name);
+
+    CompletableFuture<Void> unblockForkAsync(final String name);
+
+    CompletableFuture<Integer> getChairWaitingPhilosophersAsync(final String name);
+}
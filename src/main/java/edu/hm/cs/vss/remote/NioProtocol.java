@@ -0,0 +1,239 @@
+package edu.hm.cs.vss.remote;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The binary protocol of the {@link NioTransport}. Every frame starts with his length (4 bytes) followed by the id of
+ * the request (4 bytes). A request continues with the operation (1 byte) and the arguments, a response with the status
+ * (1 byte) and the result. Strings are written as modified UTF-8 with a 2 byte length.
+ */
+final class NioProtocol {
+    static final int LENGTH_SIZE = 4;
+    static final int MAX_FRAME_LENGTH = 1 << 20;
+    static final int HEADER_LENGTH = 5; // The id and the type
+
+    static final byte OK = 0;
+    static final byte ERROR = 1;
+
+    static final byte ADD_TABLE = 1;
+    static final byte REMOVE_TABLE = 2;
+    static final byte ADD_PHILOSOPHER = 3;
+    static final byte REMOVE_PHILOSOPHER = 4;
+    static final byte ON_STAND_UP = 5;
+    static final byte ADD_CHAIR = 6;
+    static final byte REMOVE_CHAIR = 7;
+    static final byte BLOCK_CHAIR = 8;
+    static final byte UNBLOCK_CHAIR = 9;
+    static final byte BLOCK_FORK = 10;
+    static final byte UNBLOCK_FORK = 11;
+    static final byte CHAIR_WAITING_PHILOSOPHERS = 12;
+    static final byte BACKUP_FINISHED = 13;
+    static final byte BLOCK_CHAIR_WITH_FORKS = 14;
+    static final byte UNBLOCK_CHAIR_WITH_FORKS = 15;
+    static final byte ON_WAITING_COUNTS = 16;
+    static final byte ON_STAND_UPS = 17;
+
+    private NioProtocol() {
+    }
+
+    /**
+     * Check whether an operation never blocks, so it can be executed directly on the selector thread.
+     *
+     * @param operation to check.
+     * @return <code>true</code> if the operation never blocks.
+     */
+    static boolean isNonBlocking(final byte operation) {
+        switch (operation) {
+            case UNBLOCK_CHAIR:
+            case BLOCK_FORK:
+            case UNBLOCK_FORK:
+            case CHAIR_WAITING_PHILOSOPHERS:
+            case BACKUP_FINISHED:
+            case BLOCK_CHAIR_WITH_FORKS:
+            case UNBLOCK_CHAIR_WITH_FORKS:
+            case ON_WAITING_COUNTS:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Create a frame which is ready to be sent.
+     *
+     * @param id      of the request.
+     * @param type    the operation of a request or the status of a response.
+     * @param payload writes the arguments or the result.
+     * @return the frame including his length.
+     * @throws IOException if the payload could not be written or the frame is longer than {@link #MAX_FRAME_LENGTH}.
+     */
+    static ByteBuffer frame(final int id, final byte type, final Payload payload) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0); // The length is known at the end
+        out.writeInt(id);
+        out.writeByte(type);
+        payload.write(out);
+        final int length = bytes.size() - LENGTH_SIZE;
+        if (length > MAX_FRAME_LENGTH) {
+            // The receiver would close the connection
+            throw new IOException("Frame length " + length + " exceeds " + MAX_FRAME_LENGTH);
+        }
+        final ByteBuffer frame = ByteBuffer.wrap(bytes.toByteArray());
+        frame.putInt(0, length);
+        return frame;
+    }
+
+    /**
+     * @param value to write.
+     * @return the amount of bytes the value needs as modified UTF-8 including his 2 byte length.
+     */
+    static int getUtfLength(final String value) {
+        int length = 2;
+        for (int index = 0; index < value.length(); index++) {
+            final char c = value.charAt(index);
+            if (c >= 0x0001 && c <= 0x007F) {
+                length += 1;
+            } else if (c <= 0x07FF) {
+                length += 2;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * @param frame without his length.
+     * @return the id of the request.
+     */
+    static int getId(final byte[] frame) {
+        return ByteBuffer.wrap(frame).getInt(0);
+    }
+
+    /**
+     * @param frame without his length.
+     * @return the operation of a request or the status of a response.
+     */
+    static byte getType(final byte[] frame) {
+        return frame[4];
+    }
+
+    /**
+     * @param frame without his length.
+     * @return the arguments of a request or the result of a response.
+     */
+    static DataInputStream getPayload(final byte[] frame) {
+        return new DataInputStream(new ByteArrayInputStream(frame, 5, frame.length - 5));
+    }
+
+    /**
+     * Execute a request on a table and create the response. Failures of the table are sent back as an error.
+     *
+     * @param table   to execute the request on.
+     * @param request frame without his length.
+     * @return the response frame.
+     * @throws IOException if the response could not be written.
+     */
+    static ByteBuffer execute(final RmiTable table, final byte[] request) throws IOException {
+        final int id = getId(request);
+        final ByteArrayOutputStream result = new ByteArrayOutputStream(16);
+        try {
+            execute(table, getType(request), getPayload(request), new DataOutputStream(result));
+        } catch (Exception e) {
+            return frame(id, ERROR, out -> out.writeUTF(String.valueOf(e.getMessage())));
+        }
+        return frame(id, OK, out -> out.write(result.toByteArray()));
+    }
+
+    private static void execute(final RmiTable table, final byte operation, final DataInput in, final DataOutput out) throws IOException {
+        switch (operation) {
+            case ADD_TABLE:
+                table.addTable(in.readUTF());
+                break;
+            case REMOVE_TABLE:
+                table.removeTable(in.readUTF());
+                break;
+            case ADD_PHILOSOPHER:
+                table.addPhilosopher(in.readUTF(), in.readUTF(), in.readBoolean(), in.readInt());
+                break;
+            case REMOVE_PHILOSOPHER:
+                table.removePhilosopher(in.readUTF(), in.readUTF());
+                break;
+            case ON_STAND_UP:
+                table.onStandUp(in.readUTF(), in.readUTF(), in.readInt());
+                break;
+            case ADD_CHAIR:
+                table.addChair(in.readUTF(), in.readUTF());
+                break;
+            case REMOVE_CHAIR:
+                table.removeChair(in.readUTF(), in.readUTF());
+                break;
+            case BLOCK_CHAIR:
+                out.writeBoolean(table.blockChairIfAvailable(in.readUTF()));
+                break;
+            case UNBLOCK_CHAIR:
+                table.unblockChair(in.readUTF());
+                break;
+            case BLOCK_FORK:
+                out.writeBoolean(table.blockForkIfAvailable(in.readUTF()));
+                break;
+            case UNBLOCK_FORK:
+                table.unblockFork(in.readUTF());
+                break;
+            case CHAIR_WAITING_PHILOSOPHERS:
+                out.writeInt(table.getChairWaitingPhilosophers(in.readUTF()));
+                break;
+            case BACKUP_FINISHED:
+                out.writeBoolean(table.backupFinished());
+                break;
+            case BLOCK_CHAIR_WITH_FORKS:
+                out.writeBoolean(table.blockChairWithForksIfAvailable(in.readUTF(), in.readUTF()));
+                break;
+            case UNBLOCK_CHAIR_WITH_FORKS:
+                table.unblockChairWithForks(in.readUTF(), in.readUTF());
+                break;
+            case ON_STAND_UPS: {
+                final String host = in.readUTF();
+                final int size = in.readInt();
+                final List<String> names = new ArrayList<>(size);
+                final List<Integer> mealCounts = new ArrayList<>(size);
+                for (int index = 0; index < size; index++) {
+                    names.add(in.readUTF());
+                    mealCounts.add(in.readInt());
+                }
+                table.onStandUps(host, names, mealCounts);
+                break;
+            }
+            case ON_WAITING_COUNTS: {
+                final String host = in.readUTF();
+                final long version = in.readLong();
+                final int size = in.readInt();
+                final List<String> names = new ArrayList<>(size);
+                final List<Integer> counts = new ArrayList<>(size);
+                for (int index = 0; index < size; index++) {
+                    names.add(in.readUTF());
+                    counts.add(in.readInt());
+                }
+                table.onWaitingCounts(host, version, names, counts);
+                break;
+            }
+            default:
+                throw new IOException("Unknown operation " + operation);
+        }
+    }
+
+    @FunctionalInterface
+    interface Payload {
+        void write(final DataOutput out) throws IOException;
+    }
+}
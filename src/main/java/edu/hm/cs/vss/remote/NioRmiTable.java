@@ -0,0 +1,376 @@
+package edu.hm.cs.vss.remote;
+
+import edu.hm.cs.vss.TimerService;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.channels.SocketChannel;
+import java.rmi.RemoteException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A remote table behind a single connection of the {@link NioTransport}. Any amount of threads can call the remote
+ * table at once, their requests share the connection and every caller waits only for his own response. Asynchronous
+ * calls don't wait at all, their futures are completed right from the response frames.
+ */
+final class NioRmiTable implements RmiTable, AsyncRmiTable, Closeable {
+    private static final long REQUEST_TIMEOUT = TimeUnit.NANOSECONDS.convert(5, TimeUnit.SECONDS);
+
+    private final String address;
+    private final NioTransport.Connection connection;
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final Map<Integer, CompletableFuture<byte[]>> pending = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    NioRmiTable(final String address, final NioTransport transport, final SocketChannel channel) throws IOException {
+        this.address = address;
+        this.connection = transport.register(channel, (from, response) -> onResponse(response), this::onClosed);
+    }
+
+    @Override
+    public void addTable(final String host) throws RemoteException {
+        call(NioProtocol.ADD_TABLE, out -> out.writeUTF(host));
+    }
+
+    @Override
+    public void removeTable(final String host) throws RemoteException {
+        call(NioProtocol.REMOVE_TABLE, out -> out.writeUTF(host));
+    }
+
+    @Override
+    public void addPhilosopher(final String host, final String name, final boolean hungry, final int takenMeals) throws RemoteException {
+        call(NioProtocol.ADD_PHILOSOPHER, out -> {
+            out.writeUTF(host);
+            out.writeUTF(name);
+            out.writeBoolean(hungry);
+            out.writeInt(takenMeals);
+        });
+    }
+
+    @Override
+    public void removePhilosopher(final String host, final String name) throws RemoteException {
+        call(NioProtocol.REMOVE_PHILOSOPHER, out -> {
+            out.writeUTF(host);
+            out.writeUTF(name);
+        });
+    }
+
+    @Override
+    public void onStandUp(final String host, final String philosopherName, final int mealCount) throws RemoteException {
+        call(NioProtocol.ON_STAND_UP, out -> {
+            out.writeUTF(host);
+            out.writeUTF(philosopherName);
+            out.writeInt(mealCount);
+        });
+    }
+
+    @Override
+    public void onStandUps(final String host, final List<String> philosopherNames, final List<Integer> mealCounts) throws RemoteException {
+        final int headerLength = NioProtocol.getUtfLength(host) + 4;
+        int from = 0;
+        do {
+            final int start = from;
+            final int end = getBatchEnd(headerLength, philosopherNames, start);
+            call(NioProtocol.ON_STAND_UPS, out -> {
+                out.writeUTF(host);
+                out.writeInt(end - start);
+                for (int index = start; index < end; index++) {
+                    out.writeUTF(philosopherNames.get(index));
+                    out.writeInt(mealCounts.get(index));
+                }
+            });
+            from = end;
+        } while (from < philosopherNames.size());
+    }
+
+    @Override
+    public void addChair(final String host, final String name) throws RemoteException {
+        call(NioProtocol.ADD_CHAIR, out -> {
+            out.writeUTF(host);
+            out.writeUTF(name);
+        });
+    }
+
+    @Override
+    public void removeChair(final String host, final String name) throws RemoteException {
+        call(NioProtocol.REMOVE_CHAIR, out -> {
+            out.writeUTF(host);
+            out.writeUTF(name);
+        });
+    }
+
+    @Override
+    public boolean blockChairIfAvailable(final String name) throws RemoteException {
+        return readBoolean(call(NioProtocol.BLOCK_CHAIR, out -> out.writeUTF(name)));
+    }
+
+    @Override
+    public void unblockChair(final String name) throws RemoteException {
+        call(NioProtocol.UNBLOCK_CHAIR, out -> out.writeUTF(name));
+    }
+
+    @Override
+    public boolean blockForkIfAvailable(final String name) throws RemoteException {
+        return readBoolean(call(NioProtocol.BLOCK_FORK, out -> out.writeUTF(name)));
+    }
+
+    @Override
+    public void unblockFork(final String name) throws RemoteException {
+        call(NioProtocol.UNBLOCK_FORK, out -> out.writeUTF(name));
+    }
+
+    @Override
+    public int getChairWaitingPhilosophers(final String name) throws RemoteException {
+        final DataInputStream in = call(NioProtocol.CHAIR_WAITING_PHILOSOPHERS, out -> out.writeUTF(name));
+        try {
+            return in.readInt();
+        } catch (IOException e) {
+            throw new RemoteException("Malformed response from " + address, e);
+        }
+    }
+
+    @Override
+    public boolean blockChairWithForksIfAvailable(final String name, final String neighbourName) throws RemoteException {
+        return readBoolean(call(NioProtocol.BLOCK_CHAIR_WITH_FORKS, out -> {
+            out.writeUTF(name);
+            out.writeUTF(neighbourName);
+        }));
+    }
+
+    @Override
+    public void unblockChairWithForks(final String name, final String neighbourName) throws RemoteException {
+        call(NioProtocol.UNBLOCK_CHAIR_WITH_FORKS, out -> {
+            out.writeUTF(name);
+            out.writeUTF(neighbourName);
+        });
+    }
+
+    @Override
+    public boolean backupFinished() throws RemoteException {
+        return readBoolean(call(NioProtocol.BACKUP_FINISHED, out -> {
+        }));
+    }
+
+    @Override
+    public void onWaitingCounts(final String host, final long version, final List<String> names, final List<Integer> counts) throws RemoteException {
+        // Every part has the same version, the remote table merges them into a single publication
+        final int headerLength = NioProtocol.getUtfLength(host) + 8 + 4;
+        int from = 0;
+        do {
+            final int start = from;
+            final int end = getBatchEnd(headerLength, names, start);
+            call(NioProtocol.ON_WAITING_COUNTS, out -> {
+                out.writeUTF(host);
+                out.writeLong(version);
+                out.writeInt(end - start);
+                for (int index = start; index < end; index++) {
+                    out.writeUTF(names.get(index));
+                    out.writeInt(counts.get(index));
+                }
+            });
+            from = end;
+        } while (from < names.size());
+    }
+
+    @Override
+    public CompletableFuture<Boolean> blockChairIfAvailableAsync(final String name) {
+        return callAsync(NioProtocol.BLOCK_CHAIR, out -> out.writeUTF(name), DataInputStream::readBoolean);
+    }
+
+    @Override
+    public CompletableFuture<Void> unblockChairAsync(final String name) {
+        return callAsync(NioProtocol.UNBLOCK_CHAIR, out -> out.writeUTF(name), in -> null);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> blockForkIfAvailableAsync(final String name) {
+        return callAsync(NioProtocol.BLOCK_FORK, out -> out.writeUTF(name), DataInputStream::readBoolean);
+    }
+
+    @Override
+    public CompletableFuture<Void> unblockForkAsync(final String name) {
+        return callAsync(NioProtocol.UNBLOCK_FORK, out -> out.writeUTF(name), in -> null);
+    }
+
+    @Override
+    public CompletableFuture<Integer> getChairWaitingPhilosophersAsync(final String name) {
+        return callAsync(NioProtocol.CHAIR_WAITING_PHILOSOPHERS, out -> out.writeUTF(name), DataInputStream::readInt);
+    }
+
+    @Override
+    public void close() {
+        connection.close();
+    }
+
+    /**
+     * Send a request and wait for his response.
+     *
+     * @return the result of the response.
+     * @throws RemoteException if the remote table is not reachable or failed.
+     */
+    private DataInputStream call(final byte operation, final NioProtocol.Payload arguments) throws RemoteException {
+        if (closed) {
+            throw new RemoteException("The connection to " + address + " is closed");
+        }
+        final CompletableFuture<byte[]> response = send(operation, arguments);
+        try {
+            return getResult(await(response));
+        } catch (RemoteException e) {
+            throw e;
+        } catch (IOException | ExecutionException | TimeoutException e) {
+            throw new RemoteException("No response from " + address, e);
+        } finally {
+            response.cancel(false); // Forget the request if the response didn't arrive in time
+        }
+    }
+
+    /**
+     * Send a request without waiting for his response. The request is forgotten if the response doesn't arrive in
+     * time.
+     *
+     * @return the future of the result.
+     */
+    private <T> CompletableFuture<T> callAsync(final byte operation, final NioProtocol.Payload arguments, final Result<T> result) {
+        final CompletableFuture<byte[]> response = send(operation, arguments);
+        if (!response.isDone()) {
+            TimerService.getDefault().schedule(() -> response.completeExceptionally(new TimeoutException()),
+                    REQUEST_TIMEOUT, TimeUnit.NANOSECONDS);
+        }
+        return response.handle((frame, error) -> {
+            if (error != null) {
+                throw new CompletionException(new RemoteException("No response from " + address, unwrap(error)));
+            }
+            try {
+                return result.read(getResult(frame));
+            } catch (IOException e) {
+                throw new CompletionException(e instanceof RemoteException ? e
+                        : new RemoteException("Malformed response from " + address, e));
+            }
+        });
+    }
+
+    /**
+     * Send a request. The future of the response is completed by the thread of the transport.
+     *
+     * @return the future of the response.
+     */
+    private CompletableFuture<byte[]> send(final byte operation, final NioProtocol.Payload arguments) {
+        final CompletableFuture<byte[]> response = new CompletableFuture<>();
+        if (closed) {
+            response.completeExceptionally(new IOException("Connection closed"));
+            return response;
+        }
+        final int id = nextId.getAndIncrement();
+        pending.put(id, response);
+        response.whenComplete((frame, error) -> pending.remove(id));
+        try {
+            connection.send(NioProtocol.frame(id, operation, arguments));
+            if (closed) {
+                // The connection was closed before the request was registered
+                response.completeExceptionally(new IOException("Connection closed"));
+            }
+        } catch (IOException e) {
+            response.completeExceptionally(e);
+        }
+        return response;
+    }
+
+    /**
+     * Get the result of a response frame.
+     *
+     * @throws RemoteException if the remote table failed.
+     */
+    private DataInputStream getResult(final byte[] frame) throws IOException {
+        final DataInputStream in = NioProtocol.getPayload(frame);
+        if (NioProtocol.getType(frame) == NioProtocol.ERROR) {
+            throw new RemoteException(address + " failed: " + in.readUTF());
+        }
+        return in;
+    }
+
+    private static Throwable unwrap(final Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    /**
+     * Get the end of the next part of a batch of names with an int each, so the part fits into a single frame. A
+     * part contains at least one entry, an entry which is too long on his own fails when the frame is created.
+     *
+     * @param headerLength of the arguments in front of the entries.
+     * @param names        of the batch.
+     * @param from         the first entry of the part.
+     * @return the end (exclusive) of the part.
+     */
+    private static int getBatchEnd(final int headerLength, final List<String> names, final int from) {
+        long length = NioProtocol.HEADER_LENGTH + headerLength;
+        int end = from;
+        while (end < names.size()) {
+            length += NioProtocol.getUtfLength(names.get(end)) + 4;
+            if (length > NioProtocol.MAX_FRAME_LENGTH && end > from) {
+                break;
+            }
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Wait for a response like a RMI call does: an interrupt doesn't abort the call, it's only passed on.
+     */
+    private static byte[] await(final CompletableFuture<byte[]> response) throws ExecutionException, TimeoutException {
+        final long deadline = System.nanoTime() + REQUEST_TIMEOUT;
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return response.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private boolean readBoolean(final DataInputStream in) throws RemoteException {
+        try {
+            return in.readBoolean();
+        } catch (IOException e) {
+            throw new RemoteException("Malformed response from " + address, e);
+        }
+    }
+
+    private void onResponse(final byte[] frame) {
+        final CompletableFuture<byte[]> response = pending.get(NioProtocol.getId(frame));
+        if (response != null) {
+            response.complete(frame);
+        }
+    }
+
+    private void onClosed() {
+        closed = true;
+        for (CompletableFuture<byte[]> response : pending.values()) {
+            response.completeExceptionally(new IOException("Connection closed"));
+        }
+    }
+
+    /**
+     * Reads the result of a call from the payload of his response.
+     */
+    @FunctionalInterface
+    private interface Result<T> {
+        T read(final DataInputStream in) throws IOException;
+    }
+}
@@ -0,0 +1,340 @@
+package edu.hm.cs.vss.remote;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Reaches the other tables with the binary {@link NioProtocol}. A single selector thread accepts the connections of
+ * the other tables, reads all frames and writes whatever couldn't be written right away. Requests which never block
+ * are executed on the selector thread, all others on a worker thread. Responses can be sent in any order, the id of
+ * the request matches them to the waiting caller.
+ */
+class NioTransport implements TableTransport {
+    private static final int CONNECT_TIMEOUT = (int) TimeUnit.MILLISECONDS.convert(5, TimeUnit.SECONDS);
+    private static final int READ_BUFFER_SIZE = 4096;
+
+    private final String host;
+    private final int port;
+    private final Selector selector;
+    private final Queue<Runnable> selectorTasks = new ConcurrentLinkedQueue<>();
+    private final ExecutorService executor;
+    private volatile boolean closed;
+    private ServerSocketChannel server;
+
+    NioTransport(final String host, final int port) throws IOException {
+        this.host = host;
+        this.port = port;
+        this.selector = Selector.open();
+        final AtomicInteger counter = new AtomicInteger(1);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "NioTransport-" + port + "-Worker-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        final Thread thread = new Thread(this::select, "NioTransport-" + port);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public String getLocalAddress() {
+        return host + ":" + port;
+    }
+
+    @Override
+    public synchronized void export(final RmiTable table) throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("A table is already exported on port " + port);
+        }
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(port));
+        server.configureBlocking(false);
+        final ServerSocketChannel channel = server;
+        runOnSelector(() -> {
+            try {
+                channel.register(selector, SelectionKey.OP_ACCEPT, table);
+            } catch (ClosedChannelException e) {
+                // The transport was closed in the meantime
+            }
+        });
+    }
+
+    @Override
+    public RmiTable connect(final String address) throws Exception {
+        final int separator = address.lastIndexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("The address " + address + " has no port (host:port)");
+        }
+        final SocketChannel channel = SocketChannel.open();
+        try {
+            channel.socket().connect(new InetSocketAddress(address.substring(0, separator),
+                    Integer.parseInt(address.substring(separator + 1))), CONNECT_TIMEOUT);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new NioRmiTable(address, this, channel);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        selector.wakeup();
+        executor.shutdown();
+    }
+
+    /**
+     * Let the selector thread read and write a connected channel.
+     *
+     * @param channel  to register.
+     * @param handler  get's every received frame. (without his length)
+     * @param onClosed get's notified as soon as the connection is closed.
+     * @return the connection.
+     * @throws IOException if the channel could not be prepared.
+     */
+    Connection register(final SocketChannel channel, final BiConsumer<Connection, byte[]> handler, final Runnable onClosed) throws IOException {
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        final Connection connection = new Connection(channel, handler, onClosed);
+        runOnSelector(() -> {
+            try {
+                // Registered before any task of a frame which didn't fit into the socket buffer
+                connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            } catch (ClosedChannelException e) {
+                connection.close();
+            }
+        });
+        return connection;
+    }
+
+    private void runOnSelector(final Runnable task) {
+        selectorTasks.add(task);
+        selector.wakeup();
+    }
+
+    private void select() {
+        while (!closed) {
+            try {
+                selector.select();
+                Runnable task;
+                while ((task = selectorTasks.poll()) != null) {
+                    task.run();
+                }
+                final Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    final SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    try {
+                        if (key.isAcceptable()) {
+                            accept(key);
+                        } else {
+                            final Connection connection = (Connection) key.attachment();
+                            if (key.isReadable()) {
+                                connection.read();
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                connection.flush();
+                            }
+                        }
+                    } catch (CancelledKeyException e) {
+                        // Closed by another thread in the meantime
+                    }
+                }
+            } catch (IOException e) {
+                // The selector itself is broken -> nothing left to do
+                break;
+            }
+        }
+
+        // Shut down all connections
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Connection) {
+                ((Connection) key.attachment()).close();
+            } else {
+                try {
+                    key.channel().close();
+                } catch (IOException e) {
+                    // Closing anyway
+                }
+            }
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            // Closing anyway
+        }
+    }
+
+    private void accept(final SelectionKey key) throws IOException {
+        final SocketChannel channel = ((ServerSocketChannel) key.channel()).accept();
+        if (channel == null) {
+            return;
+        }
+        final RmiTable table = (RmiTable) key.attachment();
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        final Connection connection = new Connection(channel, (from, request) -> onRequest(table, from, request), null);
+        connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+    }
+
+    private void onRequest(final RmiTable table, final Connection connection, final byte[] request) {
+        if (NioProtocol.isNonBlocking(NioProtocol.getType(request))) {
+            respond(table, connection, request);
+        } else {
+            try {
+                executor.execute(() -> respond(table, connection, request));
+            } catch (RejectedExecutionException e) {
+                connection.close(); // The transport is closed while the request arrived
+            }
+        }
+    }
+
+    private void respond(final RmiTable table, final Connection connection, final byte[] request) {
+        try {
+            connection.send(NioProtocol.execute(table, request));
+        } catch (IOException e) {
+            connection.close();
+        }
+    }
+
+    /**
+     * A single connection to another table. Frames are written right away by the sending thread, only the rest which
+     * doesn't fit into the socket buffer is left to the selector thread.
+     */
+    final class Connection {
+        private final SocketChannel channel;
+        private final BiConsumer<Connection, byte[]> handler;
+        private final Runnable onClosed;
+        private final Queue<ByteBuffer> outbound = new ArrayDeque<>();
+        private ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        private volatile SelectionKey key;
+        private volatile boolean closed;
+
+        private Connection(final SocketChannel channel, final BiConsumer<Connection, byte[]> handler, final Runnable onClosed) {
+            this.channel = channel;
+            this.handler = handler;
+            this.onClosed = onClosed;
+        }
+
+        /**
+         * Send a frame to the other table.
+         *
+         * @param frame including his length.
+         * @throws IOException if the connection is closed.
+         */
+        void send(final ByteBuffer frame) throws IOException {
+            synchronized (outbound) {
+                if (closed) {
+                    throw new ClosedChannelException();
+                }
+                if (outbound.isEmpty()) {
+                    channel.write(frame);
+                    if (!frame.hasRemaining()) {
+                        return;
+                    }
+                }
+                outbound.add(frame);
+                if (outbound.size() == 1) {
+                    // The socket buffer is full -> the selector thread writes as soon as there is space again
+                    runOnSelector(() -> {
+                        if (key != null && key.isValid()) {
+                            key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                        }
+                    });
+                }
+            }
+        }
+
+        void close() {
+            synchronized (outbound) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                outbound.clear();
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Closing anyway
+            }
+            if (onClosed != null) {
+                onClosed.run();
+            }
+        }
+
+        private void flush() {
+            synchronized (outbound) {
+                try {
+                    ByteBuffer frame;
+                    while ((frame = outbound.peek()) != null) {
+                        channel.write(frame);
+                        if (frame.hasRemaining()) {
+                            return; // Still no space left
+                        }
+                        outbound.poll();
+                    }
+                    key.interestOps(SelectionKey.OP_READ);
+                } catch (IOException e) {
+                    close();
+                }
+            }
+        }
+
+        private void read() {
+            try {
+                if (channel.read(readBuffer) < 0) {
+                    close();
+                    return;
+                }
+            } catch (IOException e) {
+                close();
+                return;
+            }
+
+            readBuffer.flip();
+            while (readBuffer.remaining() >= NioProtocol.LENGTH_SIZE) {
+                final int length = readBuffer.getInt(readBuffer.position());
+                if (length < 0 || length > NioProtocol.MAX_FRAME_LENGTH) {
+                    close(); // Not our protocol
+                    return;
+                }
+                if (readBuffer.remaining() < NioProtocol.LENGTH_SIZE + length) {
+                    if (readBuffer.capacity() < NioProtocol.LENGTH_SIZE + length) {
+                        // The frame doesn't fit into the buffer -> make room for him
+                        final ByteBuffer buffer = ByteBuffer.allocate(NioProtocol.LENGTH_SIZE + length);
+                        buffer.put(readBuffer);
+                        buffer.flip();
+                        readBuffer = buffer;
+                    }
+                    break;
+                }
+                readBuffer.position(readBuffer.position() + NioProtocol.LENGTH_SIZE);
+                final byte[] frame = new byte[length];
+                readBuffer.get(frame);
+                handler.accept(this, frame);
+            }
+            readBuffer.compact();
+        }
+    }
+}
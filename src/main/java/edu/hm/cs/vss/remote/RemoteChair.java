@@ -4,7 +4,10 @@ import edu.hm.cs.vss.Chair;
 import edu.hm.cs.vss.Fork;
 
 import java.rmi.RemoteException;
+import java.util.List;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Created by Fabio Hellmann on 11.05.2016.
@@ -13,6 +16,7 @@ public class RemoteChair implements Chair {
     private final Fork fork;
     private final String name;
     private final RemoteTable table;
+    private volatile Optional<Chair> neighbourChair = Optional.empty(); // Confirmed by the remote table
 
     public RemoteChair(final Chair chair, final RemoteTable table) {
         this.fork = new RemoteFork(chair.getFork().toString(), table);
@@ -26,17 +30,18 @@ public class RemoteChair implements Chair {
     }
 
     @Override
-    public Optional<Chair> blockIfAvailable() throws InterruptedException {
+    public boolean tryAcquire() throws InterruptedException {
         try {
-            return table.getRmi().blockChairIfAvailable(name) ? Optional.of(this) : Optional.empty();
+            return onAcquire(table.getRmi().blockChairIfAvailable(name));
         } catch (RemoteException e) {
             table.handleRemoteTableDisconnected(e);
         }
-        return Optional.empty();
+        return false;
     }
 
     @Override
-    public void unblock() {
+    public void release() {
+        onRelease();
         try {
             table.getRmi().unblockChair(name);
         } catch (RemoteException e) {
@@ -46,6 +51,10 @@ public class RemoteChair implements Chair {
 
     @Override
     public int getWaitingPhilosopherCount() {
+        final OptionalInt cached = table.getCachedWaitingPhilosopherCount(name);
+        if (cached.isPresent()) {
+            return cached.getAsInt();
+        }
         try {
             return table.getRmi().getChairWaitingPhilosophers(name);
         } catch (RemoteException e) {
@@ -54,6 +63,98 @@ public class RemoteChair implements Chair {
         return 0;
     }
 
+    @Override
+    public boolean tryAcquireWithForks(final Chair neighbourChair, final List<Fork> forks) throws InterruptedException {
+        if (!isOnSameTable(neighbourChair)) {
+            return Chair.super.tryAcquireWithForks(neighbourChair, forks);
+        }
+        try {
+            // The remote table blocks the seat and both forks in a single call
+            if (!onAcquire(table.getRmi().blockChairWithForksIfAvailable(name, neighbourChair.toString()))) {
+                // Either busy or the neighbour is outdated -> search him again next time
+                this.neighbourChair = Optional.empty();
+                return false;
+            }
+        } catch (RemoteException e) {
+            table.handleRemoteTableDisconnected(e);
+            return false;
+        }
+        if (this.neighbourChair.orElse(null) != neighbourChair) {
+            this.neighbourChair = Optional.of(neighbourChair);
+        }
+        forks.add(fork);
+        if (!name.equals(neighbourChair.toString())) {
+            forks.add(neighbourChair.getFork());
+        }
+        return true;
+    }
+
+    @Override
+    public void releaseWithForks(final Chair neighbourChair, final List<Fork> forks) {
+        if (!isOnSameTable(neighbourChair) || forks.isEmpty()) {
+            Chair.super.releaseWithForks(neighbourChair, forks);
+            return;
+        }
+        forks.clear();
+        onRelease();
+        try {
+            table.getRmi().unblockChairWithForks(name, neighbourChair.toString());
+        } catch (RemoteException e) {
+            table.handleRemoteTableDisconnected(e);
+        }
+    }
+
+    @Override
+    public Optional<Chair> getKnownNeighbourChair() {
+        return neighbourChair;
+    }
+
+    @Override
+    public boolean isRemote() {
+        return true;
+    }
+
+    private boolean isOnSameTable(final Chair chair) {
+        return chair instanceof RemoteChair && ((RemoteChair) chair).table == table;
+    }
+
+    /**
+     * Keep the cached waiting count in line with the result of an acquisition: the seat is taken either way.
+     */
+    private boolean onAcquire(final boolean acquired) {
+        table.correctCachedWaitingPhilosopherCount(name, count -> acquired ? count + 1 : Math.max(count, 1));
+        return acquired;
+    }
+
+    private void onRelease() {
+        table.correctCachedWaitingPhilosopherCount(name, count -> Math.max(count - 1, 0));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> acquireAsync() {
+        return table.callAsync(rmi -> onAcquire(rmi.blockChairIfAvailable(name)),
+                rmi -> rmi.blockChairIfAvailableAsync(name).thenApply(this::onAcquire), false);
+    }
+
+    @Override
+    public CompletableFuture<Void> releaseAsync() {
+        onRelease();
+        return table.callAsync(rmi -> {
+            rmi.unblockChair(name);
+            return null;
+        }, rmi -> rmi.unblockChairAsync(name), null);
+    }
+
+    @Override
+    public CompletableFuture<Integer> waitingCountAsync() {
+        final OptionalInt cached = table.getCachedWaitingPhilosopherCount(name);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached.getAsInt());
+        }
+        return table.callAsync(rmi -> rmi.getChairWaitingPhilosophers(name),
+                rmi -> rmi.getChairWaitingPhilosophersAsync(name), 0);
+    }
+
     @Override
     public String toString() {
         return name;
@@ -3,7 +3,7 @@ package edu.hm.cs.vss.remote;
 import edu.hm.cs.vss.Fork;
 
 import java.rmi.RemoteException;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Created by Fabio Hellmann on 11.05.2016.
@@ -23,17 +23,30 @@ public class RemoteFork implements Fork {
     }
 
     @Override
-    public Optional<Fork> blockIfAvailable() {
+    public boolean tryAcquire() {
         try {
-            return table.getRmi().blockForkIfAvailable(name) ? Optional.of(this) : Optional.empty();
+            return table.getRmi().blockForkIfAvailable(name);
         } catch (RemoteException e) {
             table.handleRemoteTableDisconnected(e);
         }
-        return Optional.empty();
+        return false;
     }
 
     @Override
-    public void unblock() {
+    public CompletableFuture<Boolean> acquireAsync() {
+        return table.callAsync(rmi -> rmi.blockForkIfAvailable(name), rmi -> rmi.blockForkIfAvailableAsync(name), false);
+    }
+
+    @Override
+    public CompletableFuture<Void> releaseAsync() {
+        return table.callAsync(rmi -> {
+            rmi.unblockFork(name);
+            return null;
+        }, rmi -> rmi.unblockForkAsync(name), null);
+    }
+
+    @Override
+    public void release() {
         try {
             table.getRmi().unblockFork(name);
         } catch (RemoteException e) {
@@ -3,53 +3,104 @@ package edu.hm.cs.vss.remote;
 import edu.hm.cs.vss.*;
 import edu.hm.cs.vss.log.Logger;
 
-import java.net.InetAddress;
-import java.net.UnknownHostException;
+import java.io.Closeable;
+import java.io.IOException;
 import java.rmi.RemoteException;
-import java.rmi.registry.LocateRegistry;
-import java.rmi.registry.Registry;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Observable;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
  * Created by Fabio Hellmann on 14.04.2016.
  */
 public class RemoteTable extends Observable implements Table, Philosopher.OnStandUpListener {
+    private static final long DEFAULT_MAX_STALENESS = TimeUnit.NANOSECONDS.convert(100, TimeUnit.MILLISECONDS);
+    private static final int STAND_UP_BATCH_SIZE = 32;
+    private static final long STAND_UP_FLUSH_DELAY = 10; // ms
+    static final int MAX_CALL_THREADS = 8; // Blocking transports wait on these threads for asynchronous calls
+
     private final String host;
     private final Logger logger;
+    private final TableTransport transport;
     private final RmiTable table;
     private final BackupService backupService;
     private final AtomicBoolean backupLock = new AtomicBoolean(false);
     private final Thread thread;
+    private final ExecutorService executor;
+    // The waiting counts the remote table published, applied only if they are newer than the cached ones
+    private final Map<String, WaitingCount> waitingCounts = new ConcurrentHashMap<>();
+    private volatile long waitingCountsUpdate; // The time of the last publication
+    private volatile long maxStaleness = DEFAULT_MAX_STALENESS;
+    // The latest meal count of every philosopher who stood up and wasn't sent yet
+    private final Map<String, Integer> pendingStandUps = new LinkedHashMap<>();
+    private final Thread standUpSender;
 
     public RemoteTable(final String host, Logger logger) throws Exception {
+        this(host, logger, TableTransport.rmi());
+    }
+
+    /**
+     * @param host      the address of the remote table.
+     * @param logger    to log with.
+     * @param transport to reach the remote table with.
+     * @throws Exception if the remote table is not reachable.
+     */
+    public RemoteTable(final String host, final Logger logger, final TableTransport transport) throws Exception {
         this.host = host;
         this.logger = logger;
+        this.transport = transport;
         this.backupService = BackupService.create(this);
-        final Registry registry = LocateRegistry.getRegistry(host, NETWORK_PORT);
-        table = (RmiTable) registry.lookup(Table.class.getSimpleName());
+        table = transport.connect(host);
+        final AtomicInteger counter = new AtomicInteger(1);
+        final ThreadPoolExecutor callExecutor = new ThreadPoolExecutor(MAX_CALL_THREADS, MAX_CALL_THREADS,
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            final Thread thread = new Thread(runnable, "RemoteTable-" + host + "-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        callExecutor.allowCoreThreadTimeOut(true);
+        executor = callExecutor;
 
         thread = new Thread() {
             public void run() {
                 while (!isInterrupted()) {
-                    try {
-                        if (!backupLock.get()) {
-                            try {
-                                table.backupFinished();
-                            } catch (RemoteException e) {
-                                handleRemoteTableDisconnected(e);
-                                throw new Exception(e);
-                            }
+                    if (!backupLock.get()) {
+                        try {
+                            table.backupFinished();
+                        } catch (RemoteException e) {
+                            handleRemoteTableDisconnected(e);
                         }
+                    }
+                    try {
                         Thread.sleep(1000);
-                    } catch (Exception e) {
-                        // ignore exception
+                    } catch (InterruptedException e) {
+                        return; // The remote table is destroyed
                     }
                 }
             }
         };
         thread.start();
+
+        standUpSender = new Thread(this::sendStandUps, "RemoteTable-" + host + "-StandUps");
+        standUpSender.setDaemon(true);
+        standUpSender.start();
     }
 
     @Override
@@ -128,6 +179,12 @@ public class RemoteTable extends Observable implements Table, Philosopher.OnStan
         return getBackupService().getChairs();
     }
 
+    @Override
+    public CompletableFuture<Optional<Chair>> getLeastBusyChairAsync() {
+        // Ask all chairs at once instead of one round trip after the other
+        return Chair.leastBusyAsync(getChairs().collect(Collectors.toList()));
+    }
+
     @Override
     public Chair getNeighbourChair(Chair chair) {
         throw new UnsupportedOperationException();
@@ -151,10 +208,48 @@ public class RemoteTable extends Observable implements Table, Philosopher.OnStan
 
     @Override
     public void onStandUp(Philosopher philosopher) {
+        // Only the latest meal count of a philosopher matters, the sender thread takes care of the rest
+        synchronized (pendingStandUps) {
+            pendingStandUps.put(philosopher.getName(), philosopher.getMealCount());
+            if (pendingStandUps.size() == 1 || pendingStandUps.size() >= STAND_UP_BATCH_SIZE) {
+                pendingStandUps.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Send the stand ups in batches. A stand up after a quiet period is sent right away, all others as soon as there are
+     * enough of them or the last batch was sent long enough ago.
+     */
+    private void sendStandUps() {
+        long lastBatch = 0;
         try {
-            table.onStandUp(getLocalHost(), philosopher.getName());
-        } catch (RemoteException e) {
-            handleRemoteTableDisconnected(e);
+            while (!Thread.currentThread().isInterrupted()) {
+                final List<String> names;
+                final List<Integer> mealCounts;
+                synchronized (pendingStandUps) {
+                    while (pendingStandUps.isEmpty()) {
+                        pendingStandUps.wait();
+                    }
+                    final long deadline = lastBatch + STAND_UP_FLUSH_DELAY;
+                    long remaining;
+                    while (pendingStandUps.size() < STAND_UP_BATCH_SIZE
+                            && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                        pendingStandUps.wait(remaining);
+                    }
+                    names = new ArrayList<>(pendingStandUps.keySet());
+                    mealCounts = new ArrayList<>(pendingStandUps.values());
+                    pendingStandUps.clear();
+                }
+                lastBatch = System.currentTimeMillis();
+                try {
+                    table.onStandUps(getLocalHost(), names, mealCounts);
+                } catch (RemoteException e) {
+                    handleRemoteTableDisconnected(e);
+                }
+            }
+        } catch (InterruptedException e) {
+            // The remote table is destroyed
         }
     }
 
@@ -162,17 +257,135 @@ public class RemoteTable extends Observable implements Table, Philosopher.OnStan
         return table;
     }
 
+    /**
+     * Set how old the waiting counts published by the remote table may be. If the remote table didn't publish anything
+     * for a longer time, the waiting count of a chair is asked for again. The bound holds for the whole table and not
+     * per chair: a publication only contains the changed chairs, the unchanged ones are still up to date. The remote
+     * table sends all of his chairs at least every 50 ms, so a default above that only falls back to asking if the
+     * remote table stopped publishing.
+     *
+     * @param maxStaleness of the waiting counts. (<code>0</code> to always ask the remote table)
+     * @param unit         of the time.
+     */
+    public void setMaxStaleness(final long maxStaleness, final TimeUnit unit) {
+        this.maxStaleness = unit.toNanos(maxStaleness);
+    }
+
+    /**
+     * Update the waiting counts of the chairs with a publication of the remote table. Publications can arrive in any
+     * order, a waiting count is only replaced by a newer one.
+     *
+     * @param version of the publication.
+     * @param names   of the chairs whose waiting count changed.
+     * @param counts  the new waiting counts.
+     */
+    public void onWaitingCounts(final long version, final List<String> names, final List<Integer> counts) {
+        for (int index = 0; index < names.size(); index++) {
+            waitingCounts.merge(names.get(index), new WaitingCount(counts.get(index), version), WaitingCount::newest);
+        }
+        waitingCountsUpdate = System.nanoTime();
+    }
+
+    /**
+     * Publish the waiting counts of the local chairs to the remote table without waiting for him.
+     *
+     * @param version of the publication.
+     * @param names   of the chairs whose waiting count changed.
+     * @param counts  the new waiting counts.
+     */
+    public void publishWaitingCounts(final long version, final List<String> names, final List<Integer> counts) {
+        callAsync(rmi -> {
+            rmi.onWaitingCounts(getLocalHost(), version, names, counts);
+            return null;
+        }, null);
+    }
+
+    /**
+     * Get the waiting count of a chair from the last publications of the remote table.
+     *
+     * @param name of the chair.
+     * @return the waiting count or nothing if there is no waiting count which is recent enough.
+     */
+    OptionalInt getCachedWaitingPhilosopherCount(final String name) {
+        final long update = waitingCountsUpdate;
+        if (update == 0 || System.nanoTime() - update > maxStaleness) {
+            return OptionalInt.empty();
+        }
+        final WaitingCount waitingCount = waitingCounts.get(name);
+        return waitingCount != null ? OptionalInt.of(waitingCount.count) : OptionalInt.empty();
+    }
+
+    /**
+     * Correct the cached waiting count of a chair right after this table took or left the chair, so the philosophers
+     * of this table don't all rush to the same chair until the next publication. The next publication replaces it.
+     *
+     * @param name       of the chair.
+     * @param correction of the cached waiting count.
+     */
+    void correctCachedWaitingPhilosopherCount(final String name, final IntUnaryOperator correction) {
+        waitingCounts.computeIfPresent(name, (key, waitingCount) ->
+                new WaitingCount(correction.applyAsInt(waitingCount.count), waitingCount.version));
+    }
+
+    /**
+     * Call the remote table without waiting for the response, if the transport supports it. Otherwise the call waits
+     * on a thread of this table. If the remote table is not reachable the future completes with the fallback value.
+     *
+     * @param call      to the remote table.
+     * @param asyncCall to the remote table which doesn't wait.
+     * @param fallback  if the remote table is not reachable.
+     * @param <T>       type of the result.
+     * @return the future of the result.
+     */
+    <T> CompletableFuture<T> callAsync(final RmiCall<T> call, final AsyncRmiCall<T> asyncCall, final T fallback) {
+        if (!(table instanceof AsyncRmiTable)) {
+            return callAsync(call, fallback);
+        }
+        return asyncCall.call((AsyncRmiTable) table).exceptionally(error -> {
+            final Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            final RemoteException remoteException = cause instanceof RemoteException ? (RemoteException) cause
+                    : new RemoteException("Call to " + host + " failed", cause);
+            try {
+                // The transport completes the future -> don't hold up his thread with the observers
+                executor.execute(() -> handleRemoteTableDisconnected(remoteException));
+            } catch (RejectedExecutionException e) {
+                // The remote table is destroyed anyway
+            }
+            return fallback;
+        });
+    }
+
+    /**
+     * Call the remote table on a thread of this table. If the remote table is not reachable the future completes with
+     * the fallback value.
+     *
+     * @param call     to the remote table.
+     * @param fallback if the remote table is not reachable.
+     * @param <T>      type of the result.
+     * @return the future of the result.
+     */
+    <T> CompletableFuture<T> callAsync(final RmiCall<T> call, final T fallback) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return call.call(table);
+                } catch (RemoteException e) {
+                    handleRemoteTableDisconnected(e);
+                    return fallback;
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(fallback); // The remote table is destroyed
+        }
+    }
+
     public void handleRemoteTableDisconnected(final RemoteException e) {
         setChanged();
         notifyObservers(RemoteTable.this);
     }
 
     private String getLocalHost() {
-        try {
-            return InetAddress.getLocalHost().getHostAddress();
-        } catch (UnknownHostException e) {
-            throw new RuntimeException("No ip address found for the local machine", e);
-        }
+        return transport.getLocalAddress();
     }
 
     public boolean backupFinished() throws RemoteException {
@@ -193,5 +406,38 @@ public class RemoteTable extends Observable implements Table, Philosopher.OnStan
 
     public void destroy() {
         thread.interrupt();
+        standUpSender.interrupt();
+        executor.shutdown();
+        if (table instanceof Closeable) {
+            try {
+                ((Closeable) table).close();
+            } catch (IOException e) {
+                // The connection is gone anyway
+            }
+        }
+    }
+
+    private static final class WaitingCount {
+        private final int count;
+        private final long version;
+
+        private WaitingCount(final int count, final long version) {
+            this.count = count;
+            this.version = version;
+        }
+
+        private static WaitingCount newest(final WaitingCount cached, final WaitingCount update) {
+            return update.version >= cached.version ? update : cached;
+        }
+    }
+
+    @FunctionalInterface
+    interface RmiCall<T> {
+        T call(final RmiTable table) throws RemoteException;
+    }
+
+    @FunctionalInterface
+    interface AsyncRmiCall<T> {
+        CompletableFuture<T> call(final AsyncRmiTable table);
     }
 }
@@ -2,6 +2,7 @@ package edu.hm.cs.vss.remote;
 
 import java.rmi.Remote;
 import java.rmi.RemoteException;
+import java.util.List;
 
 /**
  * Created by Fabio on 16.04.2016.
@@ -15,7 +16,9 @@ public interface RmiTable extends Remote {
 
     void removePhilosopher(final String host, final String name) throws RemoteException;
 
-    void onStandUp(final String host, final String philosopherName) throws RemoteException;
+    void onStandUp(final String host, final String philosopherName, final int mealCount) throws RemoteException;
+
+    void onStandUps(final String host, final List<String> philosopherNames, final List<Integer> mealCounts) throws RemoteException;
 
     void addChair(final String host, final String name) throws RemoteException;
 
@@ -31,5 +34,11 @@ public interface RmiTable extends Remote {
 
     int getChairWaitingPhilosophers(final String name) throws RemoteException;
 
+    boolean blockChairWithForksIfAvailable(final String name, final String neighbourName) throws RemoteException;
+
+    void unblockChairWithForks(final String name, final String neighbourName) throws RemoteException;
+
     boolean backupFinished() throws RemoteException;
+
+    void onWaitingCounts(final String host, final long version, final List<String> names, final List<Integer> counts) throws RemoteException;
 }
@@ -0,0 +1,59 @@
+package edu.hm.cs.vss.remote;
+
+import edu.hm.cs.vss.Table;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.rmi.NoSuchObjectException;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+
+/**
+ * Reaches the other tables with Java RMI. Every table has his own registry on {@link Table#NETWORK_PORT}, so there can
+ * only be one table per host.
+ */
+class RmiTransport implements TableTransport {
+    private Registry registry;
+    private RmiTable exported;
+
+    @Override
+    public String getLocalAddress() {
+        try {
+            return InetAddress.getLocalHost().getHostAddress();
+        } catch (UnknownHostException e) {
+            throw new RuntimeException("No ip address found for the local machine", e);
+        }
+    }
+
+    @Override
+    public synchronized void export(final RmiTable table) throws IOException {
+        registry = LocateRegistry.createRegistry(Table.NETWORK_PORT);
+        registry.rebind(Table.class.getSimpleName(), UnicastRemoteObject.exportObject(table, Table.NETWORK_PORT));
+        exported = table;
+    }
+
+    @Override
+    public RmiTable connect(final String address) throws Exception {
+        final Registry registry = LocateRegistry.getRegistry(address, Table.NETWORK_PORT);
+        return (RmiTable) registry.lookup(Table.class.getSimpleName());
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            if (exported != null) {
+                UnicastRemoteObject.unexportObject(exported, true);
+            }
+            if (registry != null) {
+                UnicastRemoteObject.unexportObject(registry, true);
+            }
+        } catch (NoSuchObjectException e) {
+            // Already gone
+        } finally {
+            exported = null;
+            registry = null;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package edu.hm.cs.vss.remote;
+
+import edu.hm.cs.vss.Table;
+
+import java.io.IOException;
+
+/**
+ * The Table Transport carries the calls between the tables. A table exports itself with the transport and reaches
+ * every other table through it.
+ */
+public interface TableTransport {
+    /**
+     * The default transport: Java RMI on {@link Table#NETWORK_PORT}.
+     *
+     * @return the transport.
+     */
+    static TableTransport rmi() {
+        return new RmiTransport();
+    }
+
+    /**
+     * A transport with a compact binary protocol on a single non-blocking selector thread. The calls to another table
+     * are multiplexed over one connection. The address of a table is <code>host:port</code>, so several tables can run
+     * on the same host.
+     *
+     * @param host the other tables reach this table with.
+     * @param port to listen on.
+     * @return the transport.
+     * @throws IOException if the selector could not be opened.
+     */
+    static TableTransport nio(final String host, final int port) throws IOException {
+        return new NioTransport(host, port);
+    }
+
+    /**
+     * Get the address the other tables reach this table with.
+     *
+     * @return the address.
+     */
+    String getLocalAddress();
+
+    /**
+     * Make the table reachable for the other tables.
+     *
+     * @param table to export.
+     * @throws IOException if the table could not be exported.
+     */
+    void export(final RmiTable table) throws IOException;
+
+    /**
+     * Connect to another table.
+     *
+     * @param address of the other table.
+     * @return the other table.
+     * @throws Exception if the other table is not reachable.
+     */
+    RmiTable connect(final String address) throws Exception;
+
+    /**
+     * Stop the transport. The exported table isn't reachable anymore and all connections are closed.
+     */
+    void close();
+}
@@ -0,0 +1,234 @@
+package edu.hm.cs.vss;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Created by Fabio Hellmann on 18.10.2016.
+ */
+public class ChairTest {
+    private static final long TIMEOUT = TimeUnit.SECONDS.toNanos(5);
+
+    @Test
+    public void freeChairIsAcquiredWithoutWaiting() throws Exception {
+        final Chair chair = new Chair.Builder().create();
+        final List<Chair> available = new CopyOnWriteArrayList<>();
+        chair.addOnAvailableListener(available::add);
+
+        Assert.assertTrue(chair.tryAcquire(0, TimeUnit.NANOSECONDS));
+        Assert.assertEquals(1, chair.getWaitingPhilosopherCount());
+        Assert.assertFalse(chair.tryAcquire(0, TimeUnit.NANOSECONDS));
+        Assert.assertEquals(1, chair.getWaitingPhilosopherCount());
+
+        chair.release();
+        Assert.assertEquals(0, chair.getWaitingPhilosopherCount());
+        Assert.assertEquals(1, available.size());
+    }
+
+    @Test
+    public void chairIsHandedOverToTheWaitingPhilosopher() throws Exception {
+        final Chair chair = new Chair.Builder().setMaxWaitTime(5, TimeUnit.SECONDS).create();
+        final List<Chair> available = new CopyOnWriteArrayList<>();
+        chair.addOnAvailableListener(available::add);
+        Assert.assertTrue(chair.tryAcquire(0, TimeUnit.NANOSECONDS));
+
+        final CompletableFuture<Boolean> waiter = acquireInBackground(chair, 0);
+        await(() -> chair.getWaitingPhilosopherCount() == 2);
+
+        chair.release();
+        Assert.assertTrue(waiter.get(5, TimeUnit.SECONDS));
+        // The chair never was free in between
+        Assert.assertEquals(1, chair.getWaitingPhilosopherCount());
+        Assert.assertTrue(available.isEmpty());
+
+        chair.release();
+        Assert.assertEquals(0, chair.getWaitingPhilosopherCount());
+        Assert.assertEquals(1, available.size());
+    }
+
+    @Test
+    public void waiterLeavesTheCountWhenHisTimeIsUp() throws Exception {
+        final Chair chair = new Chair.Builder().create();
+        Assert.assertTrue(chair.tryAcquire(0, TimeUnit.NANOSECONDS));
+
+        Assert.assertFalse(chair.tryAcquire(20, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(1, chair.getWaitingPhilosopherCount());
+
+        chair.release();
+        Assert.assertEquals(0, chair.getWaitingPhilosopherCount());
+        Assert.assertTrue(chair.tryAcquire(0, TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void interruptedWaiterLeavesTheCount() throws Exception {
+        final Chair chair = new Chair.Builder().setMaxWaitTime(5, TimeUnit.SECONDS).create();
+        Assert.assertTrue(chair.tryAcquire(0, TimeUnit.NANOSECONDS));
+        final CompletableFuture<Boolean> waiter = new CompletableFuture<>();
+        final Thread thread = new Thread(() -> {
+            try {
+                waiter.complete(chair.tryAcquire());
+            } catch (InterruptedException e) {
+                waiter.completeExceptionally(e);
+            }
+        });
+        thread.start();
+        await(() -> chair.getWaitingPhilosopherCount() == 2);
+
+        thread.interrupt();
+        thread.join(TimeUnit.SECONDS.toMillis(5));
+        Assert.assertTrue(waiter.isCompletedExceptionally());
+        Assert.assertEquals(1, chair.getWaitingPhilosopherCount());
+        chair.release();
+        Assert.assertEquals(0, chair.getWaitingPhilosopherCount());
+    }
+
+    @Test
+    public void higherPriorityIsServedFirst() throws Exception {
+        final Chair chair = new Chair.Builder()
+                .setMaxWaitTime(5, TimeUnit.SECONDS)
+                .setPriorityHeadStart(1, TimeUnit.SECONDS)
+                .create();
+        Assert.assertTrue(chair.tryAcquire(0, TimeUnit.NANOSECONDS));
+        final List<Integer> order = new CopyOnWriteArrayList<>();
+
+        final CompletableFuture<Boolean> low = acquireInBackground(chair, 0, order);
+        await(() -> chair.getWaitingPhilosopherCount() == 2);
+        final CompletableFuture<Boolean> high = acquireInBackground(chair, 1, order);
+        await(() -> chair.getWaitingPhilosopherCount() == 3);
+
+        chair.release();
+        Assert.assertTrue(high.get(5, TimeUnit.SECONDS));
+        chair.release();
+        Assert.assertTrue(low.get(5, TimeUnit.SECONDS));
+        chair.release();
+        Assert.assertEquals(2, order.size());
+        Assert.assertEquals(Integer.valueOf(1), order.get(0));
+        Assert.assertEquals(0, chair.getWaitingPhilosopherCount());
+    }
+
+    @Test
+    public void priorityNeverOvertakesALongerWait() throws Exception {
+        final Chair chair = new Chair.Builder()
+                .setMaxWaitTime(5, TimeUnit.SECONDS)
+                .setPriorityHeadStart(20, TimeUnit.MILLISECONDS)
+                .create();
+        Assert.assertTrue(chair.tryAcquire(0, TimeUnit.NANOSECONDS));
+        final List<Integer> order = new CopyOnWriteArrayList<>();
+
+        // The low priority waited longer than the head start -> his rank has aged past the new arrival
+        final CompletableFuture<Boolean> low = acquireInBackground(chair, 0, order);
+        await(() -> chair.getWaitingPhilosopherCount() == 2);
+        Thread.sleep(100);
+        final CompletableFuture<Boolean> high = acquireInBackground(chair, 1, order);
+        await(() -> chair.getWaitingPhilosopherCount() == 3);
+
+        chair.release();
+        Assert.assertTrue(low.get(5, TimeUnit.SECONDS));
+        chair.release();
+        Assert.assertTrue(high.get(5, TimeUnit.SECONDS));
+        chair.release();
+        Assert.assertEquals(2, order.size());
+        Assert.assertEquals(Integer.valueOf(0), order.get(0));
+    }
+
+    @Test
+    public void onlyOnePhilosopherSitsOnTheChair() throws Exception {
+        final Chair chair = new Chair.Builder().setMaxWaitTime(5, TimeUnit.SECONDS).create();
+        final AtomicInteger sitting = new AtomicInteger();
+        final AtomicInteger overlaps = new AtomicInteger();
+        final AtomicInteger meals = new AtomicInteger();
+        final List<Thread> threads = new ArrayList<>();
+        for (int index = 0; index < 4; index++) {
+            final int priority = index % 2;
+            final Thread thread = new Thread(() -> {
+                try {
+                    for (int meal = 0; meal < 2000; meal++) {
+                        if (chair.tryAcquire(priority)) {
+                            if (sitting.incrementAndGet() != 1) {
+                                overlaps.incrementAndGet();
+                            }
+                            meals.incrementAndGet();
+                            sitting.decrementAndGet();
+                            chair.release();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+
+        Assert.assertEquals(0, overlaps.get());
+        Assert.assertEquals(8000, meals.get());
+        Assert.assertEquals(0, chair.getWaitingPhilosopherCount());
+    }
+
+    @Test
+    public void firstAvailableChairIsKept() throws Exception {
+        final List<Chair> chairs = new ArrayList<>();
+        for (int index = 0; index < 3; index++) {
+            chairs.add(new Chair.Builder().create());
+        }
+        Assert.assertTrue(chairs.get(0).tryAcquire(0, TimeUnit.NANOSECONDS));
+
+        final Chair acquired = Chair.acquireAnyAsync(chairs).get(5, TimeUnit.SECONDS).get();
+        Assert.assertNotSame(chairs.get(0), acquired);
+        // Only a single chair is kept, the others are released again
+        Assert.assertEquals(2, chairs.stream().filter(chair -> chair.getWaitingPhilosopherCount() > 0).count());
+        Assert.assertEquals(1, acquired.getWaitingPhilosopherCount());
+    }
+
+    @Test
+    public void noChairIsKeptIfAllAreBusy() throws Exception {
+        final List<Chair> chairs = new ArrayList<>();
+        for (int index = 0; index < 2; index++) {
+            final Chair chair = new Chair.Builder().create();
+            Assert.assertTrue(chair.tryAcquire(0, TimeUnit.NANOSECONDS));
+            chairs.add(chair);
+        }
+        Assert.assertFalse(Chair.acquireAnyAsync(chairs).get(5, TimeUnit.SECONDS).isPresent());
+        Assert.assertFalse(Chair.acquireAnyAsync(new ArrayList<Chair>()).get(5, TimeUnit.SECONDS).isPresent());
+        chairs.forEach(chair -> Assert.assertEquals(1, chair.getWaitingPhilosopherCount()));
+    }
+
+    private static CompletableFuture<Boolean> acquireInBackground(final Chair chair, final int priority) {
+        return acquireInBackground(chair, priority, new ArrayList<>());
+    }
+
+    private static CompletableFuture<Boolean> acquireInBackground(final Chair chair, final int priority, final List<Integer> order) {
+        final CompletableFuture<Boolean> acquired = new CompletableFuture<>();
+        final Thread thread = new Thread(() -> {
+            try {
+                final boolean result = chair.tryAcquire(priority);
+                order.add(priority);
+                acquired.complete(result);
+            } catch (InterruptedException e) {
+                acquired.completeExceptionally(e);
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        return acquired;
+    }
+
+    private static void await(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.nanoTime() + TIMEOUT;
+        while (!condition.getAsBoolean()) {
+            Assert.assertTrue("Timed out", System.nanoTime() < deadline);
+            Thread.sleep(5);
+        }
+    }
+}
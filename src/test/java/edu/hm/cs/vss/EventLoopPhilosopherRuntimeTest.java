@@ -0,0 +1,96 @@
+package edu.hm.cs.vss;
+
+import edu.hm.cs.vss.local.LocalTableMaster;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Created by Fabio Hellmann on 18.10.2016.
+ */
+public class EventLoopPhilosopherRuntimeTest {
+    private static final long TIMEOUT = TimeUnit.SECONDS.toNanos(10);
+
+    private final EventLoopPhilosopherRuntime runtime = new EventLoopPhilosopherRuntime(2);
+    private final List<Philosopher> philosophers = new ArrayList<>();
+
+    @After
+    public void stopRuntime() throws Exception {
+        philosophers.forEach(Philosopher::interrupt);
+        runtime.shutdown();
+        Assert.assertTrue(runtime.awaitTermination(TimeUnit.SECONDS.toMillis(5)));
+    }
+
+    @Test
+    public void manyPhilosophersLiveOnTwoThreads() throws Exception {
+        final Table table = createTable(9);
+        final int threadCount = Thread.activeCount();
+        for (int index = 0; index < 100; index++) {
+            start(createPhilosopher(table, 0));
+        }
+        Assert.assertTrue(Thread.activeCount() <= threadCount + 2);
+        await(() -> philosophers.stream().allMatch(philosopher -> philosopher.getMealCount() >= 2));
+
+        // Interrupted philosophers leave the table on their next event
+        philosophers.forEach(Philosopher::interrupt);
+        for (Philosopher philosopher : philosophers) {
+            philosopher.join(TimeUnit.SECONDS.toMillis(5));
+            Assert.assertFalse(philosopher.getName() + " is still alive", philosopher.isAlive());
+        }
+        table.getChairs().forEach(chair -> {
+            Assert.assertEquals(0, chair.getWaitingPhilosopherCount());
+            Assert.assertTrue(chair.getFork().tryAcquire());
+        });
+    }
+
+    @Test
+    public void bannedPhilosopherIsResumedByHisAdmission() throws Exception {
+        final Table table = createTable(3);
+        final int aheadMeals = TableMaster.MAX_DEVIATION + 5;
+        final Philosopher lagging = createPhilosopher(table, 0);
+        final Philosopher ahead = createPhilosopher(table, aheadMeals);
+        // The table master has to know the lagging philosopher before the other one arrives
+        start(lagging);
+        await(() -> lagging.getMealCount() > 0);
+        start(ahead);
+
+        // The philosopher ahead waits without blocking the event loop until the other one catches up
+        await(() -> ahead.getMealCount() > aheadMeals);
+        Assert.assertTrue(ahead.getStatistics().getBanCount() > 0);
+        Assert.assertTrue(lagging.getMealCount() >= 5);
+    }
+
+    private void start(final Philosopher philosopher) {
+        philosophers.add(philosopher);
+        philosopher.start();
+    }
+
+    private Philosopher createPhilosopher(final Table table, final int takenMeals) {
+        return new Philosopher.Builder()
+                .setIdName()
+                .setTable(table)
+                .setRuntime(runtime)
+                .setTakenMeals(takenMeals)
+                .create();
+    }
+
+    private static Table createTable(final int chairCount) {
+        return new Table.Builder()
+                .withChairCount(chairCount)
+                .withTableMaster(new LocalTableMaster())
+                .createLocal();
+    }
+
+    private static void await(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.nanoTime() + TIMEOUT;
+        while (!condition.getAsBoolean()) {
+            Assert.assertTrue("Timed out", System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+    }
+}
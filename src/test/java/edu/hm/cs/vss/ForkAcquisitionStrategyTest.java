@@ -0,0 +1,151 @@
+package edu.hm.cs.vss;
+
+import edu.hm.cs.vss.local.LocalTableMaster;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Created by Fabio Hellmann on 18.10.2016.
+ */
+@RunWith(Parameterized.class)
+public class ForkAcquisitionStrategyTest {
+    private static final int MEALS = 500;
+
+    private final ForkAcquisitionStrategy strategy;
+
+    public ForkAcquisitionStrategyTest(final String name, final ForkAcquisitionStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> getStrategies() {
+        return Arrays.asList(new Object[][]{
+                {"backOff", ForkAcquisitionStrategy.backOff()},
+                {"resourceOrdering", ForkAcquisitionStrategy.resourceOrdering()},
+                {"atomicPair", ForkAcquisitionStrategy.atomicPair()},
+                {"orderedTokens", ForkAcquisitionStrategy.orderedTokens()}
+        });
+    }
+
+    @Test
+    public void neighboursNeverShareAForkAndNobodyStarves() throws Exception {
+        final Table table = createTable(6);
+        final List<Chair> chairs = table.getChairs().collect(Collectors.toList());
+        final Map<Fork, AtomicInteger> holders = new ConcurrentHashMap<>();
+        chairs.forEach(chair -> holders.put(chair.getFork(), new AtomicInteger()));
+        final AtomicInteger overlaps = new AtomicInteger();
+        final List<CompletableFuture<Integer>> meals = new ArrayList<>();
+
+        // Every philosopher sits on his own chair, so all of them compete for the forks of their neighbours
+        for (Chair chair : chairs) {
+            final Philosopher philosopher = createPhilosopher(table);
+            final Chair neighbourChair = table.getNeighbourChair(chair);
+            final CompletableFuture<Integer> eaten = new CompletableFuture<>();
+            meals.add(eaten);
+            final Thread thread = new Thread(() -> {
+                final List<Fork> forks = new ArrayList<>(2);
+                try {
+                    for (int meal = 0; meal < MEALS; meal++) {
+                        strategy.acquire(philosopher, chair, neighbourChair, forks);
+                        Assert.assertEquals(2, forks.size());
+                        for (Fork fork : forks) {
+                            if (holders.get(fork).incrementAndGet() != 1) {
+                                overlaps.incrementAndGet();
+                            }
+                        }
+                        for (Fork fork : forks) {
+                            holders.get(fork).decrementAndGet();
+                        }
+                        strategy.release(philosopher, chair, forks);
+                        Assert.assertTrue(forks.isEmpty());
+                    }
+                    eaten.complete(MEALS);
+                } catch (Throwable e) {
+                    eaten.completeExceptionally(e);
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        // A deadlock would never finish
+        for (CompletableFuture<Integer> eaten : meals) {
+            Assert.assertEquals(Integer.valueOf(MEALS), eaten.get(30, TimeUnit.SECONDS));
+        }
+        Assert.assertEquals(0, overlaps.get());
+        for (Chair chair : chairs) {
+            Assert.assertTrue(chair.getFork().tryAcquire());
+        }
+    }
+
+    @Test
+    public void singleChairSharesHisFork() throws Exception {
+        final Table table = createTable(2);
+        final Chair chair = table.getChairs().findFirst().get();
+        final Philosopher philosopher = createPhilosopher(table);
+        final List<Fork> forks = new ArrayList<>(2);
+
+        strategy.acquire(philosopher, chair, table.getNeighbourChair(chair), forks);
+        Assert.assertEquals(1, forks.size());
+        Assert.assertFalse(chair.getFork().tryAcquire());
+        strategy.release(philosopher, chair, forks);
+        Assert.assertTrue(chair.getFork().tryAcquire());
+    }
+
+    @Test
+    public void interruptedPhilosopherPutsDownHisForks() throws Exception {
+        final Table table = createTable(3);
+        final Chair chair = table.getChairs().findFirst().get();
+        final Chair neighbourChair = table.getNeighbourChair(chair);
+        final Philosopher philosopher = createPhilosopher(table);
+        final List<Fork> forks = new ArrayList<>(2);
+        Assert.assertTrue(neighbourChair.getFork().tryAcquire());
+
+        final CompletableFuture<Void> acquired = new CompletableFuture<>();
+        final Thread thread = new Thread(() -> {
+            try {
+                strategy.acquire(philosopher, chair, neighbourChair, forks);
+                acquired.complete(null);
+            } catch (InterruptedException e) {
+                acquired.completeExceptionally(e);
+            }
+        });
+        thread.start();
+        Thread.sleep(20);
+        philosopher.interrupt();
+        thread.interrupt();
+        thread.join(TimeUnit.SECONDS.toMillis(5));
+
+        Assert.assertTrue(acquired.isCompletedExceptionally());
+        Assert.assertTrue(forks.isEmpty());
+        Assert.assertTrue(chair.getFork().tryAcquire());
+    }
+
+    private Philosopher createPhilosopher(final Table table) {
+        return new Philosopher.Builder()
+                .setIdName()
+                .setTable(table)
+                .setForkAcquisitionStrategy(strategy)
+                .create();
+    }
+
+    private static Table createTable(final int chairCount) {
+        return new Table.Builder()
+                .withChairCount(chairCount)
+                .withTableMaster(new LocalTableMaster())
+                .createLocal();
+    }
+}
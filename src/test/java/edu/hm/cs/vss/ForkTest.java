@@ -0,0 +1,142 @@
+package edu.hm.cs.vss;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Created by Fabio Hellmann on 18.10.2016.
+ */
+public class ForkTest {
+    private static final WaitStrategy PARK_ONLY = new WaitStrategy.Builder()
+            .setSpinCount(0)
+            .setYieldCount(0)
+            .setParkTime(5, TimeUnit.SECONDS)
+            .create();
+
+    @Test
+    public void freeForkIsAcquiredWithoutWaiting() throws Exception {
+        final Fork fork = createFork();
+        Assert.assertTrue(fork.acquire(PARK_ONLY));
+        Assert.assertFalse(fork.tryAcquire());
+        fork.release();
+        Assert.assertTrue(fork.tryAcquire());
+    }
+
+    @Test
+    public void forkIsHandedOverToTheParkedPhilosopher() throws Exception {
+        final Fork fork = createFork();
+        Assert.assertTrue(fork.tryAcquire());
+        final Thread[] waiter = new Thread[1];
+        final CompletableFuture<Boolean> acquired = acquireInBackground(fork, PARK_ONLY, waiter);
+        awaitParked(waiter[0]);
+
+        fork.release();
+        Assert.assertTrue(acquired.get(5, TimeUnit.SECONDS));
+        // The fork never was free in between
+        Assert.assertFalse(fork.tryAcquire());
+        fork.release();
+        Assert.assertTrue(fork.tryAcquire());
+    }
+
+    @Test
+    public void waiterGivesUpAfterHisParkTime() throws Exception {
+        final Fork fork = createFork();
+        Assert.assertTrue(fork.tryAcquire());
+        final WaitStrategy strategy = new WaitStrategy.Builder()
+                .setSpinCount(0)
+                .setYieldCount(0)
+                .setParkTime(20, TimeUnit.MILLISECONDS)
+                .create();
+
+        final long start = System.nanoTime();
+        Assert.assertFalse(fork.acquire(strategy));
+        Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(20));
+
+        // The cancelled waiter isn't handed the fork
+        fork.release();
+        Assert.assertTrue(fork.tryAcquire());
+    }
+
+    @Test
+    public void interruptedWaiterDoesNotKeepTheFork() throws Exception {
+        final Fork fork = createFork();
+        Assert.assertTrue(fork.tryAcquire());
+        final Thread[] waiter = new Thread[1];
+        final CompletableFuture<Boolean> acquired = acquireInBackground(fork, PARK_ONLY, waiter);
+        awaitParked(waiter[0]);
+
+        waiter[0].interrupt();
+        waiter[0].join(TimeUnit.SECONDS.toMillis(5));
+        Assert.assertTrue(acquired.isCompletedExceptionally());
+        fork.release();
+        Assert.assertTrue(fork.tryAcquire());
+    }
+
+    @Test
+    public void onlyOnePhilosopherHoldsTheFork() throws Exception {
+        final Fork fork = createFork();
+        final AtomicInteger holders = new AtomicInteger();
+        final AtomicInteger overlaps = new AtomicInteger();
+        final AtomicInteger meals = new AtomicInteger();
+        final List<Thread> threads = new ArrayList<>();
+        for (int index = 0; index < 4; index++) {
+            final Thread thread = new Thread(() -> {
+                try {
+                    for (int meal = 0; meal < 2000; meal++) {
+                        if (fork.acquire(WaitStrategy.DEFAULT) || fork.acquire(PARK_ONLY)) {
+                            if (holders.incrementAndGet() != 1) {
+                                overlaps.incrementAndGet();
+                            }
+                            meals.incrementAndGet();
+                            holders.decrementAndGet();
+                            fork.release();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+
+        Assert.assertEquals(0, overlaps.get());
+        Assert.assertEquals(8000, meals.get());
+        Assert.assertTrue(fork.tryAcquire());
+    }
+
+    private static Fork createFork() {
+        return new Chair.Builder().create().getFork();
+    }
+
+    private static CompletableFuture<Boolean> acquireInBackground(final Fork fork, final WaitStrategy strategy, final Thread[] thread) {
+        final CompletableFuture<Boolean> acquired = new CompletableFuture<>();
+        thread[0] = new Thread(() -> {
+            try {
+                acquired.complete(fork.acquire(strategy));
+            } catch (InterruptedException e) {
+                acquired.completeExceptionally(e);
+            }
+        });
+        thread[0].setDaemon(true);
+        thread[0].start();
+        return acquired;
+    }
+
+    private static void awaitParked(final Thread thread) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.TIMED_WAITING) {
+            Assert.assertTrue("Timed out", System.nanoTime() < deadline);
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package edu.hm.cs.vss;
+
+import edu.hm.cs.vss.local.LocalTableMaster;
+import edu.hm.cs.vss.remote.TableTransport;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Created by Fabio Hellmann on 18.10.2016.
+ */
+@RunWith(Parameterized.class)
+public class PhilosopherRuntimeTest {
+    private static final long TIMEOUT = TimeUnit.SECONDS.toNanos(10);
+    private static final int PHILOSOPHER_COUNT = 5;
+
+    private final String runtimeName;
+    private final List<Philosopher> philosophers = new ArrayList<>();
+    private PhilosopherRuntime runtime;
+    private TableTransport transport;
+    private Table table;
+
+    public PhilosopherRuntimeTest(final String runtimeName) {
+        this.runtimeName = runtimeName;
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> getRuntimes() {
+        return Arrays.asList(new Object[][]{{"dedicated"}, {"pooled"}, {"virtual"}, {"eventLoop"}});
+    }
+
+    @Before
+    public void createTable() throws Exception {
+        switch (runtimeName) {
+            case "pooled":
+                runtime = PhilosopherRuntime.pooled(PHILOSOPHER_COUNT);
+                break;
+            case "virtual":
+                runtime = PhilosopherRuntime.virtualThreads();
+                break;
+            case "eventLoop":
+                runtime = PhilosopherRuntime.eventLoop(2);
+                break;
+            default:
+                runtime = PhilosopherRuntime.dedicatedThreads();
+        }
+        try (ServerSocket socket = new ServerSocket(0)) {
+            transport = TableTransport.nio("127.0.0.1", socket.getLocalPort());
+        }
+        table = new Table.Builder()
+                .withChairCount(4)
+                .withTableMaster(new LocalTableMaster())
+                .withTransport(transport)
+                .createNetwork();
+    }
+
+    @After
+    public void destroyTable() throws Exception {
+        for (Philosopher philosopher : philosophers) {
+            table.removePhilosopher(philosopher);
+        }
+        for (Philosopher philosopher : philosophers) {
+            philosopher.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        runtime.shutdown();
+        transport.close();
+    }
+
+    @Test
+    public void removedPhilosophersLeaveTheTable() throws Exception {
+        addPhilosophers();
+        await(() -> philosophers.stream().allMatch(philosopher -> philosopher.getMealCount() > 0));
+
+        for (Philosopher philosopher : philosophers) {
+            table.removePhilosopher(philosopher);
+        }
+        assertLeftTheTable();
+        Assert.assertEquals(0, table.getPhilosophers().count());
+    }
+
+    @Test
+    public void interruptedPhilosopherIsRestoredOnHisRuntime() throws Exception {
+        final Philosopher philosopher = createPhilosopher(0);
+        table.addPhilosopher(philosopher);
+        await(() -> philosopher.getMealCount() >= 2);
+
+        // Like a backup: interrupt the philosopher and create him again with his meals on the same runtime
+        philosopher.interrupt();
+        philosopher.join(TimeUnit.SECONDS.toMillis(5));
+        Assert.assertFalse(philosopher.isAlive());
+        final int mealCount = philosopher.getMealCount();
+
+        final Philosopher restored = createPhilosopher(mealCount);
+        Assert.assertSame(runtime, restored.getRuntime());
+        philosophers.add(restored);
+        table.addPhilosopher(restored);
+        await(() -> restored.getMealCount() > mealCount);
+        Assert.assertEquals(mealCount, philosopher.getMealCount());
+    }
+
+    @Test
+    public void shutdownStopsThePhilosophers() throws Exception {
+        Assume.assumeTrue("The runtime has no threads of his own", runtime instanceof PooledPhilosopherRuntime
+                || runtime instanceof VirtualThreadPhilosopherRuntime
+                || runtime instanceof EventLoopPhilosopherRuntime);
+        addPhilosophers();
+        await(() -> philosophers.stream().allMatch(philosopher -> philosopher.getMealCount() > 0));
+
+        runtime.shutdown();
+        assertLeftTheTable();
+        if (runtime instanceof EventLoopPhilosopherRuntime) {
+            Assert.assertTrue(((EventLoopPhilosopherRuntime) runtime).awaitTermination(TimeUnit.SECONDS.toMillis(5)));
+        }
+        try {
+            runtime.start(createPhilosopher(0));
+            Assert.fail("A shut down runtime must not start philosophers");
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+    }
+
+    private void addPhilosophers() {
+        for (int index = 0; index < PHILOSOPHER_COUNT; index++) {
+            final Philosopher philosopher = createPhilosopher(0);
+            philosophers.add(philosopher);
+            table.addPhilosopher(philosopher);
+        }
+    }
+
+    private Philosopher createPhilosopher(final int takenMeals) {
+        return new Philosopher.Builder()
+                .setIdName()
+                .setTable(table)
+                .setRuntime(runtime)
+                .setTakenMeals(takenMeals)
+                .create();
+    }
+
+    private void assertLeftTheTable() throws InterruptedException {
+        for (Philosopher philosopher : philosophers) {
+            philosopher.join(TimeUnit.SECONDS.toMillis(5));
+            Assert.assertFalse(philosopher.getName() + " is still alive", philosopher.isAlive());
+        }
+        // Nobody blocks a seat or a fork anymore
+        table.getChairs().forEach(chair -> {
+            Assert.assertEquals(0, chair.getWaitingPhilosopherCount());
+            Assert.assertTrue(chair.getFork().tryAcquire());
+            chair.getFork().release();
+        });
+    }
+
+    private static void await(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.nanoTime() + TIMEOUT;
+        while (!condition.getAsBoolean()) {
+            Assert.assertTrue("Timed out", System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+    }
+}
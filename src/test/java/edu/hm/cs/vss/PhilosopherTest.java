@@ -0,0 +1,157 @@
+package edu.hm.cs.vss;
+
+import edu.hm.cs.vss.local.LocalTableMaster;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by Fabio Hellmann on 18.10.2016.
+ */
+public class PhilosopherTest {
+    @Test
+    public void statisticsCountEveryMeal() throws Exception {
+        final Philosopher philosopher = createPhilosopher(createTable(3));
+        final int threadCount = 4;
+        final int meals = 10000;
+
+        // The counters are updated from several threads at once, e.g. by a backup and the philosopher himself
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<>();
+        for (int index = 0; index < threadCount; index++) {
+            final Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int meal = 0; meal < meals; meal++) {
+                    philosopher.onEatStart(3);
+                    philosopher.onEatEnd(5);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+
+        final PhilosopherStatistics statistics = philosopher.getStatistics();
+        Assert.assertEquals(threadCount * meals, statistics.getMealCount());
+        Assert.assertEquals(threadCount * meals, philosopher.getMealCount());
+        Assert.assertEquals(3L * threadCount * meals, statistics.getWaitTime(TimeUnit.NANOSECONDS));
+        Assert.assertEquals(5L * threadCount * meals, statistics.getEatTime(TimeUnit.NANOSECONDS));
+        Assert.assertEquals(0, statistics.getBanCount());
+    }
+
+    @Test
+    public void statisticsFollowTheMealCount() throws Exception {
+        final Philosopher philosopher = new Philosopher.Builder()
+                .setTable(createTable(3))
+                .setTakenMeals(7)
+                .create();
+        Assert.assertEquals(7, philosopher.getStatistics().getMealCount());
+
+        philosopher.incrementMealCount();
+        Assert.assertEquals(8, philosopher.getStatistics().getMealCount());
+        philosopher.setMealCount(42);
+        Assert.assertEquals(42, philosopher.getStatistics().getMealCount());
+        Assert.assertEquals(0, philosopher.getStatistics().getWaitTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void sessionStaysWithinTheMaxDeviation() throws Exception {
+        Assert.assertTrue(Philosopher.MAX_SESSION_MEALS > 1);
+        Assert.assertTrue(Philosopher.MAX_SESSION_MEALS <= TableMaster.MAX_DEVIATION);
+        final Table table = createTable(3);
+        final Philosopher philosopher = createSessionPhilosopher(table, 0);
+        createSessionPhilosopher(table, 0); // Keeps the minimum at zero
+        final Chair chair = table.getChairs().findFirst().get();
+        Assert.assertTrue(chair.tryAcquire(0, TimeUnit.NANOSECONDS));
+
+        // The table master doesn't hear about the meals until the philosopher stands up
+        Assert.assertEquals(Philosopher.MAX_SESSION_MEALS, eatSession(philosopher, chair));
+        Assert.assertTrue(philosopher.getMealCount() <= TableMaster.MAX_DEVIATION);
+        Assert.assertFalse(philosopher.isSessionContinued(chair, Philosopher.MAX_SESSION_MEALS));
+        chair.release();
+    }
+
+    @Test
+    public void sessionEndsWhenTheTableMasterBansThePhilosopher() throws Exception {
+        final Table table = createTable(3);
+        final int mealCount = TableMaster.MAX_DEVIATION - 2;
+        final Philosopher philosopher = createSessionPhilosopher(table, mealCount);
+        createSessionPhilosopher(table, 0);
+        final Chair chair = table.getChairs().findFirst().get();
+        Assert.assertTrue(chair.tryAcquire(0, TimeUnit.NANOSECONDS));
+
+        Assert.assertEquals(3, eatSession(philosopher, chair));
+        Assert.assertEquals(TableMaster.MAX_DEVIATION + 1, philosopher.getMealCount());
+        chair.release();
+    }
+
+    @Test
+    public void sessionEndsWhenSomebodyWaits() throws Exception {
+        final Table table = createTable(3);
+        final Philosopher philosopher = createSessionPhilosopher(table, 0);
+        final Chair chair = table.getChairs().findFirst().get();
+        final Chair neighbourChair = table.getNeighbourChair(chair);
+        Assert.assertTrue(chair.tryAcquire(0, TimeUnit.NANOSECONDS));
+        Assert.assertTrue(philosopher.isSessionContinued(chair, 1));
+
+        Assert.assertTrue(neighbourChair.tryAcquire(0, TimeUnit.NANOSECONDS));
+        Assert.assertFalse(philosopher.isSessionContinued(chair, 1));
+        neighbourChair.release();
+        Assert.assertTrue(philosopher.isSessionContinued(chair, 1));
+        chair.release();
+
+        // Without sessions the philosopher always stands up
+        final Philosopher standing = createPhilosopher(table);
+        Assert.assertFalse(standing.isSessionContinued(chair, 0));
+    }
+
+    /**
+     * Eat on the same seat as long as the philosopher would keep it.
+     *
+     * @return the amount of meals of the session.
+     */
+    private static int eatSession(final Philosopher philosopher, final Chair chair) {
+        int sessionMeals = 0;
+        do {
+            philosopher.incrementMealCount();
+            sessionMeals++;
+        } while (philosopher.isSessionContinued(chair, sessionMeals));
+        return sessionMeals;
+    }
+
+    private static Philosopher createSessionPhilosopher(final Table table, final int mealCount) {
+        final Philosopher philosopher = new Philosopher.Builder()
+                .setIdName()
+                .setTable(table)
+                .setTakenMeals(mealCount)
+                .setMultiMealSessions(true)
+                .create();
+        table.getTableMaster().register(philosopher);
+        return philosopher;
+    }
+
+    private static Philosopher createPhilosopher(final Table table) {
+        return new Philosopher.Builder()
+                .setIdName()
+                .setTable(table)
+                .create();
+    }
+
+    private static Table createTable(final int chairCount) {
+        return new Table.Builder()
+                .withChairCount(chairCount)
+                .withTableMaster(new LocalTableMaster())
+                .createLocal();
+    }
+}
@@ -0,0 +1,95 @@
+package edu.hm.cs.vss;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by Fabio Hellmann on 18.10.2016.
+ */
+public class SeatWaitStatisticsTest {
+    @Test
+    public void nothingRecordedIsZero() throws Exception {
+        final SeatWaitStatistics statistics = new SeatWaitStatistics();
+        Assert.assertEquals(0, statistics.getCount(true));
+        Assert.assertEquals(0, statistics.getPercentile(false, 99, TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void smallWaitsAreExact() throws Exception {
+        final SeatWaitStatistics statistics = new SeatWaitStatistics();
+        for (int waitTime = 0; waitTime < 8; waitTime++) {
+            statistics.record(false, waitTime);
+        }
+        Assert.assertEquals(8, statistics.getCount(false));
+        Assert.assertEquals(0, statistics.getPercentile(false, 0, TimeUnit.NANOSECONDS));
+        Assert.assertEquals(3, statistics.getPercentile(false, 50, TimeUnit.NANOSECONDS));
+        Assert.assertEquals(7, statistics.getPercentile(false, 100, TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void percentilesAreAccurateToABucket() throws Exception {
+        final SeatWaitStatistics statistics = new SeatWaitStatistics();
+        final int count = 100_000;
+        for (int waitTime = 1; waitTime <= count; waitTime++) {
+            statistics.record(false, waitTime * 1000L);
+        }
+        Assert.assertEquals(count, statistics.getCount(false));
+        Assert.assertEquals(0, statistics.getCount(true));
+
+        // The reported wait is never below the exact one and at most one sub bucket (12.5%) above
+        for (double percentile : new double[]{1, 50, 90, 99, 99.9, 100}) {
+            final long exact = (long) Math.ceil(count * percentile / 100.0) * 1000L;
+            final long reported = statistics.getPercentile(false, percentile, TimeUnit.NANOSECONDS);
+            Assert.assertTrue(percentile + ": " + reported + " < " + exact, reported >= exact);
+            Assert.assertTrue(percentile + ": " + reported + " > " + exact, reported <= exact + exact / 8);
+        }
+        Assert.assertEquals(statistics.getPercentile(false, 50, TimeUnit.NANOSECONDS) / 1000,
+                statistics.getPercentile(false, 50, TimeUnit.MICROSECONDS));
+    }
+
+    @Test
+    public void hungryAndNormalWaitsAreSeparated() throws Exception {
+        final SeatWaitStatistics statistics = new SeatWaitStatistics();
+        statistics.record(true, 10);
+        statistics.record(false, 1_000_000);
+        statistics.record(false, -5); // A clock going backwards counts as no wait
+
+        Assert.assertEquals(1, statistics.getCount(true));
+        Assert.assertEquals(2, statistics.getCount(false));
+        Assert.assertTrue(statistics.getPercentile(true, 100, TimeUnit.NANOSECONDS) < 12);
+        Assert.assertEquals(0, statistics.getPercentile(false, 50, TimeUnit.NANOSECONDS));
+        Assert.assertTrue(statistics.getPercentile(false, 100, TimeUnit.NANOSECONDS) >= 1_000_000);
+
+        statistics.reset();
+        Assert.assertEquals(0, statistics.getCount(true));
+        Assert.assertEquals(0, statistics.getCount(false));
+    }
+
+    @Test
+    public void concurrentWaitsAreAllCounted() throws Exception {
+        final SeatWaitStatistics statistics = new SeatWaitStatistics();
+        final int threadCount = 4;
+        final int waits = 10000;
+        final List<Thread> threads = new ArrayList<>();
+        for (int index = 0; index < threadCount; index++) {
+            final boolean hungry = index % 2 == 0;
+            final Thread thread = new Thread(() -> {
+                for (int wait = 0; wait < waits; wait++) {
+                    statistics.record(hungry, wait);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+
+        Assert.assertEquals(threadCount / 2 * waits, statistics.getCount(true));
+        Assert.assertEquals(threadCount / 2 * waits, statistics.getCount(false));
+    }
+}
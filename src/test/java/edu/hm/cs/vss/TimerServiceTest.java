@@ -0,0 +1,92 @@
+package edu.hm.cs.vss;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by Fabio Hellmann on 18.10.2016.
+ */
+public class TimerServiceTest {
+    private static final long TICK = TimeUnit.NANOSECONDS.convert(100, TimeUnit.MICROSECONDS);
+
+    @Test
+    public void sleepNeverReturnsTooEarly() throws Exception {
+        final TimerService service = new TimerService(TICK);
+        try {
+            for (int sleep = 0; sleep < 20; sleep++) {
+                final long start = System.nanoTime();
+                service.sleep(2, TimeUnit.MILLISECONDS);
+                Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(2));
+            }
+            Assert.assertEquals(20, service.getStatistics().getCount());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    public void spinningSleepStaysCloseToTheDeadline() throws Exception {
+        final TimerService service = new TimerService(TICK, true);
+        try {
+            final long[] deviations = new long[50];
+            long totalDeviation = 0;
+            for (int sleep = 0; sleep < deviations.length; sleep++) {
+                final long start = System.nanoTime();
+                service.sleep(1, TimeUnit.MILLISECONDS);
+                deviations[sleep] = System.nanoTime() - start - TimeUnit.MILLISECONDS.toNanos(1);
+                Assert.assertTrue(deviations[sleep] >= 0);
+                totalDeviation += deviations[sleep];
+            }
+            // The recorded overshoot is the one the sleeping thread saw
+            final DelayStatistics statistics = service.getStatistics();
+            Assert.assertEquals(deviations.length, statistics.getCount());
+            Arrays.sort(deviations);
+            Assert.assertTrue(statistics.getMaxDeviation(TimeUnit.NANOSECONDS) <= deviations[deviations.length - 1]);
+            Assert.assertTrue(statistics.getAverageDeviation(TimeUnit.NANOSECONDS) <= totalDeviation / deviations.length);
+            // A busy machine may preempt most of the sleepers for a whole time slice, but an undisturbed sleep
+            // wakes up within a few ticks
+            Assert.assertTrue(deviations[0] < 5 * TICK);
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    public void philosophersSleepOnTheSpinningDefault() throws Exception {
+        Assert.assertTrue(TimerService.getDefault().isSpinning());
+        final DelayStatistics statistics = TimerService.getDefault().getStatistics();
+        final long count = statistics.getCount();
+        Clock.system().sleep(1, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(statistics.getCount() > count);
+    }
+
+    @Test
+    public void failingTaskDoesNotStopTheTimerThread() throws Exception {
+        final TimerService service = new TimerService(TICK);
+        try {
+            final CountDownLatch executed = new CountDownLatch(1);
+            service.schedule(() -> {
+                throw new IllegalStateException("Expected by the test");
+            }, 1, TimeUnit.MILLISECONDS);
+            service.schedule(executed::countDown, 5, TimeUnit.MILLISECONDS);
+            Assert.assertTrue(executed.await(5, TimeUnit.SECONDS));
+            Assert.assertEquals(2, service.getStatistics().getCount());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shutDownServiceRejectsTasks() throws Exception {
+        final TimerService service = new TimerService(TICK);
+        service.shutdown();
+        // Sleeping doesn't need the timer thread
+        service.sleep(1, TimeUnit.MILLISECONDS);
+        service.schedule(() -> {
+        }, 1, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,84 @@
+package edu.hm.cs.vss;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by Fabio Hellmann on 18.10.2016.
+ */
+public class TimerWheelTest {
+    private static final long TICK = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void timersOfAllLevelsCascadeDownAndExpireInTime() {
+        final long base = System.nanoTime();
+        final TimerWheel wheel = new TimerWheel(TICK, null);
+        // One timer for the first level and one for every level above it
+        final long[] delays = {5, 300, 70000, 17000000};
+        final List<Long> expired = new ArrayList<>();
+        for (long delay : delays) {
+            wheel.schedule(() -> expired.add(delay), delay * TICK);
+        }
+
+        for (int index = 0; index < delays.length; index++) {
+            final long delay = delays[index];
+            Assert.assertEquals(0, wheel.expire(base + (delay - 1) * TICK));
+            Assert.assertEquals("Expired too early", index, expired.size());
+            Assert.assertEquals(1, wheel.expire(base + (delay + 2) * TICK));
+            Assert.assertEquals(Long.valueOf(delay), expired.get(index));
+        }
+        Assert.assertTrue(wheel.isEmpty());
+    }
+
+    @Test
+    public void timersOfTheSameTickExpireTogether() {
+        final long base = System.nanoTime();
+        final TimerWheel wheel = new TimerWheel(TICK, null);
+        final List<Integer> expired = new ArrayList<>();
+        for (int timer = 0; timer < 3; timer++) {
+            final int id = timer;
+            wheel.schedule(() -> expired.add(id), 1000 * TICK);
+        }
+
+        Assert.assertEquals(3, wheel.expire(base + 1002 * TICK));
+        Assert.assertEquals(Arrays.asList(0, 1, 2), expired);
+    }
+
+    @Test
+    public void failingTaskDoesNotStopTheOthers() {
+        final long base = System.nanoTime();
+        final TimerWheel wheel = new TimerWheel(TICK, null);
+        final List<String> expired = new ArrayList<>();
+        final Thread thread = Thread.currentThread();
+        final Thread.UncaughtExceptionHandler handler = thread.getUncaughtExceptionHandler();
+        thread.setUncaughtExceptionHandler((failed, e) -> expired.add(e.getMessage()));
+        try {
+            wheel.schedule(() -> {
+                throw new IllegalStateException("failed");
+            }, TICK);
+            wheel.schedule(() -> expired.add("next"), TICK);
+
+            Assert.assertEquals(2, wheel.expire(base + 3 * TICK));
+            Assert.assertEquals(Arrays.asList("failed", "next"), expired);
+        } finally {
+            thread.setUncaughtExceptionHandler(handler);
+        }
+    }
+
+    @Test
+    public void expiredTimersAreRecorded() {
+        final long base = System.nanoTime();
+        final DelayStatistics statistics = new DelayStatistics();
+        final TimerWheel wheel = new TimerWheel(TICK, statistics);
+        wheel.schedule(() -> {
+        }, 10 * TICK);
+
+        wheel.expire(base + 12 * TICK);
+        Assert.assertEquals(1, statistics.getCount());
+    }
+}
@@ -0,0 +1,98 @@
+package edu.hm.cs.vss;
+
+import edu.hm.cs.vss.local.LocalTableMaster;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Created by Fabio Hellmann on 18.10.2016.
+ */
+public class VirtualClockTest {
+    @Test
+    public void timeJumpsFromEventToEvent() throws Exception {
+        final VirtualClock clock = new VirtualClock(1, 1000);
+        final List<Long> times = new ArrayList<>();
+        clock.schedule(() -> times.add(clock.nanoTime()), 20, TimeUnit.MILLISECONDS);
+        clock.schedule(() -> {
+            times.add(clock.nanoTime());
+            clock.schedule(() -> times.add(clock.nanoTime()), 5, TimeUnit.MILLISECONDS);
+        }, 10, TimeUnit.MILLISECONDS);
+        clock.schedule(() -> times.add(clock.nanoTime()), 1, TimeUnit.SECONDS);
+
+        Assert.assertEquals(3, clock.advance(100, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(3, times.size());
+        Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(10), (long) times.get(0));
+        Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(15), (long) times.get(1));
+        Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(20), (long) times.get(2));
+        // The clock stands at the end of the advance, the last event is still pending
+        Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(100), clock.nanoTime());
+        Assert.assertEquals(1100, clock.currentTimeMillis());
+        Assert.assertEquals(1, clock.getPendingEventCount());
+    }
+
+    @Test
+    public void simultaneousEventsAreOrderedBySeed() throws Exception {
+        Assert.assertEquals(getSimultaneousOrder(7), getSimultaneousOrder(7));
+        Assert.assertNotEquals(getSimultaneousOrder(7), getSimultaneousOrder(8));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void sleepIsNotSupported() throws Exception {
+        new VirtualClock(1).sleep(1, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void simulationIsReplayedWithTheSameSeed() throws Exception {
+        final List<Integer> meals = simulate(42);
+        Assert.assertTrue(meals.stream().mapToInt(Integer::intValue).sum() > 0);
+        Assert.assertEquals(meals, simulate(42));
+        Assert.assertNotEquals(meals, simulate(43));
+    }
+
+    private static List<Integer> getSimultaneousOrder(final long seed) {
+        final VirtualClock clock = new VirtualClock(seed);
+        final List<Integer> order = new ArrayList<>();
+        for (int index = 0; index < 16; index++) {
+            final int event = index;
+            clock.schedule(() -> order.add(event), 1, TimeUnit.MILLISECONDS);
+        }
+        clock.advance(1, TimeUnit.MILLISECONDS);
+        return order;
+    }
+
+    /**
+     * Simulate a table with more philosophers than chairs for a minute.
+     *
+     * @return the meal count of every philosopher.
+     */
+    private static List<Integer> simulate(final long seed) throws Exception {
+        final VirtualClock clock = new VirtualClock(seed);
+        final Table table = new Table.Builder()
+                .withChairCount(6)
+                .withTableMaster(new LocalTableMaster(clock))
+                .createLocal();
+        final List<Philosopher> philosophers = new ArrayList<>();
+        for (int index = 0; index < 20; index++) {
+            final Philosopher philosopher = new Philosopher.Builder()
+                    .setIdName()
+                    .setTable(table)
+                    .setClock(clock)
+                    .setHungry(index % 5 == 0)
+                    .create();
+            philosophers.add(philosopher);
+            philosopher.start();
+        }
+        clock.advance(60, TimeUnit.SECONDS);
+        philosophers.forEach(Philosopher::interrupt);
+        clock.advance(1, TimeUnit.SECONDS);
+        Assert.assertTrue(philosophers.stream().noneMatch(Philosopher::isAlive));
+        return philosophers.stream()
+                .map(Philosopher::getMealCount)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,85 @@
+package edu.hm.cs.vss.local;
+
+import edu.hm.cs.vss.Chair;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Created by Fabio Hellmann on 18.10.2016.
+ */
+public class ChairIndexTest {
+    @Test
+    public void freeChairIsNotLostIfItIsNotTaken() {
+        final ChairIndex index = new ChairIndex();
+        final Chair chair = new Chair.Builder().create();
+        index.add(chair);
+
+        Assert.assertEquals(Optional.of(chair), index.nextFreeChair());
+        // Nobody took the chair -> it is still free
+        Assert.assertEquals(Optional.of(chair), index.nextFreeChair());
+    }
+
+    @Test
+    public void freeChairsAreHandedOutRoundRobin() throws Exception {
+        final ChairIndex index = new ChairIndex();
+        final Chair first = new Chair.Builder().create();
+        final Chair second = new Chair.Builder().create();
+        index.add(first);
+        index.add(second);
+
+        Assert.assertEquals(Optional.of(first), index.nextFreeChair());
+        Assert.assertEquals(Optional.of(second), index.nextFreeChair());
+        Assert.assertEquals(Optional.of(first), index.nextFreeChair());
+    }
+
+    @Test
+    public void busyChairIsSkippedUntilItIsReleased() throws Exception {
+        final ChairIndex index = new ChairIndex();
+        final Chair chair = new Chair.Builder().create();
+        index.add(chair);
+
+        Assert.assertTrue(chair.tryAcquire());
+        Assert.assertFalse(index.nextFreeChair().isPresent());
+        Assert.assertEquals(Optional.of(chair), index.getLeastBusyChair());
+
+        chair.release();
+        Assert.assertEquals(Optional.of(chair), index.nextFreeChair());
+    }
+
+    @Test
+    public void removedChairIsNotHandedOut() {
+        final ChairIndex index = new ChairIndex();
+        final Chair first = new Chair.Builder().create();
+        final Chair second = new Chair.Builder().create();
+        index.add(first);
+        index.add(second);
+
+        Assert.assertTrue(index.remove(first));
+        Assert.assertEquals(1, index.size());
+        Assert.assertEquals(Optional.of(second), index.nextFreeChair());
+        Assert.assertEquals(Optional.of(second), index.nextFreeChair());
+        Assert.assertEquals(Optional.of(second), index.getBusyChair());
+    }
+
+    @Test
+    public void manyChairsAreAllIndexed() throws Exception {
+        final ChairIndex index = new ChairIndex();
+        final Set<Chair> chairs = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            final Chair chair = new Chair.Builder().create();
+            chairs.add(chair);
+            index.add(chair);
+            Assert.assertTrue(chair.tryAcquire());
+        }
+
+        final Set<Chair> busyChairs = new HashSet<>();
+        for (int i = 0; i < chairs.size(); i++) {
+            busyChairs.add(index.getBusyChair().get());
+        }
+        Assert.assertEquals(chairs, busyChairs);
+    }
+}
@@ -0,0 +1,135 @@
+package edu.hm.cs.vss.local;
+
+import edu.hm.cs.vss.Chair;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Created by Fabio Hellmann on 18.10.2016.
+ */
+public class ChairRingTest {
+    @Test
+    public void chairsKnowTheirLeftNeighbour() throws Exception {
+        final ChairRing ring = new ChairRing();
+        final List<Chair> chairs = createChairs(3);
+        chairs.forEach(ring::add);
+
+        Assert.assertEquals(chairs, ring.stream().collect(Collectors.toList()));
+        Assert.assertSame(chairs.get(2), ring.getLeftNeighbour(chairs.get(0)));
+        Assert.assertSame(chairs.get(0), ring.getLeftNeighbour(chairs.get(1)));
+        Assert.assertSame(chairs.get(1), ring.getLeftNeighbour(chairs.get(2)));
+        Assert.assertTrue(ring.isFirst(chairs.get(0)));
+        Assert.assertFalse(ring.isFirst(chairs.get(1)));
+    }
+
+    @Test
+    public void singleChairIsHisOwnNeighbour() throws Exception {
+        final ChairRing ring = new ChairRing();
+        final Chair chair = new Chair.Builder().create();
+        ring.add(chair);
+        ring.add(chair); // Added only once
+
+        Assert.assertEquals(1, ring.stream().count());
+        Assert.assertSame(chair, ring.getLeftNeighbour(chair));
+    }
+
+    @Test
+    public void removedChairIsBridged() throws Exception {
+        final ChairRing ring = new ChairRing();
+        final List<Chair> chairs = createChairs(4);
+        chairs.forEach(ring::add);
+
+        Assert.assertTrue(ring.remove(chairs.get(1)));
+        Assert.assertFalse(ring.remove(chairs.get(1)));
+        Assert.assertFalse(ring.contains(chairs.get(1)));
+        Assert.assertSame(chairs.get(0), ring.getLeftNeighbour(chairs.get(2)));
+
+        // Removing the first chair makes the next one the first
+        Assert.assertTrue(ring.remove(chairs.get(0)));
+        Assert.assertTrue(ring.isFirst(chairs.get(2)));
+        Assert.assertSame(chairs.get(3), ring.getLeftNeighbour(chairs.get(2)));
+        Assert.assertEquals(chairs.subList(2, 4), ring.stream().collect(Collectors.toList()));
+
+        Assert.assertTrue(ring.remove(chairs.get(2)));
+        Assert.assertTrue(ring.remove(chairs.get(3)));
+        Assert.assertEquals(0, ring.stream().count());
+        ring.add(chairs.get(1));
+        Assert.assertSame(chairs.get(1), ring.getLeftNeighbour(chairs.get(1)));
+    }
+
+    @Test
+    public void ringGrowsBeyondHisInitialCapacity() throws Exception {
+        final ChairRing ring = new ChairRing();
+        final List<Chair> chairs = createChairs(100);
+        chairs.forEach(ring::add);
+        Assert.assertEquals(chairs, ring.stream().collect(Collectors.toList()));
+
+        // Remove every second chair and add them again at the end
+        for (int index = 0; index < chairs.size(); index += 2) {
+            ring.remove(chairs.get(index));
+        }
+        for (int index = 0; index < chairs.size(); index += 2) {
+            ring.add(chairs.get(index));
+        }
+        final List<Chair> expected = new ArrayList<>();
+        for (int index = 1; index < chairs.size(); index += 2) {
+            expected.add(chairs.get(index));
+        }
+        for (int index = 0; index < chairs.size(); index += 2) {
+            expected.add(chairs.get(index));
+        }
+        Assert.assertEquals(expected, ring.stream().collect(Collectors.toList()));
+        for (int index = 0; index < expected.size(); index++) {
+            Assert.assertSame(expected.get((index + expected.size() - 1) % expected.size()), ring.getLeftNeighbour(expected.get(index)));
+        }
+    }
+
+    @Test
+    public void readersAlwaysSeeCompleteSnapshots() throws Exception {
+        final ChairRing ring = new ChairRing();
+        final List<Chair> fixed = createChairs(8);
+        fixed.forEach(ring::add);
+        final List<Chair> changing = createChairs(64);
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final AtomicInteger failures = new AtomicInteger();
+
+        final Thread reader = new Thread(() -> {
+            while (running.get()) {
+                final List<Chair> snapshot = ring.stream().collect(Collectors.toList());
+                if (snapshot.stream().anyMatch(Objects::isNull) || !snapshot.containsAll(fixed)) {
+                    failures.incrementAndGet();
+                }
+                for (Chair chair : fixed) {
+                    if (ring.getLeftNeighbour(chair) == null) {
+                        failures.incrementAndGet();
+                    }
+                }
+            }
+        });
+        reader.start();
+        for (int round = 0; round < 200; round++) {
+            changing.forEach(ring::add);
+            changing.forEach(ring::remove);
+        }
+        running.set(false);
+        reader.join();
+
+        Assert.assertEquals(0, failures.get());
+        Assert.assertEquals(fixed, ring.stream().collect(Collectors.toList()));
+    }
+
+    private static List<Chair> createChairs(final int count) {
+        final List<Chair> chairs = new ArrayList<>(count);
+        for (int index = 0; index < count; index++) {
+            chairs.add(new Chair.Builder().setNameUniqueId().create());
+        }
+        return chairs;
+    }
+}
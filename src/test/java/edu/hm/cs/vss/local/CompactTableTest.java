@@ -0,0 +1,80 @@
+package edu.hm.cs.vss.local;
+
+import edu.hm.cs.vss.Chair;
+import edu.hm.cs.vss.Fork;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by Fabio Hellmann on 18.10.2016.
+ */
+public class CompactTableTest {
+    @Test
+    public void viewsAreOnlyCreatedForTouchedSeats() throws Exception {
+        final CompactTable table = new CompactTable(100_000);
+        Assert.assertEquals(0, table.getViewCount());
+
+        final Chair chair = table.getChair(42);
+        Assert.assertSame(chair, table.getChair(42));
+        Assert.assertSame(chair.getFork(), table.getChair(42).getFork());
+        Assert.assertSame(table.getChair(41), table.getNeighbourChair(chair));
+        Assert.assertEquals(2, table.getViewCount());
+
+        // Every search hands out the view of a single seat at most
+        for (int round = 0; round < 10; round++) {
+            final int viewCount = table.getViewCount();
+            final Chair leastBusyChair = table.getLeastBusyChair().get();
+            Assert.assertTrue(table.getViewCount() <= viewCount + 1);
+            Assert.assertSame(leastBusyChair, table.getChair(Integer.parseInt(leastBusyChair.toString().replaceAll(".*-", ""))));
+        }
+        Assert.assertTrue(table.getViewCount() <= 12);
+    }
+
+    @Test
+    public void seatIsAcquiredAndReleasedThroughHisView() throws Exception {
+        final CompactTable table = new CompactTable(4);
+        final Chair chair = table.getChair(1);
+
+        Assert.assertTrue(chair.tryAcquire(0, TimeUnit.NANOSECONDS));
+        Assert.assertEquals(1, chair.getWaitingPhilosopherCount());
+        Assert.assertFalse(table.getChair(1).tryAcquire(0, TimeUnit.NANOSECONDS));
+        Assert.assertFalse(table.getChair(1).tryAcquire(1, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(1, chair.getWaitingPhilosopherCount());
+        table.getChair(1).release();
+        Assert.assertEquals(0, chair.getWaitingPhilosopherCount());
+        Assert.assertTrue(chair.tryAcquire(0, TimeUnit.NANOSECONDS));
+        chair.release();
+    }
+
+    @Test
+    public void forksAreAcquiredAndReleasedThroughTheViews() throws Exception {
+        final CompactTable table = new CompactTable(4);
+        final Chair chair = table.getChair(1);
+        final Chair neighbourChair = table.getNeighbourChair(chair);
+        final List<Fork> forks = new ArrayList<>(2);
+
+        Assert.assertTrue(table.tryAcquireForks(chair, neighbourChair, forks));
+        Assert.assertEquals(2, forks.size());
+        Assert.assertFalse(chair.getFork().tryAcquire());
+        Assert.assertFalse(table.getChair(0).getFork().tryAcquire());
+        Assert.assertFalse(table.tryAcquireForks(table.getChair(2), chair, new ArrayList<>(2)));
+        forks.forEach(Fork::release);
+        Assert.assertTrue(chair.getFork().tryAcquire());
+        chair.getFork().release();
+    }
+
+    @Test(expected = NotSerializableException.class)
+    public void viewsAreNotSerialized() throws Exception {
+        final CompactTable table = new CompactTable(2);
+        try (ObjectOutputStream output = new ObjectOutputStream(new ByteArrayOutputStream())) {
+            output.writeObject(table.getChair(0));
+        }
+    }
+}
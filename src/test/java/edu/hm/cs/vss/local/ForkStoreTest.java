@@ -0,0 +1,149 @@
+package edu.hm.cs.vss.local;
+
+import edu.hm.cs.vss.Chair;
+import edu.hm.cs.vss.Fork;
+import edu.hm.cs.vss.WaitStrategy;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Created by Fabio Hellmann on 18.10.2016.
+ */
+public class ForkStoreTest {
+    @Test
+    public void pairInSameWordIsBlockedAtOnce() {
+        final ForkStore store = new ForkStore();
+        final int first = store.allocate(2);
+
+        Assert.assertTrue(store.tryAcquire(first, first + 1));
+        Assert.assertFalse(store.tryAcquire(first));
+        Assert.assertFalse(store.tryAcquire(first + 1));
+
+        store.release(first);
+        // The second fork is still blocked -> none of them is blocked
+        Assert.assertFalse(store.tryAcquire(first, first + 1));
+        Assert.assertTrue(store.tryAcquire(first));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void pairInDifferentWordsIsRejected() {
+        final ForkStore store = new ForkStore();
+        final int first = store.allocate(Long.SIZE + 1);
+        Assert.assertFalse(ForkStore.isSameWord(first, first + Long.SIZE));
+        store.tryAcquire(first, first + Long.SIZE);
+    }
+
+    @Test
+    public void pairInDifferentWordsIsBlockedThroughTheForks() throws Exception {
+        final LocalTable table = createTable(Long.SIZE + 1);
+        final List<Chair> chairs = table.getChairs().collect(Collectors.toList());
+        final Chair chair = chairs.get(Long.SIZE);
+        final Chair neighbourChair = chairs.get(Long.SIZE - 1);
+
+        final List<Fork> forks = new ArrayList<>();
+        Assert.assertTrue(table.tryAcquireForks(chair, neighbourChair, forks));
+        Assert.assertEquals(2, forks.size());
+        Assert.assertFalse(chair.getFork().tryAcquire());
+        Assert.assertFalse(neighbourChair.getFork().tryAcquire());
+        forks.forEach(Fork::release);
+        Assert.assertTrue(chair.getFork().tryAcquire());
+        Assert.assertTrue(neighbourChair.getFork().tryAcquire());
+    }
+
+    @Test
+    public void parkedPhilosopherIsHandedTheForkByFailedPairAttempts() throws Exception {
+        final LocalTable table = createTable(Long.SIZE + 1);
+        final List<Chair> chairs = table.getChairs().collect(Collectors.toList());
+        final Chair chair = chairs.get(Long.SIZE);
+        final Chair neighbourChair = chairs.get(Long.SIZE - 1);
+        final WaitStrategy parkOnly = new WaitStrategy.Builder()
+                .setSpinCount(0)
+                .setYieldCount(0)
+                .setParkTime(10, TimeUnit.SECONDS)
+                .create();
+
+        // The fork of the chair stays blocked -> every pair attempt blocks the neighbour fork and releases it again
+        Assert.assertTrue(chair.getFork().tryAcquire());
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<?> pairs = executor.submit(() -> {
+                final List<Fork> forks = new ArrayList<>();
+                while (running.get()) {
+                    Assert.assertFalse(table.tryAcquireForks(chair, neighbourChair, forks));
+                }
+            });
+            final Fork neighbourFork = neighbourChair.getFork();
+            for (int meal = 0; meal < 200; meal++) {
+                final long start = System.nanoTime();
+                Assert.assertTrue(neighbourFork.acquire(parkOnly));
+                Assert.assertTrue("Waiter was not handed the fork", System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+                neighbourFork.release();
+            }
+            running.set(false);
+            pairs.get();
+        } catch (ExecutionException e) {
+            throw (Exception) e.getCause();
+        } finally {
+            running.set(false);
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void idsOfRemovedChairsAreReused() throws Exception {
+        final LocalTable table = createTable(2);
+        final ForkStore store = ((StoredFork) table.getChairs().findFirst().get().getFork()).getStore();
+        final int size = store.size();
+
+        for (int round = 0; round < 1000; round++) {
+            final Chair chair = new Chair.Builder().create();
+            table.addChair(chair);
+            table.removeChair(chair);
+        }
+        Assert.assertEquals(size + 1, store.size());
+    }
+
+    @Test
+    public void heldForkOfRemovedChairIsRecycledOnRelease() throws Exception {
+        final LocalTable table = createTable(1);
+        final Chair chair = new Chair.Builder().create();
+        table.addChair(chair);
+        final StoredFork fork = (StoredFork) table.getChair(chair.toString()).get().getFork();
+        Assert.assertTrue(fork.tryAcquire());
+
+        // The id can't be reused while the removed fork is held and the removed fork can't be blocked again
+        table.removeChair(chair);
+        final Chair other = new Chair.Builder().create();
+        table.addChair(other);
+        Assert.assertNotEquals(fork.getId(), ((StoredFork) table.getChair(other.toString()).get().getFork()).getId());
+        fork.release();
+        Assert.assertFalse(fork.tryAcquire());
+
+        final Chair reusing = new Chair.Builder().create();
+        table.addChair(reusing);
+        final Fork reusingFork = table.getChair(reusing.toString()).get().getFork();
+        Assert.assertEquals(fork.getId(), ((StoredFork) reusingFork).getId());
+        Assert.assertFalse(fork.tryAcquire());
+        Assert.assertTrue(reusingFork.tryAcquire());
+        reusingFork.release();
+    }
+
+    private static LocalTable createTable(final int chairCount) {
+        final LocalTable table = new LocalTable();
+        for (int index = 0; index < chairCount; index++) {
+            table.addChair(new Chair.Builder().create());
+        }
+        return table;
+    }
+}
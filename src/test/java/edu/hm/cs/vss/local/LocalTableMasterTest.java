@@ -0,0 +1,236 @@
+package edu.hm.cs.vss.local;
+
+import edu.hm.cs.vss.Philosopher;
+import edu.hm.cs.vss.TableMaster;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Created by Fabio Hellmann on 18.10.2016.
+ */
+public class LocalTableMasterTest {
+    private final LocalTable table = new LocalTable();
+
+    @Test
+    public void minimumFollowsTheLowestPhilosopher() {
+        final LocalTableMaster master = new LocalTableMaster();
+        final Philosopher first = register(master, 0);
+        final Philosopher second = register(master, 0);
+        Assert.assertTrue(master.isAllowedToTakeSeat(TableMaster.MAX_DEVIATION));
+        Assert.assertFalse(master.isAllowedToTakeSeat(TableMaster.MAX_DEVIATION + 1));
+
+        eat(master, first, 5);
+        Assert.assertFalse(master.isAllowedToTakeSeat(TableMaster.MAX_DEVIATION + 1));
+        eat(master, second, 3);
+        Assert.assertTrue(master.isAllowedToTakeSeat(TableMaster.MAX_DEVIATION + 3));
+        Assert.assertFalse(master.isAllowedToTakeSeat(TableMaster.MAX_DEVIATION + 4));
+
+        master.unregister(second);
+        Assert.assertTrue(master.isAllowedToTakeSeat(TableMaster.MAX_DEVIATION + 5));
+        Assert.assertFalse(master.isAllowedToTakeSeat(TableMaster.MAX_DEVIATION + 6));
+    }
+
+    @Test
+    public void philosophersFarAwayFromTheMinimumAreCounted() {
+        final LocalTableMaster master = new LocalTableMaster();
+        final Philosopher low = register(master, 0);
+        final Philosopher high = register(master, 100000);
+        final Philosopher restored = register(master, 50000);
+
+        master.unregister(low);
+        Assert.assertTrue(master.isAllowedToTakeSeat(50000 + TableMaster.MAX_DEVIATION));
+        Assert.assertFalse(master.isAllowedToTakeSeat(50001 + TableMaster.MAX_DEVIATION));
+
+        eat(master, restored, 200000);
+        Assert.assertTrue(master.isAllowedToTakeSeat(100000 + TableMaster.MAX_DEVIATION));
+        Assert.assertFalse(master.isAllowedToTakeSeat(100001 + TableMaster.MAX_DEVIATION));
+
+        master.unregister(high);
+        Assert.assertTrue(master.isAllowedToTakeSeat(200000 + TableMaster.MAX_DEVIATION));
+        Assert.assertFalse(master.isAllowedToTakeSeat(200001 + TableMaster.MAX_DEVIATION));
+
+        // A philosopher below the minimum lowers it again
+        register(master, 7);
+        Assert.assertFalse(master.isAllowedToTakeSeat(8 + TableMaster.MAX_DEVIATION));
+    }
+
+    @Test
+    public void concurrentMealsKeepTheMinimum() throws Exception {
+        final LocalTableMaster master = new LocalTableMaster();
+        final int threadCount = 4;
+        final int meals = 5000;
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threadCount; thread++) {
+                final Philosopher philosopher = register(master, 0);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int meal = 1; meal <= meals; meal++) {
+                        eat(master, philosopher, meal);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertTrue(master.isAllowedToTakeSeat(meals + TableMaster.MAX_DEVIATION));
+        Assert.assertFalse(master.isAllowedToTakeSeat(meals + TableMaster.MAX_DEVIATION + 1));
+    }
+
+    @Test
+    public void bannedPhilosopherIsAdmittedWhenTheMinimumRises() throws Exception {
+        final LocalTableMaster master = new LocalTableMaster();
+        final Philosopher lowest = register(master, 0);
+        final int bannedMealCount = TableMaster.MAX_DEVIATION + 1;
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Boolean> admission = executor.submit(() -> master.awaitAllowedToTakeSeat(bannedMealCount, 30, TimeUnit.SECONDS));
+            Thread.sleep(50);
+            Assert.assertFalse(admission.isDone());
+
+            eat(master, lowest, 1);
+            Assert.assertTrue(admission.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void admissionIsWithdrawnWhenTheMinimumDrops() throws Exception {
+        final LocalTableMaster master = new LocalTableMaster();
+        final Philosopher lowest = register(master, 0);
+        final int mealCount = TableMaster.MAX_DEVIATION + 1;
+
+        eat(master, lowest, 1);
+        Assert.assertTrue(master.awaitAllowedToTakeSeat(mealCount, 0, TimeUnit.MILLISECONDS));
+
+        // A restored philosopher with fewer meals joins the table
+        register(master, 0);
+        Assert.assertFalse(master.awaitAllowedToTakeSeat(mealCount, 10, TimeUnit.MILLISECONDS));
+        Assert.assertFalse(master.awaitAllowedToTakeSeat(mealCount, 10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void admissionsAreOnlyCompletedForAllowedMealCounts() throws Exception {
+        final LocalTableMaster master = new LocalTableMaster();
+        final Philosopher lowest = register(master, 0);
+        Assert.assertTrue(master.getAdmission(TableMaster.MAX_DEVIATION).toCompletableFuture().isDone());
+
+        // Banned philosophers with the same amount of meals share one admission
+        final CompletableFuture<Void> near = master.getAdmission(TableMaster.MAX_DEVIATION + 1).toCompletableFuture();
+        final CompletableFuture<Void> far = master.getAdmission(TableMaster.MAX_DEVIATION + 3).toCompletableFuture();
+        Assert.assertSame(near, master.getAdmission(TableMaster.MAX_DEVIATION + 1));
+        Assert.assertFalse(near.isDone());
+        Assert.assertFalse(far.isDone());
+
+        eat(master, lowest, 1);
+        Assert.assertTrue(near.isDone());
+        Assert.assertFalse(far.isDone());
+        eat(master, lowest, 3);
+        Assert.assertTrue(far.isDone());
+    }
+
+    @Test(expected = InterruptedException.class)
+    public void interruptedPhilosopherStopsWaitingForHisAdmission() throws Exception {
+        final LocalTableMaster master = new LocalTableMaster();
+        register(master, 0);
+        Thread.currentThread().interrupt();
+        master.awaitAllowedToTakeSeat(TableMaster.MAX_DEVIATION + 1, 30, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void tableMasterWithoutNotificationsIsPolled() throws Exception {
+        final AtomicInteger maxMealCount = new AtomicInteger(0);
+        final TableMaster master = mealCount -> mealCount <= maxMealCount.get();
+
+        Assert.assertFalse(master.awaitAllowedToTakeSeat(1, 5, TimeUnit.MILLISECONDS));
+        final CompletableFuture<Void> admission = master.getAdmission(1).toCompletableFuture();
+        // The admission is only a reminder to check again
+        admission.get(5, TimeUnit.SECONDS);
+        Assert.assertFalse(master.isAllowedToTakeSeat(1));
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Boolean> allowed = executor.submit(() -> master.awaitAllowedToTakeSeat(1, 30, TimeUnit.SECONDS));
+            Thread.sleep(10);
+            maxMealCount.set(1);
+            Assert.assertTrue(allowed.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertTrue(master.getAdmission(1).toCompletableFuture().isDone());
+    }
+
+    @Test
+    public void laggingAndHungryPhilosophersGetAHeadStart() {
+        final LocalTableMaster master = new LocalTableMaster();
+        final Philosopher ahead = register(master, 0);
+        final Philosopher lagging = register(master, 0);
+        final Philosopher hungry = new Philosopher.Builder()
+                .setTable(table)
+                .setHungry(true)
+                .create();
+        master.register(hungry);
+        Assert.assertEquals(1, master.getSeatPriority(ahead)); // Everybody is at the minimum
+
+        eat(master, ahead, 5);
+        eat(master, hungry, 5);
+        Assert.assertEquals(0, master.getSeatPriority(ahead));
+        Assert.assertEquals(1, master.getSeatPriority(lagging));
+        Assert.assertEquals(1, master.getSeatPriority(hungry));
+
+        eat(master, lagging, 5);
+        Assert.assertEquals(1, master.getSeatPriority(ahead));
+        Assert.assertEquals(2, master.getSeatPriority(hungry));
+    }
+
+    @Test
+    public void seatWaitsAreRecordedPerHunger() {
+        final LocalTableMaster master = new LocalTableMaster();
+        final Philosopher normal = register(master, 0);
+        final Philosopher hungry = new Philosopher.Builder()
+                .setTable(table)
+                .setHungry(true)
+                .create();
+        master.onSeatTaken(normal, TimeUnit.MILLISECONDS.toNanos(2));
+        master.onSeatTaken(normal, TimeUnit.MILLISECONDS.toNanos(4));
+        master.onSeatTaken(hungry, TimeUnit.MICROSECONDS.toNanos(10));
+
+        final long normalWait = master.getSeatWaitStatistics().getPercentile(false, 100, TimeUnit.MICROSECONDS);
+        Assert.assertEquals(2, master.getSeatWaitStatistics().getCount(false));
+        Assert.assertEquals(1, master.getSeatWaitStatistics().getCount(true));
+        Assert.assertTrue(normalWait >= 4000 && normalWait <= 4500);
+        Assert.assertTrue(master.getSeatWaitStatistics().getPercentile(true, 100, TimeUnit.MICROSECONDS) <= 11);
+    }
+
+    private Philosopher register(final LocalTableMaster master, final int mealCount) {
+        final Philosopher philosopher = new Philosopher.Builder()
+                .setTable(table)
+                .setTakenMeals(mealCount)
+                .create();
+        master.register(philosopher);
+        return philosopher;
+    }
+
+    private static void eat(final LocalTableMaster master, final Philosopher philosopher, final int mealCount) {
+        philosopher.setMealCount(mealCount);
+        master.onStandUp(philosopher);
+    }
+}
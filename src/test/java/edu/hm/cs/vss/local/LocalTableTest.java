@@ -0,0 +1,157 @@
+package edu.hm.cs.vss.local;
+
+import edu.hm.cs.vss.Chair;
+import edu.hm.cs.vss.Fork;
+import edu.hm.cs.vss.log.DummyLogger;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by Fabio Hellmann on 18.10.2016.
+ */
+public class LocalTableTest {
+    @Test
+    public void storedChairIsAcquiredAndReleased() throws Exception {
+        final LocalTable table = new LocalTable();
+        table.addChair(new Chair.Builder().create());
+        final Chair chair = table.getChairs().findFirst().get();
+
+        Assert.assertTrue(chair.tryAcquire(0, TimeUnit.NANOSECONDS));
+        Assert.assertEquals(1, chair.getWaitingPhilosopherCount());
+        Assert.assertFalse(chair.tryAcquire(0, TimeUnit.NANOSECONDS));
+        Assert.assertFalse(chair.blockIfAvailable().isPresent());
+        chair.release();
+        Assert.assertEquals(0, chair.getWaitingPhilosopherCount());
+
+        // The wrappers only delegate to the primitive calls
+        Assert.assertEquals(Optional.of(chair), chair.blockIfAvailable());
+        chair.unblock();
+        Assert.assertEquals(0, chair.getWaitingPhilosopherCount());
+    }
+
+    @Test
+    public void storedForkIsAcquiredAndReleased() throws Exception {
+        final LocalTable table = new LocalTable();
+        table.addChair(new Chair.Builder().create());
+        final Fork fork = table.getChairs().findFirst().get().getFork();
+
+        Assert.assertTrue(fork.tryAcquire());
+        Assert.assertFalse(fork.tryAcquire());
+        Assert.assertFalse(fork.blockIfAvailable().isPresent());
+        fork.release();
+
+        Assert.assertEquals(Optional.of(fork), fork.blockIfAvailable());
+        fork.unblock();
+        Assert.assertTrue(fork.tryAcquire());
+        fork.release();
+    }
+
+    @Test
+    public void leastBusyChairIsHandedOutWithoutAllocating() throws Exception {
+        final LocalTable table = new LocalTable();
+        table.addChair(new Chair.Builder().create());
+
+        // The same chair is always handed out as the same Optional
+        final Optional<Chair> chair = table.getLeastBusyChair();
+        Assert.assertTrue(chair.isPresent());
+        Assert.assertSame(chair, table.getLeastBusyChair());
+        Assert.assertTrue(chair.get().tryAcquire(0, TimeUnit.NANOSECONDS));
+        Assert.assertSame(chair, table.getLeastBusyChair());
+        chair.get().release();
+    }
+
+    @Test
+    public void freeChairsAreFoundInEverySegment() throws Exception {
+        final LocalTable table = new LocalTable(new DummyLogger(), 4);
+        for (int index = 0; index < 8; index++) {
+            table.addChair(new Chair.Builder().create());
+        }
+        Assert.assertEquals(4, table.getSegmentCount());
+
+        // A single thread has a single home segment but still gets every chair
+        final Set<Chair> occupied = new HashSet<>();
+        for (int index = 0; index < 8; index++) {
+            final Chair chair = table.getLeastBusyChair().get();
+            Assert.assertTrue(chair.tryAcquire(0, TimeUnit.NANOSECONDS));
+            Assert.assertTrue(occupied.add(chair));
+        }
+
+        // All chairs are busy -> the philosopher queues up at one of them
+        final Optional<Chair> busyChair = table.getLeastBusyChair();
+        Assert.assertTrue(busyChair.isPresent());
+        Assert.assertTrue(occupied.contains(busyChair.get()));
+        occupied.forEach(Chair::release);
+    }
+
+    @Test
+    public void segmentsWithoutChairsAreSkipped() throws Exception {
+        final LocalTable table = new LocalTable(new DummyLogger(), 4);
+        final Chair chair = new Chair.Builder().create();
+        table.addChair(chair);
+        final Chair storedChair = table.getLeastBusyChair().get();
+        Assert.assertTrue(storedChair.tryAcquire(0, TimeUnit.NANOSECONDS));
+        Assert.assertSame(storedChair, table.getLeastBusyChair().get());
+        storedChair.release();
+
+        table.removeChair(chair);
+        Assert.assertFalse(table.getLeastBusyChair().isPresent());
+    }
+
+    @Test
+    public void nameIndexFollowsTheRemovedChairs() throws Exception {
+        final LocalTable table = new LocalTable();
+        final Chair first = new Chair.Builder().setName("first").create();
+        final Chair second = new Chair.Builder().setName("second").create();
+        table.addChair(first);
+        table.addChair(second);
+        final Chair storedFirst = table.getChair("first").get();
+        final Fork firstFork = storedFirst.getFork();
+        Assert.assertSame(firstFork, table.getFork(firstFork.toString()).get());
+
+        // Removed by the stored chair the philosophers know
+        table.removeChair(storedFirst);
+        Assert.assertFalse(table.getChair("first").isPresent());
+        Assert.assertFalse(table.getFork(firstFork.toString()).isPresent());
+        Assert.assertTrue(table.getChair("second").isPresent());
+        Assert.assertTrue(table.getFork(table.getChair("second").get().getFork().toString()).isPresent());
+
+        // Added again the chair is found with a new fork
+        table.addChair(first);
+        final Chair readded = table.getChair("first").get();
+        Assert.assertNotSame(storedFirst, readded);
+        Assert.assertSame(readded.getFork(), table.getFork(firstFork.toString()).get());
+        Assert.assertTrue(readded.getFork().tryAcquire());
+        readded.getFork().release();
+
+        // Removed by the original chair
+        table.removeChair(second);
+        Assert.assertFalse(table.getChair("second").isPresent());
+        Assert.assertEquals(1, table.getChairs().count());
+    }
+
+    @Test
+    public void usedChairsAreQueuedOnceForPublication() throws Exception {
+        final LocalTable table = new LocalTable();
+        table.addChair(new Chair.Builder().create());
+        table.addChair(new Chair.Builder().create());
+        Assert.assertNull(table.pollChangedChair());
+
+        final Chair chair = table.getChairs().findFirst().get();
+        Assert.assertTrue(chair.tryAcquire(0, TimeUnit.NANOSECONDS));
+        chair.release();
+        Assert.assertSame(chair, table.pollChangedChair());
+        Assert.assertNull(table.pollChangedChair());
+
+        // Picked up -> the next use queues the chair again
+        Assert.assertTrue(chair.tryAcquire(0, TimeUnit.NANOSECONDS));
+        Assert.assertSame(chair, table.pollChangedChair());
+        chair.release();
+        Assert.assertSame(chair, table.pollChangedChair());
+        Assert.assertNull(table.pollChangedChair());
+    }
+}
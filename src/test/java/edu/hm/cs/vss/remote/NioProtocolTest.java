@@ -0,0 +1,120 @@
+package edu.hm.cs.vss.remote;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by Fabio Hellmann on 18.10.2016.
+ */
+public class NioProtocolTest {
+    private final List<byte[]> received = new CopyOnWriteArrayList<>();
+    private final CountDownLatch closed = new CountDownLatch(1);
+    private NioTransport transport;
+    private SocketChannel sender;
+
+    @Before
+    public void connect() throws Exception {
+        transport = new NioTransport("127.0.0.1", 0);
+        try (ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress("127.0.0.1", 0));
+            sender = SocketChannel.open(server.getLocalAddress());
+            transport.register(server.accept(), (connection, frame) -> received.add(frame), closed::countDown);
+        }
+    }
+
+    @After
+    public void close() throws Exception {
+        sender.close();
+        transport.close();
+    }
+
+    @Test
+    public void frameStartsWithHisLengthAndId() throws Exception {
+        final ByteBuffer frame = NioProtocol.frame(42, NioProtocol.BLOCK_FORK, out -> out.writeUTF("fork"));
+        Assert.assertEquals(frame.capacity() - NioProtocol.LENGTH_SIZE, frame.getInt(0));
+
+        final byte[] content = Arrays.copyOfRange(frame.array(), NioProtocol.LENGTH_SIZE, frame.capacity());
+        Assert.assertEquals(42, NioProtocol.getId(content));
+        Assert.assertEquals(NioProtocol.BLOCK_FORK, NioProtocol.getType(content));
+        final DataInputStream payload = NioProtocol.getPayload(content);
+        Assert.assertEquals("fork", payload.readUTF());
+        Assert.assertEquals(0, payload.available());
+    }
+
+    @Test
+    public void framesAreReassembledFromArbitraryChunks() throws Exception {
+        final byte[] large = new byte[20000]; // Larger than the read buffer
+        Arrays.fill(large, (byte) 7);
+        final ByteBuffer[] frames = {
+                NioProtocol.frame(1, NioProtocol.UNBLOCK_FORK, out -> out.writeUTF("small")),
+                NioProtocol.frame(2, NioProtocol.ON_STAND_UPS, out -> out.write(large)),
+                NioProtocol.frame(3, NioProtocol.BACKUP_FINISHED, out -> {
+                })
+        };
+        final ByteBuffer stream = ByteBuffer.allocate(Arrays.stream(frames).mapToInt(ByteBuffer::capacity).sum());
+        for (ByteBuffer frame : frames) {
+            stream.put(frame);
+        }
+        stream.flip();
+
+        // Split the frames at odd positions, even within the length of a frame
+        int chunk = 1;
+        while (stream.hasRemaining()) {
+            final ByteBuffer part = stream.duplicate();
+            part.limit(Math.min(stream.limit(), stream.position() + chunk));
+            while (part.hasRemaining()) {
+                sender.write(part);
+            }
+            stream.position(part.position());
+            chunk = chunk * 3 + 1;
+            Thread.sleep(5);
+        }
+
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (received.size() < frames.length && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(frames.length, received.size());
+        for (int index = 0; index < frames.length; index++) {
+            final byte[] expected = Arrays.copyOfRange(frames[index].array(), NioProtocol.LENGTH_SIZE, frames[index].capacity());
+            Assert.assertArrayEquals(expected, received.get(index));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void oversizedFrameIsNotSent() throws Exception {
+        final byte[] payload = new byte[NioProtocol.MAX_FRAME_LENGTH - NioProtocol.HEADER_LENGTH + 1];
+        NioProtocol.frame(1, NioProtocol.ON_WAITING_COUNTS, out -> out.write(payload));
+    }
+
+    @Test
+    public void largestFrameIsSent() throws Exception {
+        final byte[] payload = new byte[NioProtocol.MAX_FRAME_LENGTH - NioProtocol.HEADER_LENGTH];
+        final ByteBuffer frame = NioProtocol.frame(1, NioProtocol.ON_WAITING_COUNTS, out -> out.write(payload));
+        Assert.assertEquals(NioProtocol.MAX_FRAME_LENGTH, frame.getInt(0));
+    }
+
+    @Test
+    public void oversizedFrameClosesTheConnection() throws Exception {
+        final ByteBuffer length = ByteBuffer.allocate(NioProtocol.LENGTH_SIZE);
+        length.putInt(0, NioProtocol.MAX_FRAME_LENGTH + 1);
+        sender.write(length);
+
+        Assert.assertTrue(closed.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(received.isEmpty());
+    }
+}
@@ -0,0 +1,350 @@
+package edu.hm.cs.vss.remote;
+
+import edu.hm.cs.vss.Chair;
+import edu.hm.cs.vss.Fork;
+import edu.hm.cs.vss.Philosopher;
+import edu.hm.cs.vss.Table;
+import edu.hm.cs.vss.local.LocalTableMaster;
+import edu.hm.cs.vss.local.LocalTablePool;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.net.ServerSocket;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Created by Fabio Hellmann on 18.10.2016.
+ */
+public class NioTransportTest {
+    private static final String HOST = "127.0.0.1";
+    private static final long TIMEOUT = TimeUnit.SECONDS.toNanos(10);
+
+    private final List<Philosopher> philosophers = new ArrayList<>();
+    private Table first;
+    private Table second;
+    private String secondAddress;
+
+    @Before
+    public void connect() throws Exception {
+        final int firstPort = getFreePort();
+        final int secondPort = getFreePort();
+        secondAddress = HOST + ":" + secondPort;
+        first = createTable(firstPort);
+        second = createTable(secondPort);
+        first.connectToTable(secondAddress);
+        await(() -> first.getTables().count() == 2 && second.getTables().count() == 2);
+    }
+
+    @After
+    public void leave() throws Exception {
+        for (Philosopher philosopher : philosophers) {
+            philosopher.getTable().removePhilosopher(philosopher);
+        }
+        for (Philosopher philosopher : philosophers) {
+            philosopher.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        ((LocalTablePool) first).destroy();
+        ((LocalTablePool) second).destroy();
+    }
+
+    @Test
+    public void remoteSeatIsBlockedOnTheOtherTable() throws Exception {
+        final Chair remoteChair = getRemoteTable().getChairs().findFirst().get();
+        final Chair chair = getLocalChair(remoteChair);
+
+        Assert.assertTrue(remoteChair.tryAcquire());
+        Assert.assertEquals(1, chair.getWaitingPhilosopherCount());
+        Assert.assertFalse(remoteChair.tryAcquire(0, TimeUnit.NANOSECONDS));
+
+        remoteChair.release();
+        await(() -> chair.getWaitingPhilosopherCount() == 0);
+        Assert.assertTrue(chair.tryAcquire());
+        chair.release();
+    }
+
+    @Test
+    public void remoteForkIsBlockedOnTheOtherTable() throws Exception {
+        final Chair remoteChair = getRemoteTable().getChairs().findFirst().get();
+        final Fork fork = getLocalChair(remoteChair).getFork();
+
+        Assert.assertTrue(remoteChair.getFork().tryAcquire());
+        Assert.assertFalse(fork.tryAcquire());
+        Assert.assertFalse(remoteChair.getFork().tryAcquire());
+
+        remoteChair.getFork().release();
+        await(() -> {
+            if (fork.tryAcquire()) {
+                fork.release();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    @Test
+    public void remoteSeatIsBlockedWithoutWaiting() throws Exception {
+        final Chair remoteChair = getRemoteTable().getChairs().findFirst().get();
+        final Chair chair = getLocalChair(remoteChair);
+
+        Assert.assertTrue(remoteChair.acquireAsync().get(5, TimeUnit.SECONDS));
+        Assert.assertEquals(1, chair.getWaitingPhilosopherCount());
+        Assert.assertFalse(remoteChair.acquireAsync().get(5, TimeUnit.SECONDS));
+        // Ask the other table instead of the published waiting counts
+        ((RemoteTable) getRemoteTable()).setMaxStaleness(0, TimeUnit.NANOSECONDS);
+        Assert.assertEquals(Integer.valueOf(1), remoteChair.waitingCountAsync().get(5, TimeUnit.SECONDS));
+
+        remoteChair.releaseAsync().get(5, TimeUnit.SECONDS);
+        Assert.assertEquals(0, chair.getWaitingPhilosopherCount());
+        Assert.assertTrue(remoteChair.getFork().acquireAsync().get(5, TimeUnit.SECONDS));
+        Assert.assertFalse(chair.getFork().tryAcquire());
+        remoteChair.getFork().releaseAsync().get(5, TimeUnit.SECONDS);
+        Assert.assertTrue(chair.getFork().tryAcquire());
+        chair.getFork().release();
+    }
+
+    @Test
+    public void remoteSeatAndForksAreBlockedInASingleCall() throws Exception {
+        final List<Chair> remoteChairs = getRemoteTable().getChairs().collect(Collectors.toList());
+        final Chair remoteChair = remoteChairs.get(1);
+        final Chair neighbourChair = first.getNeighbourChair(remoteChair);
+        Assert.assertSame(remoteChairs.get(0), neighbourChair);
+        final List<Fork> forks = new ArrayList<>(2);
+
+        Assert.assertTrue(remoteChair.tryAcquireWithForks(neighbourChair, forks));
+        Assert.assertEquals(2, forks.size());
+        Assert.assertEquals(Optional.of(neighbourChair), remoteChair.getKnownNeighbourChair());
+        Assert.assertEquals(1, getLocalChair(remoteChair).getWaitingPhilosopherCount());
+        Assert.assertFalse(getLocalChair(remoteChair).getFork().tryAcquire());
+        Assert.assertFalse(getLocalChair(neighbourChair).getFork().tryAcquire());
+
+        remoteChair.releaseWithForks(neighbourChair, forks);
+        Assert.assertTrue(forks.isEmpty());
+        Assert.assertEquals(0, getLocalChair(remoteChair).getWaitingPhilosopherCount());
+        assertForkIsFree(getLocalChair(remoteChair).getFork());
+        assertForkIsFree(getLocalChair(neighbourChair).getFork());
+    }
+
+    @Test
+    public void remoteSeatIsNotKeptWithoutForks() throws Exception {
+        final List<Chair> remoteChairs = getRemoteTable().getChairs().collect(Collectors.toList());
+        final Chair remoteChair = remoteChairs.get(1);
+        final Chair neighbourChair = remoteChairs.get(0);
+        final Fork neighbourFork = getLocalChair(neighbourChair).getFork();
+        final List<Fork> forks = new ArrayList<>(2);
+        Assert.assertTrue(remoteChair.tryAcquireWithForks(neighbourChair, forks));
+        remoteChair.releaseWithForks(neighbourChair, forks);
+
+        // The fork of the neighbour is taken -> the seat is set available again
+        Assert.assertTrue(neighbourFork.tryAcquire());
+        Assert.assertFalse(remoteChair.tryAcquireWithForks(neighbourChair, forks));
+        Assert.assertTrue(forks.isEmpty());
+        Assert.assertFalse(remoteChair.getKnownNeighbourChair().isPresent());
+        Assert.assertEquals(0, getLocalChair(remoteChair).getWaitingPhilosopherCount());
+        assertForkIsFree(getLocalChair(remoteChair).getFork());
+        neighbourFork.release();
+    }
+
+    @Test
+    public void remoteTableRefusesAnOutdatedNeighbour() throws Exception {
+        final List<Chair> remoteChairs = getRemoteTable().getChairs().collect(Collectors.toList());
+        final Chair remoteChair = remoteChairs.get(1);
+        final Chair wrongNeighbourChair = remoteChairs.get(2);
+        final List<Fork> forks = new ArrayList<>(2);
+
+        Assert.assertFalse(remoteChair.tryAcquireWithForks(wrongNeighbourChair, forks));
+        Assert.assertTrue(forks.isEmpty());
+        Assert.assertEquals(0, getLocalChair(remoteChair).getWaitingPhilosopherCount());
+        assertForkIsFree(getLocalChair(remoteChair).getFork());
+        assertForkIsFree(getLocalChair(wrongNeighbourChair).getFork());
+
+        // Only the forks which were blocked together with the seat are released
+        final Fork fork = getLocalChair(remoteChair).getFork();
+        Assert.assertTrue(fork.tryAcquire());
+        forks.add(remoteChair.getFork());
+        remoteChair.releaseWithForks(remoteChairs.get(0), forks);
+        Assert.assertFalse(fork.tryAcquire());
+        fork.release();
+    }
+
+    @Test
+    public void firstAvailableRemoteSeatIsKept() throws Exception {
+        final List<Chair> remoteChairs = getRemoteTable().getChairs().collect(Collectors.toList());
+        Assert.assertTrue(remoteChairs.size() > 1);
+        final Chair busyChair = getLocalChair(remoteChairs.get(0));
+        Assert.assertTrue(busyChair.tryAcquire(0, TimeUnit.NANOSECONDS));
+
+        final Chair acquired = Chair.acquireAnyAsync(remoteChairs).get(5, TimeUnit.SECONDS).get();
+        Assert.assertNotEquals(remoteChairs.get(0).toString(), acquired.toString());
+        // The other seats are released again by the response of their acquisition
+        await(() -> remoteChairs.stream()
+                .map(this::getLocalChair)
+                .filter(chair -> chair.getWaitingPhilosopherCount() > 0)
+                .count() == 2);
+        acquired.releaseAsync().get(5, TimeUnit.SECONDS);
+        busyChair.release();
+    }
+
+    @Test
+    public void asyncCallToAClosedTableFallsBack() throws Exception {
+        final NioTransport server = new NioTransport(HOST, getFreePort());
+        final NioTransport client = new NioTransport(HOST, 0);
+        try {
+            server.export(recordWaitingCounts(new ConcurrentHashMap<>()));
+            final AsyncRmiTable remote = (AsyncRmiTable) client.connect(server.getLocalAddress());
+            server.close();
+            try {
+                remote.blockChairIfAvailableAsync("Chair-1").get(10, TimeUnit.SECONDS);
+                Assert.fail("A closed table must not answer");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof RemoteException);
+            }
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void standUpsReachTheBackupOfTheOtherTable() throws Exception {
+        final Philosopher philosopher = new Philosopher.Builder()
+                .setIdName()
+                .setTable(first)
+                .create();
+        philosophers.add(philosopher);
+        first.addPhilosopher(philosopher);
+
+        // The other table keeps a backup of the philosopher and hears about his meals
+        await(() -> getBackup(philosopher).map(Philosopher::getMealCount).orElse(0) > 0);
+    }
+
+    @Test
+    public void waitingCountsArePublishedUntilTheTableIsDestroyed() throws Exception {
+        final RemoteTable remoteTable = (RemoteTable) getRemoteTable();
+        final Chair remoteChair = remoteTable.getChairs().findFirst().get();
+        final Chair chair = getLocalChair(remoteChair);
+
+        Assert.assertTrue(chair.tryAcquire(0, TimeUnit.NANOSECONDS));
+        await(() -> remoteTable.getCachedWaitingPhilosopherCount(remoteChair.toString()).orElse(-1) == 1);
+        chair.release();
+        await(() -> remoteTable.getCachedWaitingPhilosopherCount(remoteChair.toString()).orElse(-1) == 0);
+
+        final long publishers = countPublishers();
+        ((LocalTablePool) first).destroy();
+        ((LocalTablePool) second).destroy();
+        await(() -> countPublishers() == publishers - 2);
+    }
+
+    @Test
+    public void largeWaitingCountSnapshotIsSplitIntoFrames() throws Exception {
+        final int chairCount = 50000; // About 48 bytes per chair, far more than a single frame
+        final List<String> names = new ArrayList<>(chairCount);
+        final List<Integer> counts = new ArrayList<>(chairCount);
+        for (int index = 0; index < chairCount; index++) {
+            names.add(String.format("Chair-%036d", index));
+            counts.add(index % 5);
+        }
+        final Map<String, Integer> received = new ConcurrentHashMap<>();
+        final NioTransport server = new NioTransport(HOST, getFreePort());
+        final NioTransport client = new NioTransport(HOST, 0);
+        try {
+            server.export(recordWaitingCounts(received));
+            final RmiTable remote = client.connect(server.getLocalAddress());
+
+            remote.onWaitingCounts(HOST, 1, names, counts);
+            Assert.assertEquals(chairCount, received.size());
+            Assert.assertEquals(Integer.valueOf(4), received.get(names.get(chairCount - 1)));
+
+            // The connection survived the snapshot
+            remote.onWaitingCounts(HOST, 2, Collections.singletonList(names.get(0)), Collections.singletonList(7));
+            Assert.assertEquals(Integer.valueOf(7), received.get(names.get(0)));
+        } finally {
+            client.close();
+            server.close();
+        }
+    }
+
+    private static RmiTable recordWaitingCounts(final Map<String, Integer> received) {
+        return (RmiTable) Proxy.newProxyInstance(RmiTable.class.getClassLoader(), new Class<?>[]{RmiTable.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("onWaitingCounts")) {
+                        @SuppressWarnings("unchecked") final List<String> names = (List<String>) args[2];
+                        @SuppressWarnings("unchecked") final List<Integer> counts = (List<Integer>) args[3];
+                        for (int index = 0; index < names.size(); index++) {
+                            received.put(names.get(index), counts.get(index));
+                        }
+                    }
+                    return null;
+                });
+    }
+
+    private static long countPublishers() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("WaitingCountPublisher"))
+                .count();
+    }
+
+    private static void assertForkIsFree(final Fork fork) {
+        Assert.assertTrue(fork.tryAcquire());
+        fork.release();
+    }
+
+    private Optional<Philosopher> getBackup(final Philosopher philosopher) {
+        return second.getTables()
+                .filter(table -> !table.getName().equals(secondAddress))
+                .flatMap(Table::getPhilosophers)
+                .filter(backup -> backup.getName().equals(philosopher.getName()))
+                .findAny();
+    }
+
+    private Table getRemoteTable() {
+        return first.getTables()
+                .filter(table -> table.getName().equals(secondAddress))
+                .findAny()
+                .get();
+    }
+
+    private Chair getLocalChair(final Chair remoteChair) {
+        return second.getTables()
+                .findFirst()
+                .get()
+                .getChairs()
+                .filter(chair -> chair.toString().equals(remoteChair.toString()))
+                .findAny()
+                .get();
+    }
+
+    private static Table createTable(final int port) throws IOException {
+        return new Table.Builder()
+                .withChairCount(4)
+                .withTableMaster(new LocalTableMaster())
+                .withTransport(TableTransport.nio(HOST, port))
+                .createNetwork();
+    }
+
+    private static int getFreePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void await(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.nanoTime() + TIMEOUT;
+        while (!condition.getAsBoolean()) {
+            Assert.assertTrue("Timed out", System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+    }
+}
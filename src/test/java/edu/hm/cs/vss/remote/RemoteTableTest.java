@@ -0,0 +1,206 @@
+package edu.hm.cs.vss.remote;
+
+import edu.hm.cs.vss.Chair;
+import edu.hm.cs.vss.Philosopher;
+import edu.hm.cs.vss.Table;
+import edu.hm.cs.vss.local.LocalTableMaster;
+import edu.hm.cs.vss.log.DummyLogger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Created by Fabio Hellmann on 18.10.2016.
+ */
+public class RemoteTableTest {
+    private static final String LOCAL_HOST = "127.0.0.1:1";
+
+    private final BlockingQueue<Map<String, Integer>> batches = new LinkedBlockingQueue<>();
+    private final CountDownLatch proceed = new CountDownLatch(1);
+    private final AtomicInteger runningCalls = new AtomicInteger();
+    private final AtomicInteger maxRunningCalls = new AtomicInteger();
+    private final AtomicInteger waitingCountCalls = new AtomicInteger();
+    private Table localTable;
+    private RemoteTable remoteTable;
+
+    @Before
+    public void connect() throws Exception {
+        localTable = new Table.Builder()
+                .withChairCount(1)
+                .withTableMaster(new LocalTableMaster())
+                .createLocal();
+        remoteTable = new RemoteTable("127.0.0.1:2", new DummyLogger(), new TableTransport() {
+            @Override
+            public String getLocalAddress() {
+                return LOCAL_HOST;
+            }
+
+            @Override
+            public void export(final RmiTable table) {
+            }
+
+            @Override
+            public RmiTable connect(final String address) {
+                return recordStandUps();
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+    }
+
+    @After
+    public void destroy() {
+        proceed.countDown();
+        remoteTable.destroy();
+    }
+
+    @Test
+    public void standUpAfterQuietPeriodIsSentRightAway() throws Exception {
+        proceed.countDown();
+        remoteTable.onStandUp(createPhilosopher("A", 1));
+
+        final Map<String, Integer> batch = batches.poll(5, TimeUnit.SECONDS);
+        Assert.assertNotNull(batch);
+        Assert.assertEquals(1, batch.size());
+        Assert.assertEquals(Integer.valueOf(1), batch.get("A"));
+    }
+
+    @Test
+    public void pendingStandUpsAreCoalesced() throws Exception {
+        remoteTable.onStandUp(createPhilosopher("A", 1));
+        Assert.assertNotNull(batches.poll(5, TimeUnit.SECONDS));
+
+        // The sender is busy with the first batch meanwhile
+        for (int meal = 2; meal <= 100; meal++) {
+            remoteTable.onStandUp(createPhilosopher("A", meal));
+            remoteTable.onStandUp(createPhilosopher("B", meal));
+        }
+        proceed.countDown();
+
+        final Map<String, Integer> batch = batches.poll(5, TimeUnit.SECONDS);
+        Assert.assertNotNull(batch);
+        Assert.assertEquals(2, batch.size());
+        Assert.assertEquals(Integer.valueOf(100), batch.get("A"));
+        Assert.assertEquals(Integer.valueOf(100), batch.get("B"));
+        Assert.assertNull(batches.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void blockingCallsShareABoundedAmountOfThreads() throws Exception {
+        final Chair chair = new RemoteChair(new Chair.Builder().create(), remoteTable);
+        final List<CompletableFuture<Integer>> counts = new ArrayList<>();
+        for (int index = 0; index < 4 * RemoteTable.MAX_CALL_THREADS; index++) {
+            counts.add(chair.waitingCountAsync());
+        }
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (runningCalls.get() < RemoteTable.MAX_CALL_THREADS) {
+            Assert.assertTrue("Timed out", System.nanoTime() < deadline);
+            Thread.sleep(1);
+        }
+        Thread.sleep(50);
+        Assert.assertEquals(RemoteTable.MAX_CALL_THREADS, maxRunningCalls.get());
+
+        // The queued calls are executed as soon as the threads are free again
+        proceed.countDown();
+        for (CompletableFuture<Integer> count : counts) {
+            Assert.assertEquals(Integer.valueOf(3), count.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void publishedWaitingCountIsUsedUntilItIsStale() throws Exception {
+        proceed.countDown();
+        final Chair chair = new RemoteChair(new Chair.Builder().setName("Chair-1").create(), remoteTable);
+        final Chair unpublishedChair = new RemoteChair(new Chair.Builder().setName("Chair-2").create(), remoteTable);
+
+        // Nothing published yet -> ask the remote table
+        Assert.assertEquals(3, chair.getWaitingPhilosopherCount());
+        Assert.assertEquals(1, waitingCountCalls.get());
+
+        remoteTable.setMaxStaleness(200, TimeUnit.MILLISECONDS);
+        remoteTable.onWaitingCounts(2, Collections.singletonList("Chair-1"), Collections.singletonList(5));
+        remoteTable.onWaitingCounts(1, Collections.singletonList("Chair-1"), Collections.singletonList(7)); // Late
+        Assert.assertEquals(5, chair.getWaitingPhilosopherCount());
+        Assert.assertEquals(Integer.valueOf(5), chair.waitingCountAsync().get(5, TimeUnit.SECONDS));
+        Assert.assertEquals(1, waitingCountCalls.get());
+
+        // The own acquisitions and releases correct the cached count until the next publication
+        Assert.assertTrue(chair.tryAcquire());
+        Assert.assertEquals(6, chair.getWaitingPhilosopherCount());
+        chair.release();
+        Assert.assertEquals(5, chair.getWaitingPhilosopherCount());
+        Assert.assertEquals(1, waitingCountCalls.get());
+
+        // A chair which was never published is still asked for
+        Assert.assertEquals(3, unpublishedChair.getWaitingPhilosopherCount());
+        Assert.assertEquals(2, waitingCountCalls.get());
+
+        // The remote table stopped publishing -> the cached counts are stale
+        Thread.sleep(300);
+        Assert.assertEquals(3, chair.getWaitingPhilosopherCount());
+        Assert.assertEquals(3, waitingCountCalls.get());
+        remoteTable.onWaitingCounts(3, Collections.singletonList("Chair-2"), Collections.singletonList(0));
+        Assert.assertEquals(5, chair.getWaitingPhilosopherCount()); // Unchanged since the last publication
+        Assert.assertEquals(3, waitingCountCalls.get());
+    }
+
+    private Philosopher createPhilosopher(final String name, final int takenMeals) {
+        return new Philosopher.Builder()
+                .name(name)
+                .setTable(localTable)
+                .setTakenMeals(takenMeals)
+                .create();
+    }
+
+    /**
+     * @return a remote table which records every batch of stand ups and holds up the first one until the test proceeds.
+     */
+    private RmiTable recordStandUps() {
+        return (RmiTable) Proxy.newProxyInstance(RmiTable.class.getClassLoader(), new Class<?>[]{RmiTable.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("onStandUps")) {
+                        Assert.assertEquals(LOCAL_HOST, args[0]);
+                        @SuppressWarnings("unchecked") final List<String> names = (List<String>) args[1];
+                        @SuppressWarnings("unchecked") final List<Integer> mealCounts = (List<Integer>) args[2];
+                        final Map<String, Integer> batch = new LinkedHashMap<>();
+                        for (int index = 0; index < names.size(); index++) {
+                            batch.put(names.get(index), mealCounts.get(index));
+                        }
+                        batches.add(batch);
+                        try {
+                            proceed.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt(); // Destroyed -> like a broken connection
+                            throw new RemoteException("Interrupted", e);
+                        }
+                    } else if (method.getName().equals("getChairWaitingPhilosophers")) {
+                        waitingCountCalls.incrementAndGet();
+                        maxRunningCalls.accumulateAndGet(runningCalls.incrementAndGet(), Math::max);
+                        try {
+                            proceed.await();
+                        } finally {
+                            runningCalls.decrementAndGet();
+                        }
+                        return 3;
+                    }
+                    return method.getReturnType() == boolean.class ? Boolean.TRUE : null;
+                });
+    }
+}